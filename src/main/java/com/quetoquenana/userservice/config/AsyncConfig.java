@@ -2,16 +2,20 @@ package com.quetoquenana.userservice.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
+@EnableScheduling
 public class AsyncConfig {
 
     /**
      * Dedicated thread pool for I/O-bound email sending tasks.
      * Tuned with modest defaults; override with application properties if needed.
+     * Tasks rejected because the queue is full are spilled to disk by EmailDispatchServiceImpl.
      */
     @Bean(name = "emailExecutor")
     public Executor emailExecutor() {
@@ -24,4 +28,36 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * CPU-bound pool for hashing the generated passwords of a bulk import in parallel.
+     * One thread per core; when the queue is full the submitting request thread hashes the row itself.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public Executor passwordHashExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("hash-exec-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs bulk user/person status jobs. Each job holds one connection per chunk, so few run at once;
+     * a submission beyond the queue is rejected and the job reported as failed.
+     */
+    @Bean(name = "bulkStatusExecutor")
+    public Executor bulkStatusExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("bulk-status-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,17 @@
+package com.quetoquenana.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the on-disk journal that absorbs email tasks when the email executor is saturated.
+ * Each instance needs its own file: application.properties defaults the path to one under {@code java.io.tmpdir}
+ * keyed by host name and server port. Without a path the journal is off.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.email.spill")
+public class EmailSpillProperties {
+    private boolean enabled = true;
+    private String path;
+    private int capacityBytes = 16 * 1024 * 1024;
+}
@@ -1,10 +1,20 @@
 package com.quetoquenana.userservice.config;
 
+import com.quetoquenana.userservice.security.OwnedResource;
+import com.quetoquenana.userservice.security.OwnedResourceAuthorizationManager;
+import com.quetoquenana.userservice.service.SecurityService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
 @Configuration
@@ -22,4 +32,18 @@ public class MethodSecurityConfig {
         handler.setRoleHierarchy(roleHierarchy);
         return handler;
     }
-}
\ No newline at end of file
+
+    /**
+     * Enforces {@link OwnedResource} on controller methods, next to (and before) the @PreAuthorize interceptor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor ownedResourceAuthorizationAdvisor(ObjectProvider<SecurityService> securityService) {
+        AuthorizationManagerBeforeMethodInterceptor interceptor = new AuthorizationManagerBeforeMethodInterceptor(
+                new AnnotationMatchingPointcut(null, OwnedResource.class, true),
+                new OwnedResourceAuthorizationManager(securityService)
+        );
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder() - 1);
+        return interceptor;
+    }
+}
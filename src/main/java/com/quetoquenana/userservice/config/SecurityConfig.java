@@ -2,8 +2,10 @@ package com.quetoquenana.userservice.config;
 
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.quetoquenana.userservice.service.AppRoleHierarchyService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -13,6 +15,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.*;
@@ -24,7 +27,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -42,6 +47,8 @@ public class SecurityConfig {
 
     private final CorsConfigProperties corsConfigProperties;
     private final RsaKeyProperties rsaKeyProperties;
+    // optional so that web slice tests can import this configuration without the JPA-backed service
+    private final ObjectProvider<AppRoleHierarchyService> appRoleHierarchyService;
 
     @Bean
     public SecurityFilterChain basicAuthChain(HttpSecurity http) throws Exception {
@@ -63,6 +70,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/util/**").permitAll()
+                        .requestMatchers("/actuator/metrics/**").hasRole("SYSTEM")
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/api/auth/forgot-password", "/api/auth/refresh").permitAll()
                         .requestMatchers("/.well-known/jwks.json").permitAll()
@@ -118,7 +126,18 @@ public class SecurityConfig {
         authoritiesConverter.setAuthorityPrefix(ROLE_PREFIX);
 
         JwtAuthenticationConverter jwtAuthConverter = new JwtAuthenticationConverter();
-        jwtAuthConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        jwtAuthConverter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+            AppRoleHierarchyService hierarchies = appRoleHierarchyService.getIfAvailable();
+            if (hierarchies == null || jwt.getAudience() == null) {
+                return authorities;
+            }
+            // expand the roles with the hierarchy of the application(s) the token was issued for
+            for (String audience : jwt.getAudience()) {
+                authorities = new ArrayList<>(hierarchies.getRoleHierarchy(audience).getReachableGrantedAuthorities(authorities));
+            }
+            return authorities;
+        });
 
         jwtAuthConverter.setPrincipalClaimName(KEY_SUB);
         return jwtAuthConverter;
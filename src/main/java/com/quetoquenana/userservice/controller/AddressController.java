@@ -6,15 +6,18 @@ import com.quetoquenana.userservice.dto.AddressUpdateRequest;
 import com.quetoquenana.userservice.model.Address;
 import com.quetoquenana.userservice.model.Person;
 import com.quetoquenana.userservice.service.AddressService;
+import com.quetoquenana.userservice.security.OwnedResource;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
+import static com.quetoquenana.userservice.security.OwnedResourceType.ADDRESS;
+import static com.quetoquenana.userservice.security.OwnedResourceType.PERSON;
+
 @RestController
 @RequestMapping("/api/persons")
 @RequiredArgsConstructor
@@ -25,7 +28,7 @@ public class AddressController {
 
     @PostMapping("/{idPerson}/address")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #idPerson)")
+    @OwnedResource(type = PERSON, param = "idPerson")
     public ResponseEntity<Address> createAddress(
             @PathVariable UUID idPerson,
             @Valid @RequestBody AddressCreateRequest request
@@ -37,7 +40,7 @@ public class AddressController {
 
     @PutMapping("/address/{idAddress}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdAddress(authentication, #idAddress)")
+    @OwnedResource(type = ADDRESS, param = "idAddress")
     public ResponseEntity<Address> updateAddress(
             @PathVariable UUID idAddress,
             @RequestBody AddressUpdateRequest request
@@ -48,7 +51,7 @@ public class AddressController {
     }
 
     @DeleteMapping("/address/{idAddress}")
-    @PreAuthorize("@securityService.canAccessIdAddress(authentication, #idAddress)")
+    @OwnedResource(type = ADDRESS, param = "idAddress")
     public ResponseEntity<Void> deleteAddress(@PathVariable UUID idAddress) {
         log.info("DELETE /api/persons/address/{} called", idAddress);
         addressService.delete(idAddress);
@@ -3,23 +3,35 @@ package com.quetoquenana.userservice.controller;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.quetoquenana.userservice.dto.*;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
+import com.quetoquenana.userservice.model.AppPermission;
 import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.model.AppRoleImplication;
 import com.quetoquenana.userservice.model.AppRoleUser;
 import com.quetoquenana.userservice.model.Application;
 import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.service.UserImportService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static com.quetoquenana.userservice.util.Constants.Export.CSV_CONTENT_TYPE;
+import static com.quetoquenana.userservice.util.Constants.Export.NDJSON_CONTENT_TYPE;
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE;
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
 
@@ -30,19 +42,33 @@ import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
 public class ApplicationController {
 
     private final ApplicationService applicationService;
+    private final UserImportService userImportService;
 
     @GetMapping("/page")
     @PreAuthorize("hasRole('SYSTEM')")
     @JsonView(Application.ApplicationList.class)
     public ResponseEntity<ApiResponse> getAllApplicationsPage(
             @RequestParam(defaultValue = PAGE) int page,
-            @RequestParam(defaultValue = PAGE_SIZE) int size
+            @RequestParam(defaultValue = PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean exactTotal
     ) {
-        log.info("GET /api/applications/page called with page={}, size={}", page, size);
-        Page<Application> entities = applicationService.findAll(PageRequest.of(page, size));
+        log.info("GET /api/applications/page called with page={}, size={}, exactTotal={}", page, size, exactTotal);
+        Page<ApplicationSummary> entities = applicationService.findAll(PageRequest.of(page, size), exactTotal);
         return ResponseEntity.ok(new ApiResponse(new com.quetoquenana.userservice.util.JsonViewPageUtil<>(entities, entities.getPageable())));
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(Application.ApplicationList.class)
+    public ResponseEntity<ApiResponse> getAllApplicationsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int size
+    ) {
+        log.info("GET /api/applications/cursor called with cursor={}, size={}", cursor, size);
+        JsonViewCursorPage<ApplicationSummary> entities = applicationService.findAfter(PageCursor.decode(cursor), size);
+        return ResponseEntity.ok(new ApiResponse(entities));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('SYSTEM')")
     @JsonView(Application.ApplicationDetail.class)
@@ -65,7 +91,7 @@ public class ApplicationController {
             @RequestParam(defaultValue = PAGE_SIZE) int size
     ) {
         log.info("GET /api/applications/search called with name={}, page={}, size={}", name, page, size);
-        Page<Application> entities = applicationService.searchByName(name, PageRequest.of(page, size));
+        Page<ApplicationSummary> entities = applicationService.searchByName(name, PageRequest.of(page, size));
         return ResponseEntity.ok(new ApiResponse(new com.quetoquenana.userservice.util.JsonViewPageUtil<>(entities, entities.getPageable())));
     }
 
@@ -95,10 +121,11 @@ public class ApplicationController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('SYSTEM')")
     public ResponseEntity<Void> deleteApplication(
-            @PathVariable UUID id
+            @PathVariable UUID id,
+            @RequestParam(required = false) Long version
     ) {
-        log.info("DELETE /api/applications/{} called", id);
-        applicationService.deleteById(id);
+        log.info("DELETE /api/applications/{} called with version={}", id, version);
+        applicationService.deleteById(id, version);
         return ResponseEntity.noContent().build();
     }
 
@@ -128,6 +155,20 @@ public class ApplicationController {
                 .body(new ApiResponse(Collections.singletonMap("appRoleUser", entity)));
     }
 
+    @PostMapping(value = "/{id}/user/import", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_CONTENT_TYPE, CSV_CONTENT_TYPE})
+    @PreAuthorize("hasRole('SYSTEM') or hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> importUsers(
+            @PathVariable UUID id,
+            @RequestParam String roleName,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        log.info("POST /api/applications/{}/user/import called with roleName={}, contentType={}", id, roleName, contentType);
+        ExportFormat format = MediaType.valueOf(CSV_CONTENT_TYPE).includes(contentType) ? ExportFormat.CSV : ExportFormat.NDJSON;
+        UserImportResponse response = userImportService.importUsers(id, roleName, format, body);
+        return ResponseEntity.ok(new ApiResponse(response));
+    }
+
     @DeleteMapping("/{id}/user/{username}")
     @PreAuthorize("hasRole('SYSTEM')")
     public ResponseEntity<Void> deleteUser(
@@ -149,4 +190,83 @@ public class ApplicationController {
         applicationService.deleteRole(id, roleId);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{id}/role-implies")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(Application.ApplicationDetail.class)
+    public ResponseEntity<ApiResponse> getRoleImplications(@PathVariable UUID id) {
+        log.info("GET /api/applications/{}/role-implies called", id);
+        List<AppRoleImplication> entities = applicationService.findRoleImplications(id);
+        return ResponseEntity.ok(new ApiResponse(entities));
+    }
+
+    @PostMapping("/{id}/role-implies")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(Application.ApplicationDetail.class)
+    public ResponseEntity<ApiResponse> addRoleImplication(
+            @PathVariable UUID id,
+            @Valid @RequestBody AppRoleImplicationCreateRequest request
+    ) {
+        log.info("POST /api/applications/{}/role-implies called with payload: {}", id, request);
+        AppRoleImplication entity = applicationService.addRoleImplication(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse(Collections.singletonMap("roleImplication", entity)));
+    }
+
+    @DeleteMapping("/{id}/role-implies/{implicationId}")
+    @PreAuthorize("hasRole('SYSTEM')")
+    public ResponseEntity<Void> deleteRoleImplication(
+            @PathVariable UUID id,
+            @PathVariable UUID implicationId
+    ) {
+        log.info("DELETE /api/applications/{}/role-implies/{} called", id, implicationId);
+        applicationService.removeRoleImplication(id, implicationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/permission")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(Application.ApplicationDetail.class)
+    public ResponseEntity<ApiResponse> getPermissions(@PathVariable UUID id) {
+        log.info("GET /api/applications/{}/permission called", id);
+        List<AppPermission> entities = applicationService.findPermissions(id);
+        return ResponseEntity.ok(new ApiResponse(entities));
+    }
+
+    @PostMapping("/{id}/permission")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(Application.ApplicationDetail.class)
+    public ResponseEntity<ApiResponse> addPermission(
+            @PathVariable UUID id,
+            @Valid @RequestBody AppPermissionCreateRequest request
+    ) {
+        log.info("POST /api/applications/{}/permission called with payload: {}", id, request);
+        AppPermission entity = applicationService.addPermission(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ApiResponse(Collections.singletonMap("permission", entity)));
+    }
+
+    @PutMapping("/{id}/role/{roleId}/permission/{permissionId}")
+    @PreAuthorize("hasRole('SYSTEM')")
+    public ResponseEntity<Void> grantPermission(
+            @PathVariable UUID id,
+            @PathVariable UUID roleId,
+            @PathVariable UUID permissionId
+    ) {
+        log.info("PUT /api/applications/{}/role/{}/permission/{} called", id, roleId, permissionId);
+        applicationService.grantPermission(id, roleId, permissionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/role/{roleId}/permission/{permissionId}")
+    @PreAuthorize("hasRole('SYSTEM')")
+    public ResponseEntity<Void> revokePermission(
+            @PathVariable UUID id,
+            @PathVariable UUID roleId,
+            @PathVariable UUID permissionId
+    ) {
+        log.info("DELETE /api/applications/{}/role/{}/permission/{} called", id, roleId, permissionId);
+        applicationService.revokePermission(id, roleId, permissionId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -7,7 +7,9 @@ import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.dto.ApiResponse;
 import com.quetoquenana.userservice.model.DefaultData;
 import com.quetoquenana.userservice.service.DefaultDataService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
 import com.quetoquenana.userservice.util.JsonViewPageUtil;
+import com.quetoquenana.userservice.util.PageCursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,11 +38,26 @@ public class DefaultDataController {
     @JsonView(DefaultData.DefaultDataList.class)
     public ResponseEntity<ApiResponse> getDefaultDataPage(
             @RequestParam(defaultValue = PAGE) int page,
+            @RequestParam(defaultValue = PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean exactTotal
+    ) {
+        log.info("GET /api/default-data/page called with page={}, size={}, exactTotal={}", page, size, exactTotal);
+        String eTag = catalogETag();
+        Page<DefaultData> entities = defaultDataService.findAll(PageRequest.of(page, size), exactTotal);
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('SYSTEM')")
+    @JsonView(DefaultData.DefaultDataList.class)
+    public ResponseEntity<ApiResponse> getDefaultDataCursor(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = PAGE_SIZE) int size
     ) {
-        log.info("GET /api/default-data/page called with page={}, size={}", page, size);
-        Page<DefaultData> entities = defaultDataService.findAll(PageRequest.of(page, size));
-        return ResponseEntity.ok(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
+        log.info("GET /api/default-data/cursor called with cursor={}, size={}", cursor, size);
+        String eTag = catalogETag();
+        JsonViewCursorPage<DefaultData> entities = defaultDataService.findAfter(PageCursor.decode(cursor), size);
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponse(entities));
     }
 
     @GetMapping("/{id}")
@@ -50,8 +67,9 @@ public class DefaultDataController {
             @PathVariable UUID id
     ) {
         log.info("GET /api/default-data/{} called", id);
+        String eTag = catalogETag();
         return defaultDataService.findById(id)
-                .map(entity -> ResponseEntity.ok(new ApiResponse(entity)))
+                .map(entity -> ResponseEntity.ok().eTag(eTag).body(new ApiResponse(entity)))
                 .orElseGet(() -> {
                     log.error("DefaultData with id {} not found", id);
                     throw new RecordNotFoundException();
@@ -67,8 +85,9 @@ public class DefaultDataController {
             @PathVariable String category
     ) {
         log.info("GET /api/default-data/page/category/{} called", category);
+        String eTag = catalogETag();
         Page<DefaultData> entities = defaultDataService.findByDataCategory(category, PageRequest.of(page, size));
-        return ResponseEntity.ok(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
+        return ResponseEntity.ok().eTag(eTag).body(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
     }
 
     @PostMapping
@@ -93,9 +112,21 @@ public class DefaultDataController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('SYSTEM')")
-    public ResponseEntity<Void> deleteDefaultData(@PathVariable UUID id) {
-        log.info("DELETE /api/default-data/{} called", id);
-        defaultDataService.deleteById(id);
+    public ResponseEntity<Void> deleteDefaultData(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Long version
+    ) {
+        log.info("DELETE /api/default-data/{} called with version={}", id, version);
+        defaultDataService.deleteById(id, version);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * ETag of the read endpoints: the catalog version. A request carrying it in If-None-Match gets 304 until
+     * default data changes. Taken before the read, so a concurrent reload can only make it older than the body
+     * (one extra 200 for the client), never newer.
+     */
+    private String catalogETag() {
+        return Long.toHexString(defaultDataService.getCatalogVersion());
+    }
 }
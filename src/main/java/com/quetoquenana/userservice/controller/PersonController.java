@@ -1,25 +1,43 @@
 package com.quetoquenana.userservice.controller;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.dto.BulkPersonStatusRequest;
+import com.quetoquenana.userservice.dto.BulkStatusJob;
+import com.quetoquenana.userservice.dto.PersonSummary;
 import com.quetoquenana.userservice.dto.PersonUpdateRequest;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.dto.ApiResponse;
+import com.quetoquenana.userservice.dto.ExportFormat;
 import com.quetoquenana.userservice.model.Person;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.ExportService;
 import com.quetoquenana.userservice.service.PersonService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
 import com.quetoquenana.userservice.util.JsonViewPageUtil;
+import com.quetoquenana.userservice.util.PageCursor;
+import com.quetoquenana.userservice.security.OwnedResource;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE;
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
+import static com.quetoquenana.userservice.security.OwnedResourceType.ID_NUMBER;
+import static com.quetoquenana.userservice.security.OwnedResourceType.PERSON;
 
 @RestController
 @RequestMapping("/api/persons")
@@ -28,6 +46,8 @@ import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
 public class PersonController {
 
     private final PersonService personService;
+    private final ExportService exportService;
+    private final BulkStatusService bulkStatusService;
 
     @GetMapping("/status/{status}")
     @JsonView(Person.PersonList.class)
@@ -36,7 +56,7 @@ public class PersonController {
             @PathVariable Boolean status
     ) {
         log.info("GET /api/persons/status{} called", status);
-        List<Person> entities = personService.findByIsActive(status);
+        List<PersonSummary> entities = personService.findByIsActive(status);
         return ResponseEntity.ok(new ApiResponse(entities));
     }
 
@@ -45,16 +65,43 @@ public class PersonController {
     @PreAuthorize("hasRole('ADMIN')") // Only ADMIN role can access
     public ResponseEntity<ApiResponse> getPersonsPage(
             @RequestParam(defaultValue = PAGE) int page,
-            @RequestParam(defaultValue = PAGE_SIZE) int size
+            @RequestParam(defaultValue = PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean exactTotal
     ) {
-        log.info("GET /api/persons/page called with page={}, size={}", page, size);
-        Page<Person> entities = personService.findAll(PageRequest.of(page, size));
+        log.info("GET /api/persons/page called with page={}, size={}, exactTotal={}", page, size, exactTotal);
+        Page<PersonSummary> entities = personService.findAll(PageRequest.of(page, size), exactTotal);
         return ResponseEntity.ok(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
     }
 
+    @GetMapping("/cursor")
+    @JsonView(Person.PersonList.class)
+    @PreAuthorize("hasRole('ADMIN')") // Only ADMIN role can access
+    public ResponseEntity<ApiResponse> getPersonsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int size
+    ) {
+        log.info("GET /api/persons/cursor called with cursor={}, size={}", cursor, size);
+        JsonViewCursorPage<PersonSummary> entities = personService.findAfter(PageCursor.decode(cursor), size);
+        return ResponseEntity.ok(new ApiResponse(entities));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportPersons(
+            @RequestParam(required = false) Boolean status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("GET /api/persons/export called with status={}, format={}", status, format);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"persons." + format.getExtension() + "\"");
+        exportService.exportPersons(status, format, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #id)")
+    @OwnedResource(type = PERSON, param = "id")
     public ResponseEntity<ApiResponse> getPersonById(
             @PathVariable UUID id
     ) {
@@ -67,9 +114,24 @@ public class PersonController {
                 });
     }
 
+    // one query for the person and everything attached to it; the JSON is built by the database
+    @GetMapping(value = "/{id}/overview", produces = MediaType.APPLICATION_JSON_VALUE)
+    @OwnedResource(type = PERSON, param = "id")
+    public ResponseEntity<byte[]> getPersonOverview(
+            @PathVariable UUID id
+    ) {
+        log.info("GET /api/persons/{}/overview called", id);
+        return personService.findOverviewJson(id)
+                .map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
+                .orElseGet(() -> {
+                    log.error("Person with id {} not found", id);
+                    throw new RecordNotFoundException();
+                });
+    }
+
     @GetMapping("/idNumber/{idNumber}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdNumber(authentication, #idNumber)")
+    @OwnedResource(type = ID_NUMBER, param = "idNumber")
     public ResponseEntity<ApiResponse> getPersonByIdNumber(
             @PathVariable String idNumber
     ) {
@@ -84,7 +146,7 @@ public class PersonController {
 
     @PutMapping("/{id}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #id)")
+    @OwnedResource(type = PERSON, param = "id")
     public ResponseEntity<ApiResponse> updatePerson(
             @PathVariable UUID id,
             @RequestBody PersonUpdateRequest request
@@ -95,12 +157,39 @@ public class PersonController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #id)")
+    @OwnedResource(type = PERSON, param = "id")
     public ResponseEntity<Void> deletePerson(
-            @PathVariable UUID id
+            @PathVariable UUID id,
+            @RequestParam(required = false) Long version
     ) {
-        log.info("DELETE /api/persons/{} called", id);
-        personService.deleteById(id);
+        log.info("DELETE /api/persons/{} called with version={}", id, version);
+        personService.deleteById(id, version);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk-status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> changePersonsStatus(
+            @Valid @RequestBody BulkPersonStatusRequest request
+    ) {
+        log.info("POST /api/persons/bulk-status called with active={}, currentActive={}, idNumberPrefix={}, ids={}",
+                request.getActive(), request.getCurrentActive(), request.getIdNumberPrefix(),
+                request.getPersonIds() == null ? 0 : request.getPersonIds().size());
+        BulkStatusJob job = bulkStatusService.changePersonStatus(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getId()).toUri())
+                .body(new ApiResponse(job));
+    }
+
+    @GetMapping("/bulk-status/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> getPersonsStatusJob(
+            @PathVariable UUID jobId
+    ) {
+        log.info("GET /api/persons/bulk-status/{} called", jobId);
+        return bulkStatusService.findJob(jobId)
+                .filter(job -> job.getTarget() == BulkStatusJob.Target.PERSONS)
+                .map(job -> ResponseEntity.ok(new ApiResponse(job)))
+                .orElseThrow(RecordNotFoundException::new);
+    }
 }
@@ -6,15 +6,18 @@ import com.quetoquenana.userservice.model.Phone;
 import com.quetoquenana.userservice.service.PhoneService;
 import com.quetoquenana.userservice.dto.PhoneCreateRequest;
 import com.quetoquenana.userservice.dto.PhoneUpdateRequest;
+import com.quetoquenana.userservice.security.OwnedResource;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
+import static com.quetoquenana.userservice.security.OwnedResourceType.PERSON;
+import static com.quetoquenana.userservice.security.OwnedResourceType.PHONE;
+
 @RestController
 @RequestMapping("/api/persons")
 @RequiredArgsConstructor
@@ -25,7 +28,7 @@ public class PhoneController {
 
     @PostMapping("/{idPerson}/phone")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #idPerson)")
+    @OwnedResource(type = PERSON, param = "idPerson")
     public ResponseEntity<Phone> addPhone(
             @PathVariable UUID idPerson,
             @Valid @RequestBody PhoneCreateRequest request
@@ -37,7 +40,7 @@ public class PhoneController {
 
     @PutMapping("/phone/{idPhone}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPhone(authentication, #idPhone)")
+    @OwnedResource(type = PHONE, param = "idPhone")
     public ResponseEntity<Phone> updatePhone(
             @PathVariable UUID idPhone,
             @RequestBody PhoneUpdateRequest request
@@ -48,7 +51,7 @@ public class PhoneController {
     }
 
     @DeleteMapping("/phone/{idPhone}")
-    @PreAuthorize("@securityService.canAccessIdPhone(authentication, #idPhone)")
+    @OwnedResource(type = PHONE, param = "idPhone")
     public ResponseEntity<Void> deletePhone(@PathVariable UUID idPhone) {
         log.info("DELETE /api/persons/phone/{} called", idPhone);
         phoneService.deleteById(idPhone);
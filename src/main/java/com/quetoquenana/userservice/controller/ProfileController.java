@@ -6,14 +6,17 @@ import com.quetoquenana.userservice.dto.ProfileUpdateRequest;
 import com.quetoquenana.userservice.model.Person;
 import com.quetoquenana.userservice.model.Profile;
 import com.quetoquenana.userservice.service.ProfileService;
+import com.quetoquenana.userservice.security.OwnedResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
+import static com.quetoquenana.userservice.security.OwnedResourceType.PERSON;
+import static com.quetoquenana.userservice.security.OwnedResourceType.PROFILE;
+
 @RestController
 @RequestMapping("/api/persons")
 @RequiredArgsConstructor
@@ -24,7 +27,7 @@ public class ProfileController {
 
     @PostMapping("/{idPerson}/profile")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdPerson(authentication, #idPerson)")
+    @OwnedResource(type = PERSON, param = "idPerson")
     public ResponseEntity<Profile> addProfile(
             @PathVariable UUID idPerson,
             @RequestBody ProfileCreateRequest request
@@ -36,7 +39,7 @@ public class ProfileController {
 
     @PutMapping("/profile/{idProfile}")
     @JsonView(Person.PersonDetail.class)
-    @PreAuthorize("@securityService.canAccessIdProfile(authentication, #idProfile)")
+    @OwnedResource(type = PROFILE, param = "idProfile")
     public ResponseEntity<Profile> updateProfile(
             @PathVariable UUID idProfile,
             @RequestBody ProfileUpdateRequest request) {
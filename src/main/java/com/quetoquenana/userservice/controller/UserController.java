@@ -4,22 +4,33 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.quetoquenana.userservice.dto.*;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.model.User;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.ExportService;
 import com.quetoquenana.userservice.service.UserService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
 import com.quetoquenana.userservice.util.JsonViewPageUtil;
+import com.quetoquenana.userservice.util.PageCursor;
+import com.quetoquenana.userservice.security.OwnedResource;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE;
 import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
+import static com.quetoquenana.userservice.security.OwnedResourceType.USER;
 
 @RestController
 @RequestMapping("/api/users")
@@ -28,22 +39,50 @@ import static com.quetoquenana.userservice.util.Constants.Pagination.PAGE_SIZE;
 public class UserController {
 
     private final UserService userService;
+    private final ExportService exportService;
+    private final BulkStatusService bulkStatusService;
 
     @GetMapping("/page")
     @JsonView(User.UserList.class)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse> getUsersPage(
             @RequestParam(defaultValue = PAGE) int page,
-            @RequestParam(defaultValue = PAGE_SIZE) int size
+            @RequestParam(defaultValue = PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean exactTotal
     ) {
-        log.info("GET /api/users/page called with page={}, size={}", page, size);
-        Page<User> entities = userService.findAll(PageRequest.of(page, size));
+        log.info("GET /api/users/page called with page={}, size={}, exactTotal={}", page, size, exactTotal);
+        Page<UserSummary> entities = userService.findAll(PageRequest.of(page, size), exactTotal);
         return ResponseEntity.ok(new ApiResponse(new JsonViewPageUtil<>(entities, entities.getPageable())));
     }
 
+    @GetMapping("/cursor")
+    @JsonView(User.UserList.class)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> getUsersCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int size
+    ) {
+        log.info("GET /api/users/cursor called with cursor={}, size={}", cursor, size);
+        JsonViewCursorPage<UserSummary> entities = userService.findAfter(PageCursor.decode(cursor), size);
+        return ResponseEntity.ok(new ApiResponse(entities));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("GET /api/users/export called with format={}", format);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format.getExtension() + "\"");
+        exportService.exportUsers(format, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     @JsonView(User.UserDetail.class)
-    @PreAuthorize("@securityService.canAccessIdUser(authentication, #id)")
+    @OwnedResource(type = USER, param = "id")
     public ResponseEntity<ApiResponse> getUserById(
             @PathVariable UUID id
     ) {
@@ -58,7 +97,7 @@ public class UserController {
 
     @GetMapping("/{idUser}/{idApplication}")
     @JsonView(User.UserDetail.class)
-    @PreAuthorize("@securityService.canAccessIdUser(authentication, #idUser)")
+    @OwnedResource(type = USER, param = "idUser")
     public ResponseEntity<ApiResponse> getUserApplicationDetails(
             @PathVariable UUID idUser,
             @PathVariable UUID idApplication
@@ -97,15 +136,42 @@ public class UserController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteUser(
-            @PathVariable UUID id
+            @PathVariable UUID id,
+            @RequestParam(required = false) Long version
     ) {
-        log.info("DELETE /api/users/{} called", id);
-        userService.delete(id);
+        log.info("DELETE /api/users/{} called with version={}", id, version);
+        userService.delete(id, version);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk-status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> changeUsersStatus(
+            @Valid @RequestBody BulkUserStatusRequest request
+    ) {
+        log.info("POST /api/users/bulk-status called with status={}, currentStatus={}, usernameSuffix={}, ids={}",
+                request.getStatus(), request.getCurrentStatus(), request.getUsernameSuffix(),
+                request.getUserIds() == null ? 0 : request.getUserIds().size());
+        BulkStatusJob job = bulkStatusService.changeUserStatus(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getId()).toUri())
+                .body(new ApiResponse(job));
+    }
+
+    @GetMapping("/bulk-status/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse> getUsersStatusJob(
+            @PathVariable UUID jobId
+    ) {
+        log.info("GET /api/users/bulk-status/{} called", jobId);
+        return bulkStatusService.findJob(jobId)
+                .filter(job -> job.getTarget() == BulkStatusJob.Target.USERS)
+                .map(job -> ResponseEntity.ok(new ApiResponse(job)))
+                .orElseThrow(RecordNotFoundException::new);
+    }
+
     @PostMapping("/{id}/change-password")
-    @PreAuthorize("@securityService.canAccessIdUser(authentication, #id)")
+    @OwnedResource(type = USER, param = "id")
     public ResponseEntity<Void> changePassword(
             @PathVariable UUID id,
             @Valid @RequestBody ChangePasswordRequest request
@@ -0,0 +1,12 @@
+package com.quetoquenana.userservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class AppPermissionCreateRequest {
+    @NotBlank
+    private String name;
+
+    private String description;
+}
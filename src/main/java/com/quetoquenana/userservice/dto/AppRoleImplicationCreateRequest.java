@@ -0,0 +1,13 @@
+package com.quetoquenana.userservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class AppRoleImplicationCreateRequest {
+    @NotBlank
+    private String roleName;
+
+    @NotBlank
+    private String impliedRoleName;
+}
@@ -0,0 +1,20 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.model.Application;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of the application listings and name search ({@link Application.ApplicationList} columns).
+ */
+@JsonView(Application.ApplicationList.class)
+public record ApplicationSummary(
+        UUID id,
+        String name,
+        String code,
+        boolean active,
+        @JsonIgnore LocalDateTime createdAt
+) {}
@@ -0,0 +1,37 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects persons either by id or by filter (currentActive and/or idNumberPrefix), never both.
+ */
+@Data
+public class BulkPersonStatusRequest {
+
+    @NotNull
+    private Boolean active;
+
+    @Size(max = 100000)
+    private List<UUID> personIds;
+
+    private Boolean currentActive;
+
+    // e.g. "EXT-"; matched case-sensitively, like the unique persons.id_number index
+    @Size(max = 100)
+    private String idNumberPrefix;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either personIds or a filter (currentActive, idNumberPrefix)")
+    public boolean isSelectionValid() {
+        boolean byIds = personIds != null && !personIds.isEmpty();
+        boolean byFilter = currentActive != null || (idNumberPrefix != null && !idNumberPrefix.isBlank());
+        return byIds != byFilter;
+    }
+}
@@ -0,0 +1,90 @@
+package com.quetoquenana.userservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk status change. Written by the one thread running the job, read by status requests.
+ * Also stored in bulk_status_jobs, from which other nodes {@link #restore() restore} it.
+ */
+@Getter
+public class BulkStatusJob {
+
+    public enum Target {
+        USERS,
+        PERSONS
+    }
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID id;
+    private final Target target;
+    private final String requestedBy;
+    private final LocalDateTime startedAt;
+    private final long total;
+
+    private volatile State state = State.RUNNING;
+    // rows selected so far, updated or not
+    private volatile long processed;
+    // rows whose status actually changed
+    private volatile long updated;
+    private volatile long tokensRevoked;
+    private volatile int chunks;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+
+    public BulkStatusJob(UUID id, Target target, String requestedBy, long total) {
+        this.id = id;
+        this.target = target;
+        this.requestedBy = requestedBy;
+        this.total = total;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    @Builder(builderMethodName = "restore")
+    private BulkStatusJob(UUID id, Target target, String requestedBy, LocalDateTime startedAt, long total, State state,
+                          long processed, long updated, long tokensRevoked, int chunks, LocalDateTime finishedAt,
+                          String message) {
+        this.id = id;
+        this.target = target;
+        this.requestedBy = requestedBy;
+        this.startedAt = startedAt;
+        this.total = total;
+        this.state = state;
+        this.processed = processed;
+        this.updated = updated;
+        this.tokensRevoked = tokensRevoked;
+        this.chunks = chunks;
+        this.finishedAt = finishedAt;
+        this.message = message;
+    }
+
+    public void chunkCommitted(int selected, int updatedRows, int revokedTokens) {
+        processed += selected;
+        updated += updatedRows;
+        tokensRevoked += revokedTokens;
+        chunks++;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+}
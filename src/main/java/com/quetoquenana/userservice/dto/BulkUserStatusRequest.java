@@ -0,0 +1,39 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.quetoquenana.userservice.model.UserStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects users either by id or by filter (currentStatus and/or usernameSuffix), never both.
+ */
+@Data
+public class BulkUserStatusRequest {
+
+    // INACTIVE, BLOCKED or RESET
+    @NotNull
+    private UserStatus status;
+
+    @Size(max = 100000)
+    private List<UUID> userIds;
+
+    private UserStatus currentStatus;
+
+    // e.g. "@contractor.example.com"; matched case-insensitively
+    @Size(max = 100)
+    private String usernameSuffix;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either userIds or a filter (currentStatus, usernameSuffix)")
+    public boolean isSelectionValid() {
+        boolean byIds = userIds != null && !userIds.isEmpty();
+        boolean byFilter = currentStatus != null || (usernameSuffix != null && !usernameSuffix.isBlank());
+        return byIds != byFilter;
+    }
+}
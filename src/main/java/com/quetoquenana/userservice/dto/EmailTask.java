@@ -0,0 +1,32 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Self-contained description of an email to send, so it can be queued in memory or spilled to disk.
+ * The temporary password is never serialized: a task read back from disk has none, and a new one is
+ * issued when it is sent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailTask {
+
+    public enum Type {
+        NEW_USER,
+        PASSWORD_RESET
+    }
+
+    private Type type;
+    private UserEmailInfo user;
+    @JsonIgnore
+    private String password;
+    private Locale locale;
+}
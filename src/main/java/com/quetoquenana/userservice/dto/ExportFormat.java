@@ -0,0 +1,17 @@
+package com.quetoquenana.userservice.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import static com.quetoquenana.userservice.util.Constants.Export.CSV_CONTENT_TYPE;
+import static com.quetoquenana.userservice.util.Constants.Export.NDJSON_CONTENT_TYPE;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON(NDJSON_CONTENT_TYPE, "ndjson"),
+    CSV(CSV_CONTENT_TYPE, "csv");
+
+    private final String contentType;
+    private final String extension;
+}
@@ -0,0 +1,21 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.model.Person;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of the person listings: what {@link Person.PersonList} shows, plus the keyset position.
+ */
+@JsonView(Person.PersonList.class)
+public record PersonSummary(
+        UUID id,
+        String idNumber,
+        String name,
+        String lastname,
+        Boolean isActive,
+        @JsonIgnore LocalDateTime createdAt
+) {}
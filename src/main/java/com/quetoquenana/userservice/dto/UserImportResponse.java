@@ -0,0 +1,23 @@
+package com.quetoquenana.userservice.dto;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class UserImportResponse {
+
+    private final Map<UserImportResult.Status, Integer> totals;
+    private final List<UserImportResult> results;
+
+    public UserImportResponse(List<UserImportResult> results) {
+        this.results = results;
+        this.totals = new EnumMap<>(UserImportResult.Status.class);
+        for (UserImportResult.Status status : UserImportResult.Status.values()) {
+            totals.put(status, 0);
+        }
+        results.forEach(result -> totals.merge(result.getStatus(), 1, Integer::sum));
+    }
+}
@@ -0,0 +1,27 @@
+package com.quetoquenana.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one import row; {@code row} is 1-based and counts data rows only (not the CSV header).
+ */
+@Getter
+@AllArgsConstructor
+public class UserImportResult {
+
+    public enum Status {
+        // new user (and person, when the ID number was unknown) created and assigned the role
+        CREATED,
+        // existing user assigned the role
+        LINKED,
+        // user already has a role in the application, or the username repeats an earlier row
+        SKIPPED,
+        FAILED
+    }
+
+    private int row;
+    private String username;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.quetoquenana.userservice.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a bulk user import (JSON object or CSV record with these column names).
+ * Sizes mirror the column lengths so a bad row is rejected on its own instead of failing its batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRow {
+    @NotBlank(message = "{validation.field.not.blank}")
+    @Email(message = "{validation.user.email.invalid}")
+    @Size(max = 100)
+    private String username;
+
+    @NotBlank(message = "{validation.field.not.blank}")
+    @Size(max = 50)
+    private String idNumber;
+
+    @NotBlank(message = "{validation.field.not.blank}")
+    @Size(max = 50)
+    private String name;
+
+    @NotBlank(message = "{validation.field.not.blank}")
+    @Size(max = 50)
+    private String lastname;
+
+    @Size(max = 50)
+    private String nickname;
+}
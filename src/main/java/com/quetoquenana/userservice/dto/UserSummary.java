@@ -0,0 +1,25 @@
+package com.quetoquenana.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.model.User;
+import com.quetoquenana.userservice.model.UserProvider;
+import com.quetoquenana.userservice.model.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The {@link User.UserList} columns, selected with a constructor expression: list pages never load the password
+ * hash or a managed user. {@code createdAt} is only there to build the next keyset cursor.
+ */
+@JsonView(User.UserList.class)
+public record UserSummary(
+        UUID id,
+        String username,
+        String externalId,
+        UserProvider provider,
+        String nickname,
+        UserStatus userStatus,
+        @JsonIgnore LocalDateTime createdAt
+) {}
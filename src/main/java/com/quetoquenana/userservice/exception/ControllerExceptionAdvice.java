@@ -79,6 +79,17 @@ public class ControllerExceptionAdvice {
                 .body(new ApiResponse(message, HttpStatus.CONFLICT.value()));
     }
 
+    @ExceptionHandler(StaleRecordException.class)
+    public ResponseEntity<ApiResponse> handleStaleRecordException(
+            StaleRecordException ex,
+            Locale locale
+    ) {
+        log.error("Stale record: {}", ex.getMessage());
+        String message = messageSource.getMessage(ex.getMessageKey(), ex.getMessageArgs(), locale);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse(message, HttpStatus.CONFLICT.value()));
+    }
+
     @ExceptionHandler(InactiveRecordException.class)
     public ResponseEntity<ApiResponse> handleInactiveRecordException(
             InactiveRecordException ex,
@@ -0,0 +1,22 @@
+package com.quetoquenana.userservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class StaleRecordException extends RuntimeException {
+    public static final String DEFAULT_MESSAGE_KEY = "error.stale.record";
+    private final String messageKey;
+    private final Object[] messageArgs;
+
+    public StaleRecordException(String messageKey, Object... messageArgs) {
+        super(messageKey);
+        this.messageKey = messageKey;
+        this.messageArgs = messageArgs;
+    }
+
+    public StaleRecordException() {
+        super();
+        this.messageKey = DEFAULT_MESSAGE_KEY;
+        this.messageArgs = null;
+    }
+}
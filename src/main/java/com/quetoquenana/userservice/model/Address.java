@@ -17,7 +17,7 @@ import java.util.UUID;
 @Setter
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @JsonView(Person.PersonDetail.class)
     private UUID id;
 
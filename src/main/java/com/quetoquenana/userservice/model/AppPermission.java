@@ -0,0 +1,53 @@
+package com.quetoquenana.userservice.model;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.dto.AppPermissionCreateRequest;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Fine-grained permission of an application. {@code bitIndex} is its position in the application's
+ * permission bitmask carried by tokens; it is assigned on creation and never reused.
+ */
+@Entity
+@Table(name = "app_permissions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class AppPermission extends Auditable {
+
+    @Id
+    @GeneratedUuidV7
+    @Column(name = "id", updatable = false, nullable = false)
+    @JsonView(Application.ApplicationDetail.class)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "application_id", nullable = false, updatable = false)
+    private Application application;
+
+    @Column(name = "bit_index", nullable = false, updatable = false)
+    @JsonView(Application.ApplicationDetail.class)
+    private Integer bitIndex;
+
+    @Column(name = "name", nullable = false, length = 100)
+    @JsonView(Application.ApplicationDetail.class)
+    private String name;
+
+    @Column(name = "description", length = 100)
+    @JsonView(Application.ApplicationDetail.class)
+    private String description;
+
+    public static AppPermission fromCreateRequest(Application application, int bitIndex, AppPermissionCreateRequest request) {
+        return AppPermission.builder()
+                .application(application)
+                .bitIndex(bitIndex)
+                .name(request.getName())
+                .description(request.getDescription())
+                .build();
+    }
+}
@@ -4,13 +4,21 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.quetoquenana.userservice.dto.AppRoleCreateRequest;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Table(name = "app_roles", uniqueConstraints = {
         @UniqueConstraint(name = "ux_app_roles_app_name", columnNames = {"application_id", "role_name"})
 })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app-role")
+@NaturalIdCache(region = "app-role-by-application-and-name")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -19,16 +27,19 @@ import java.util.UUID;
 public class AppRole extends Auditable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false)
     @JsonView(Application.ApplicationDetail.class)
     private UUID id;
 
+    // (application, roleName) is the natural id, see ux_app_roles_app_name
+    @NaturalId
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "application_id", nullable = false)
+    @JoinColumn(name = "application_id", nullable = false, updatable = false)
     private Application application;
 
-    @Column(name = "role_name", nullable = false, length = 50)
+    @NaturalId
+    @Column(name = "role_name", nullable = false, updatable = false, length = 50)
     @JsonView({Application.ApplicationDetail.class, User.UserDetail.class})
     private String roleName;
 
@@ -36,6 +47,14 @@ public class AppRole extends Auditable {
     @JsonView(Application.ApplicationDetail.class)
     private String description;
 
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "app_role_permissions",
+            joinColumns = @JoinColumn(name = "app_role_id"),
+            inverseJoinColumns = @JoinColumn(name = "permission_id")
+    )
+    private Set<AppPermission> permissions = new HashSet<>();
+
     public static AppRole fromData(String roleName, String description) {
         return AppRole.builder()
                 .roleName(roleName)
@@ -51,6 +70,17 @@ public class AppRole extends Auditable {
                 .build();
     }
 
+    public boolean grant(AppPermission permission) {
+        if (permissions == null) {
+            permissions = new HashSet<>();
+        }
+        return permissions.add(permission);
+    }
+
+    public boolean revoke(AppPermission permission) {
+        return permissions != null && permissions.remove(permission);
+    }
+
     public void updateFromRequest(String description) {
         if (description != null) this.setDescription(description);
     }
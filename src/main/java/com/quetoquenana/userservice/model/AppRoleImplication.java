@@ -0,0 +1,50 @@
+package com.quetoquenana.userservice.model;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Edge of an application's role hierarchy: holders of {@code role} are also granted {@code impliedRole}.
+ */
+@Entity
+@Table(name = "app_role_implies", uniqueConstraints = {
+        @UniqueConstraint(name = "ux_app_role_implies", columnNames = {"role_id", "implied_role_id"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class AppRoleImplication extends Auditable {
+
+    @Id
+    @GeneratedUuidV7
+    @Column(name = "id", updatable = false, nullable = false)
+    @JsonView(Application.ApplicationDetail.class)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "application_id", nullable = false)
+    private Application application;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "role_id", nullable = false)
+    @JsonView(Application.ApplicationDetail.class)
+    private AppRole role;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "implied_role_id", nullable = false)
+    @JsonView(Application.ApplicationDetail.class)
+    private AppRole impliedRole;
+
+    public static AppRoleImplication of(AppRole role, AppRole impliedRole) {
+        return AppRoleImplication.builder()
+                .application(role.getApplication())
+                .role(role)
+                .impliedRole(impliedRole)
+                .build();
+    }
+}
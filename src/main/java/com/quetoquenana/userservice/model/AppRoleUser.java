@@ -8,8 +8,13 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "app_roles_users", uniqueConstraints = {
-        @UniqueConstraint(name = "ux_aru_user_app", columnNames = {"user_id", "app_role_id"})
+        @UniqueConstraint(name = "ux_aru_user_app", columnNames = {"user_id", "app_role_id"}),
+        @UniqueConstraint(name = "ux_aru_user_application", columnNames = {"user_id", "application_id"})
 })
+// user, its person and the role: what both User.UserDetail and Application.ApplicationDetail serialize
+@NamedEntityGraph(name = AppRoleUser.DETAIL_GRAPH,
+        attributeNodes = {@NamedAttributeNode(value = "user", subgraph = "user"), @NamedAttributeNode("role")},
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("person")))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -17,8 +22,10 @@ import java.util.UUID;
 @Setter
 public class AppRoleUser extends Auditable {
 
+    public static final String DETAIL_GRAPH = "AppRoleUser.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false)
     @JsonView(Application.ApplicationDetail.class)
     private UUID id;
@@ -33,6 +40,10 @@ public class AppRoleUser extends Auditable {
     @JsonView({Application.ApplicationDetail.class, User.UserDetail.class})
     private AppRole role;
 
+    // the role's application, copied by a database trigger so ux_aru_user_application allows one role per application
+    @Column(name = "application_id", insertable = false, updatable = false)
+    private UUID applicationId;
+
     public static AppRoleUser of(User user, AppRole role) {
         return AppRoleUser.builder()
                 .user(user)
@@ -6,6 +6,10 @@ import com.quetoquenana.userservice.dto.ApplicationCreateRequest;
 import com.quetoquenana.userservice.dto.ApplicationUpdateRequest;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -15,6 +19,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "applications")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "application")
+@NaturalIdCache(region = "application-by-code")
+// Application.ApplicationDetail serializes the roles
+@NamedEntityGraph(name = Application.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("roles"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -22,8 +30,10 @@ import java.util.UUID;
 @Setter
 public class Application extends Auditable {
 
+    public static final String DETAIL_GRAPH = "Application.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false)
     @JsonView(ApplicationList.class)
     private UUID id;
@@ -32,7 +42,8 @@ public class Application extends Auditable {
     @JsonView(ApplicationList.class)
     private String name;
 
-    @Column(name = "code", nullable = false, length = 10)
+    @NaturalId
+    @Column(name = "code", nullable = false, updatable = false, length = 10)
     @JsonView(ApplicationList.class)
     private String code;
 
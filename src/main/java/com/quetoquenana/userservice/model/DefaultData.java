@@ -4,13 +4,17 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.quetoquenana.userservice.dto.ApiBaseResponseView;
 import com.quetoquenana.userservice.dto.DefaultDataCreateRequest;
 import com.quetoquenana.userservice.dto.DefaultDataUpdateRequest;
+import com.quetoquenana.userservice.util.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "default_data")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "default-data")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -43,7 +47,7 @@ public class DefaultData extends Auditable {
     public static DefaultData fromCreate(DefaultDataCreateRequest request) {
         Boolean active = request.getIsActive();
         return DefaultData.builder()
-                .id(UUID.randomUUID())
+                .id(UuidV7.next())
                 .dataName(request.getName())
                 .description(request.getDescription())
                 .dataCategory(DataCategory.valueOf(request.getDataCategory()))
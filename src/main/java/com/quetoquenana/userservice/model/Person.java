@@ -15,6 +15,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "persons")
+// everything Person.PersonDetail serializes, fetched in the same query as the person
+@NamedEntityGraph(name = Person.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("profile"),
+        @NamedAttributeNode("phones"),
+        @NamedAttributeNode("addresses")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -22,8 +28,10 @@ import java.util.UUID;
 @Setter
 public class Person extends Auditable {
 
+    public static final String DETAIL_GRAPH = "Person.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false)
     @JsonView(PersonList.class)
     private UUID id;
@@ -118,10 +126,4 @@ public class Person extends Auditable {
         this.setUpdatedAt(LocalDateTime.now());
         this.setUpdatedBy(username);
     }
-
-    public void updateStatus(String username, boolean status) {
-        this.setIsActive(status);
-        this.setUpdatedAt(LocalDateTime.now());
-        this.setUpdatedBy(username);
-    }
 }
@@ -20,7 +20,7 @@ import java.util.UUID;
 @Setter
 public class Phone {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @JsonView(Person.PersonDetail.class)
     private UUID id;
 
@@ -13,6 +13,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+// User.UserDetail serializes the person
+@NamedEntityGraph(name = User.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("person"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -20,8 +22,10 @@ import java.util.UUID;
 @Setter
 public class User extends Auditable {
 
+    public static final String DETAIL_GRAPH = "User.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false)
     @JsonView(UserList.class)
     private UUID id;
@@ -57,6 +61,11 @@ public class User extends Auditable {
     @JsonView(UserList.class)
     private UserStatus userStatus;
 
+    // last forgot-password request; see UserRepository#resetPasswordUnlessRecentlyRequested
+    @Column(name = "reset_requested_at")
+    @JsonView(ApiBaseResponseView.NoShow.class)
+    private LocalDateTime resetRequestedAt;
+
     // JSON Views
     public static class UserList extends ApiBaseResponseView.Always {}
     public static class UserDetail extends User.UserList {}
@@ -2,6 +2,8 @@ package com.quetoquenana.userservice.repository;
 
 import com.quetoquenana.userservice.model.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +12,13 @@ import java.util.UUID;
 @Repository
 public interface AddressRepository extends JpaRepository<Address, UUID> {
     List<Address> findByPersonId(UUID personId);
+
+    // Ownership check in a single statement: the address belongs to the person linked to the username
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Address a JOIN User u ON u.person = a.person " +
+            "WHERE a.id = :id AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByIdAndOwnerUsername(
+            @Param("id") UUID id,
+            @Param("username") String username
+    );
 }
 
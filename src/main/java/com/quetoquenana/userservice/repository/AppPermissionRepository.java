@@ -0,0 +1,47 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.AppPermission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AppPermissionRepository extends JpaRepository<AppPermission, UUID> {
+
+    List<AppPermission> findByApplicationIdOrderByBitIndex(UUID applicationId);
+
+    boolean existsByApplicationIdAndNameIgnoreCase(UUID applicationId, String name);
+
+    @Query("SELECT COALESCE(MAX(p.bitIndex), -1) FROM AppPermission p WHERE p.application.id = :applicationId")
+    int findMaxBitIndex(@Param("applicationId") UUID applicationId);
+
+    // Flat (role, permission bit) rows used to compile the in-memory role bitmasks
+    @Query("SELECT r.roleName AS roleName, p.bitIndex AS bitIndex FROM AppRole r JOIN r.permissions p " +
+            "WHERE r.application.id = :applicationId")
+    List<RolePermissionBit> findRolePermissionBits(@Param("applicationId") UUID applicationId);
+
+    // The same rows for every application at once, for the full (re)load
+    @Query("SELECT p.application.id AS applicationId, p.name AS name, p.bitIndex AS bitIndex FROM AppPermission p")
+    List<PermissionBit> findAllPermissionBits();
+
+    @Query("SELECT r.application.id AS applicationId, r.roleName AS roleName, p.bitIndex AS bitIndex " +
+            "FROM AppRole r JOIN r.permissions p")
+    List<ApplicationRolePermissionBit> findAllRolePermissionBits();
+
+    interface RolePermissionBit {
+        String getRoleName();
+        Integer getBitIndex();
+    }
+
+    interface ApplicationRolePermissionBit extends RolePermissionBit {
+        UUID getApplicationId();
+    }
+
+    interface PermissionBit {
+        UUID getApplicationId();
+        String getName();
+        Integer getBitIndex();
+    }
+}
@@ -0,0 +1,20 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.AppRoleImplication;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AppRoleImplicationRepository extends JpaRepository<AppRoleImplication, UUID> {
+
+    @EntityGraph(attributePaths = {"role", "impliedRole"})
+    List<AppRoleImplication> findByApplicationId(UUID applicationId);
+
+    // Used to compile every application's hierarchy at startup
+    @EntityGraph(attributePaths = {"application", "role", "impliedRole"})
+    List<AppRoleImplication> findAllBy();
+
+    boolean existsByRoleIdAndImpliedRoleId(UUID roleId, UUID impliedRoleId);
+}
@@ -0,0 +1,15 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.AppRole;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lookups by the role's natural id ({@code application}, {@code roleName}), served from Hibernate's natural-id
+ * cache. See {@link AppRoleNaturalIdRepositoryImpl}.
+ */
+public interface AppRoleNaturalIdRepository {
+
+    Optional<AppRole> findByApplicationIdAndRoleName(UUID applicationId, String roleName);
+}
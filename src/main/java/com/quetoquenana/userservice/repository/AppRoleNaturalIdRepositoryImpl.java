@@ -0,0 +1,28 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.model.Application;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Transactional(readOnly = true)
+class AppRoleNaturalIdRepositoryImpl implements AppRoleNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // the application reference is an uninitialized proxy: only its id takes part in the natural id
+    @Override
+    public Optional<AppRole> findByApplicationIdAndRoleName(UUID applicationId, String roleName) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.byNaturalId(AppRole.class)
+                .using("application", session.getReference(Application.class, applicationId))
+                .using("roleName", roleName)
+                .loadOptional();
+    }
+}
@@ -4,10 +4,8 @@ import com.quetoquenana.userservice.model.AppRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
-public interface AppRoleRepository extends JpaRepository<AppRole, UUID> {
+public interface AppRoleRepository extends JpaRepository<AppRole, UUID>, AppRoleNaturalIdRepository {
     List<AppRole> findByApplicationId(UUID applicationId);
-    Optional<AppRole> findByApplicationIdAndRoleName(UUID applicationId, String roleName);
 }
@@ -1,23 +1,91 @@
 package com.quetoquenana.userservice.repository;
 
 import com.quetoquenana.userservice.model.AppRoleUser;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface AppRoleUserRepository extends JpaRepository<AppRoleUser, UUID> {
     List<AppRoleUser> findByUserIdAndRoleApplicationId(UUID userId, UUID applicationId);
 
+    // Same rows for User.UserDetail responses, with the user's person
+    @EntityGraph(AppRoleUser.DETAIL_GRAPH)
+    List<AppRoleUser> findDetailByUserIdAndRoleApplicationId(UUID userId, UUID applicationId);
+
+    /**
+     * Inserts the mapping unless the user already holds a role in the role's application, in one statement.
+     * The rule is the unique ux_aru_user_application index (application_id is filled from the role by a
+     * trigger), so of two concurrent inserts for the same user and application only one gets through.
+     * The caller assigns the id.
+     *
+     * @return the inserted row, managed; empty when the user already has a role in the application
+     */
+    @Transactional
+    @Query(value = "INSERT INTO app_roles_users (id, user_id, app_role_id, created_at, created_by, version) " +
+            "VALUES (:#{#mapping.id}, :#{#mapping.user.id}, :#{#mapping.role.id}, " +
+            ":#{#mapping.createdAt}, :#{#mapping.createdBy}, 0) " +
+            "ON CONFLICT (user_id, application_id) DO NOTHING " +
+            "RETURNING *", nativeQuery = true)
+    Optional<AppRoleUser> insertIfNoRoleInApplication(@Param("mapping") AppRoleUser mapping);
+
+    // Bulk import: which of these users already hold a role in the application
+    @Query("SELECT aru.user.id FROM AppRoleUser aru WHERE aru.role.application.id = :applicationId AND aru.user.id IN :userIds")
+    Set<UUID> findUserIdsInApplication(
+            @Param("applicationId") UUID applicationId,
+            @Param("userIds") Collection<UUID> userIds
+    );
+
+    /*
+     * Set-based deletes: one DELETE statement each instead of loading every mapping (with its EAGER user
+     * and role) and removing it row by row. Pending changes are flushed first so mappings saved earlier in
+     * the transaction are deleted too, and the persistence context is cleared afterwards so no deleted
+     * mapping stays managed. Entities loaded before the call are detached by that clear.
+     * Each returns the number of mappings deleted.
+     */
+
     // Delete all AppRoleUser mappings for a given username (case-insensitive)
-    void deleteByUserUsernameIgnoreCase(String username);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AppRoleUser aru WHERE aru.user.id IN " +
+            "(SELECT u.id FROM User u WHERE LOWER(u.username) = LOWER(:username))")
+    int deleteByUserUsernameIgnoreCase(@Param("username") String username);
 
     // Delete mappings for a given application (role.application.id) and username (case-insensitive)
-    void deleteByRoleApplicationIdAndUserUsernameIgnoreCase(UUID applicationId, String username);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AppRoleUser aru " +
+            "WHERE aru.role.id IN (SELECT r.id FROM AppRole r WHERE r.application.id = :applicationId) " +
+            "AND aru.user.id IN (SELECT u.id FROM User u WHERE LOWER(u.username) = LOWER(:username))")
+    int deleteByRoleApplicationIdAndUserUsernameIgnoreCase(
+            @Param("applicationId") UUID applicationId,
+            @Param("username") String username
+    );
 
     // Delete mappings for a given application, username and role name (all case-insensitive for textual values)
-    void deleteByRoleApplicationIdAndUserUsernameIgnoreCaseAndRoleRoleNameIgnoreCase(UUID applicationId, String username, String rolName);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AppRoleUser aru " +
+            "WHERE aru.role.id IN (SELECT r.id FROM AppRole r WHERE r.application.id = :applicationId " +
+            "AND LOWER(r.roleName) = LOWER(:roleName)) " +
+            "AND aru.user.id IN (SELECT u.id FROM User u WHERE LOWER(u.username) = LOWER(:username))")
+    int deleteByRoleApplicationIdAndUserUsernameIgnoreCaseAndRoleRoleNameIgnoreCase(
+            @Param("applicationId") UUID applicationId,
+            @Param("username") String username,
+            @Param("roleName") String roleName
+    );
 
     // Delete mappings for a given role id (used before deleting the AppRole)
-    void deleteByRoleId(UUID roleId);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AppRoleUser aru WHERE aru.role.id = :roleId")
+    int deleteByRoleId(@Param("roleId") UUID roleId);
 }
@@ -0,0 +1,14 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.Application;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the application's natural id ({@code code}). Implemented in {@link ApplicationNaturalIdRepositoryImpl}
+ * so they go through Hibernate's natural-id cache instead of a derived query.
+ */
+public interface ApplicationNaturalIdRepository {
+
+    Optional<Application> findByCode(String code);
+}
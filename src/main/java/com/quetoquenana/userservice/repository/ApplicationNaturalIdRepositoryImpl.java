@@ -0,0 +1,24 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.Application;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+class ApplicationNaturalIdRepositoryImpl implements ApplicationNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // code -> id from the application-by-code region, then the row from the application region
+    @Override
+    public Optional<Application> findByCode(String code) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Application.class)
+                .loadOptional(code);
+    }
+}
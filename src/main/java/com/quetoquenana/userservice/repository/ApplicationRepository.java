@@ -1,26 +1,94 @@
 package com.quetoquenana.userservice.repository;
 
+import com.quetoquenana.userservice.dto.ApplicationSummary;
 import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.util.PageCursor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
-public interface ApplicationRepository extends JpaRepository<Application, UUID> {
+public interface ApplicationRepository extends JpaRepository<Application, UUID>, KeysetPagingRepository<Application>,
+        VersionedUpdateRepository<Application>, ApplicationNaturalIdRepository {
+
+    String SUMMARY = "SELECT new com.quetoquenana.userservice.dto.ApplicationSummary(a.id, a.name, a.code, " +
+            "a.active, a.createdAt) FROM Application a";
+
+    // Application.ApplicationList reads, as DTO rows
+    @Query(value = SUMMARY + " ORDER BY a.createdAt, a.id", countQuery = "SELECT COUNT(a) FROM Application a")
+    Page<ApplicationSummary> findSummaryPage(Pageable pageable);
+
+    // unfiltered page without the count(*) query (see PageTotalService)
+    @Query(SUMMARY + " ORDER BY a.createdAt, a.id")
+    Slice<ApplicationSummary> findSummarySlice(Pageable pageable);
+
+    @Query(SUMMARY + " ORDER BY a.createdAt, a.id")
+    List<ApplicationSummary> findFirstSummaryPage(Limit limit);
+
+    @Query(SUMMARY + " WHERE a.createdAt >= :createdAt AND (a.createdAt > :createdAt OR a.id > :id) " +
+            "ORDER BY a.createdAt, a.id")
+    List<ApplicationSummary> findSummaryPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    default List<ApplicationSummary> findSummaryKeysetPage(PageCursor after, int size) {
+        return KeysetPagingRepository.keysetPage(after, size, this::findFirstSummaryPage, this::findSummaryPageAfter);
+    }
+
+    // Serializes changes that derive a value from the application's current rows, such as the next permission bit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Application a WHERE a.id = :id")
+    Optional<Application> findByIdForUpdate(@Param("id") UUID id);
+
+    // Application.ApplicationDetail reads
+    @EntityGraph(Application.DETAIL_GRAPH)
+    Optional<Application> findDetailById(UUID id);
+
     //TODO manage status methods
+    // resolved on every login (X-Application-Name); the ids are kept in the query cache
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Application> findByName(String name);
 
     List<Application> findByActiveTrue();
 
     boolean existsByNameIgnoreCase(String name);
 
-    Page<Application> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    // derived, so the wildcards in name are escaped; the record's components pick the selected columns
+    Page<ApplicationSummary> findSummaryByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    Optional<Application> findByCode(String applicationCode);
+    // Soft delete as a single versioned UPDATE (see VersionedUpdateRepository)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Application a SET a.active = :active, a.updatedAt = :updatedAt, a.updatedBy = :updatedBy, " +
+            "a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.active <> :active " +
+            "AND (:expectedVersion IS NULL OR a.version = :expectedVersion)")
+    int updateActive(
+            @Param("id") UUID id,
+            @Param("active") boolean active,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
 }
-
@@ -0,0 +1,72 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.dto.BulkStatusJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The bulk_status_jobs rows behind {@link BulkStatusJob}, so a status poll can be answered by any node.
+ * Chunk progress is added in the chunk's own transaction (the connection of the surrounding JPA transaction):
+ * the stored counters only ever include committed chunks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkStatusJobJdbcRepository {
+
+    private static final String INSERT =
+            "INSERT INTO bulk_status_jobs (id, target, state, requested_by, started_at, total) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ADD_CHUNK =
+            "UPDATE bulk_status_jobs SET processed = processed + ?, updated = updated + ?, " +
+            "tokens_revoked = tokens_revoked + ?, chunks = chunks + 1 WHERE id = ?";
+    private static final String FINISH =
+            "UPDATE bulk_status_jobs SET state = ?, finished_at = ?, message = ? WHERE id = ?";
+    private static final String FIND =
+            "SELECT id, target, state, requested_by, started_at, finished_at, total, processed, updated, " +
+            "tokens_revoked, chunks, message FROM bulk_status_jobs WHERE id = ?";
+    private static final String DELETE_FINISHED =
+            "DELETE FROM bulk_status_jobs WHERE finished_at < ?";
+
+    private static final RowMapper<BulkStatusJob> JOB = (rs, row) -> BulkStatusJob.restore()
+            .id(rs.getObject("id", UUID.class))
+            .target(BulkStatusJob.Target.valueOf(rs.getString("target")))
+            .state(BulkStatusJob.State.valueOf(rs.getString("state")))
+            .requestedBy(rs.getString("requested_by"))
+            .startedAt(rs.getObject("started_at", LocalDateTime.class))
+            .finishedAt(rs.getObject("finished_at", LocalDateTime.class))
+            .total(rs.getLong("total"))
+            .processed(rs.getLong("processed"))
+            .updated(rs.getLong("updated"))
+            .tokensRevoked(rs.getLong("tokens_revoked"))
+            .chunks(rs.getInt("chunks"))
+            .message(rs.getString("message"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(BulkStatusJob job) {
+        jdbcTemplate.update(INSERT, job.getId(), job.getTarget().name(), job.getState().name(), job.getRequestedBy(),
+                job.getStartedAt(), job.getTotal());
+    }
+
+    public void addChunk(UUID jobId, int selected, int updated, int revoked) {
+        jdbcTemplate.update(ADD_CHUNK, selected, updated, revoked, jobId);
+    }
+
+    public void finish(BulkStatusJob job) {
+        jdbcTemplate.update(FINISH, job.getState().name(), job.getFinishedAt(), job.getMessage(), job.getId());
+    }
+
+    public Optional<BulkStatusJob> findById(UUID jobId) {
+        return jdbcTemplate.query(FIND, JOB, jobId).stream().findFirst();
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_FINISHED, cutoff);
+    }
+}
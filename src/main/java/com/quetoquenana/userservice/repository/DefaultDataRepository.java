@@ -2,18 +2,52 @@ package com.quetoquenana.userservice.repository;
 
 import com.quetoquenana.userservice.model.DataCategory;
 import com.quetoquenana.userservice.model.DefaultData;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface DefaultDataRepository extends JpaRepository<DefaultData, UUID> {
+public interface DefaultDataRepository extends JpaRepository<DefaultData, UUID>, KeysetPagingRepository<DefaultData>,
+        VersionedUpdateRepository<DefaultData> {
+
+    // unfiltered page without the count(*) query (see PageTotalService)
+    Slice<DefaultData> findAllBy(Pageable pageable);
+
+    // catalog reloads copy every row right away: no dirty-checking snapshots for them
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT d FROM DefaultData d")
+    List<DefaultData> findAllReadOnly();
+
     Page<DefaultData> findByDataCategory(DataCategory dataCategory, Pageable pageable);
     List<DefaultData> findByDataCategoryAndIsActive(DataCategory dataCategory, Boolean isActive);
     boolean existsByDataNameIgnoreCase(String dataName);
-}
 
+    // Deactivates the entry without loading it; 0 when missing, stale or already inactive
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DefaultData d SET d.isActive = :active, d.updatedAt = :updatedAt, d.updatedBy = :updatedBy, " +
+            "d.version = d.version + 1 " +
+            "WHERE d.id = :id AND d.isActive <> :active " +
+            "AND (:expectedVersion IS NULL OR d.version = :expectedVersion)")
+    int updateActive(
+            @Param("id") UUID id,
+            @Param("active") boolean active,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+}
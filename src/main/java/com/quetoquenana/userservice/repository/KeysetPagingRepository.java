@@ -0,0 +1,58 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.util.PageCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over {@code (created_at, id)} for {@link com.quetoquenana.userservice.model.Auditable} entities.
+ * Each page is a single index range scan: no OFFSET and no count query.
+ */
+@NoRepositoryBean
+public interface KeysetPagingRepository<T> extends Repository<T, UUID> {
+
+    @Query("SELECT e FROM #{#entityName} e ORDER BY e.createdAt, e.id")
+    List<T> findFirstKeysetPage(Limit limit);
+
+    // the redundant createdAt >= bound gives the planner an index range to start from
+    @Query("SELECT e FROM #{#entityName} e WHERE e.createdAt >= :createdAt " +
+            "AND (e.createdAt > :createdAt OR e.id > :id) ORDER BY e.createdAt, e.id")
+    List<T> findKeysetPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    /**
+     * @return up to {@code size + 1} rows after {@code after} (from the start when null)
+     */
+    default List<T> findKeysetPage(PageCursor after, int size) {
+        return keysetPage(after, size, this::findFirstKeysetPage, this::findKeysetPageAfter);
+    }
+
+    /**
+     * Same paging over any pair of first-page / next-page queries, e.g. ones selecting a projection.
+     */
+    static <R> List<R> keysetPage(PageCursor after, int size, Function<Limit, List<R>> first, PageAfter<R> next) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        Limit limit = Limit.of(size + 1);
+        return after == null
+                ? first.apply(limit)
+                : next.find(after.createdAt(), after.id(), limit);
+    }
+
+    @FunctionalInterface
+    interface PageAfter<R> {
+        List<R> find(LocalDateTime createdAt, UUID id, Limit limit);
+    }
+}
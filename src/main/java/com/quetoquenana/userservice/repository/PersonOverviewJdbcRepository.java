@@ -0,0 +1,94 @@
+package com.quetoquenana.userservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A person with its profile, phones, addresses, users and their application roles, as one JSON document built by
+ * PostgreSQL in a single statement (correlated {@code json_agg} subqueries, each on an indexed foreign key).
+ * The document already has the {@code ApiResponse} envelope and the field names and shapes of the entity JSON, so
+ * the bytes go to the client as they come from the driver; no entity is loaded. {@code profile} is one object (or
+ * null), not an array: the {@code Person.profile} set is serialized through {@code Person#getProfile()}, which
+ * returns its single element.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PersonOverviewJdbcRepository {
+
+    private static final String OVERVIEW = """
+            SELECT json_build_object(
+                'message', 'Success',
+                'errorCode', 0,
+                'data', json_build_object(
+                    'id', p.id,
+                    'idNumber', p.id_number,
+                    'name', p.name,
+                    'lastname', p.lastname,
+                    'isActive', p.is_active,
+                    -- at most one row (profiles.id is the person's id), rendered like Person#getProfile()
+                    'profile', (
+                        SELECT json_build_object(
+                            'id', pr.id,
+                            'birthday', pr.birthday,
+                            'gender', pr.gender,
+                            'nationality', pr.nationality,
+                            'maritalStatus', pr.marital_status,
+                            'occupation', pr.occupation,
+                            'profilePictureUrl', pr.profile_picture_url)
+                        FROM profiles pr WHERE pr.id = p.id),
+                    'phones', COALESCE((
+                        SELECT json_agg(json_build_object(
+                            'id', ph.id,
+                            'phoneNumber', ph.phone_number,
+                            'category', ph.category::text,
+                            'isMain', ph.is_main) ORDER BY ph.is_main DESC, ph.id)
+                        FROM phones ph WHERE ph.person_id = p.id), '[]'::json),
+                    'addresses', COALESCE((
+                        SELECT json_agg(json_build_object(
+                            'id', a.id,
+                            'address', a.address,
+                            'country', a.country,
+                            'city', a.city,
+                            'state', a.state,
+                            'zipCode', a.zip_code,
+                            'addressType', a.address_type) ORDER BY a.id)
+                        FROM addresses a WHERE a.person_id = p.id), '[]'::json),
+                    'users', COALESCE((
+                        SELECT json_agg(json_build_object(
+                            'id', u.id,
+                            'username', u.username,
+                            'nickname', u.nickname,
+                            'externalId', u.external_id,
+                            'provider', u.provider,
+                            'userStatus', u.user_status,
+                            'roles', COALESCE((
+                                SELECT json_agg(json_build_object(
+                                    'applicationId', ap.id,
+                                    'applicationName', ap.name,
+                                    'applicationCode', ap.code,
+                                    'roleName', r.role_name) ORDER BY ap.name, r.role_name)
+                                FROM app_roles_users aru
+                                JOIN app_roles r ON r.id = aru.app_role_id
+                                JOIN applications ap ON ap.id = r.application_id
+                                WHERE aru.user_id = u.id), '[]'::json)) ORDER BY u.created_at, u.id)
+                        FROM users u WHERE u.person_id = p.id), '[]'::json)
+                )
+            )::text
+            FROM persons p
+            WHERE p.id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the UTF-8 JSON document; empty when there is no such person
+     */
+    public Optional<byte[]> findOverviewJson(UUID personId) {
+        // getBytes hands over the text column as received (the driver always talks UTF-8): no String round trip
+        return jdbcTemplate.query(OVERVIEW, (rs, row) -> rs.getBytes(1), personId).stream().findFirst();
+    }
+}
@@ -1,17 +1,157 @@
 package com.quetoquenana.userservice.repository;
 
+import com.quetoquenana.userservice.dto.PersonSummary;
 import com.quetoquenana.userservice.model.Person;
+import com.quetoquenana.userservice.util.PageCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.quetoquenana.userservice.util.Constants.Export.FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, UUID> {
+public interface PersonRepository extends JpaRepository<Person, UUID>, KeysetPagingRepository<Person>,
+        VersionedUpdateRepository<Person> {
+
+    String SUMMARY = "SELECT new com.quetoquenana.userservice.dto.PersonSummary(p.id, p.idNumber, p.name, " +
+            "p.lastname, p.isActive, p.createdAt) FROM Person p";
+
+    // Person.PersonList reads, as DTO rows
+    @Query(value = SUMMARY + " ORDER BY p.createdAt, p.id", countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<PersonSummary> findSummaryPage(Pageable pageable);
+
+    // unfiltered page without the count(*) query (see PageTotalService)
+    @Query(SUMMARY + " ORDER BY p.createdAt, p.id")
+    Slice<PersonSummary> findSummarySlice(Pageable pageable);
+
+    @Query(SUMMARY + " WHERE p.isActive = :isActive ORDER BY p.createdAt, p.id")
+    List<PersonSummary> findSummariesByIsActive(@Param("isActive") boolean isActive);
+
+    @Query(SUMMARY + " ORDER BY p.createdAt, p.id")
+    List<PersonSummary> findFirstSummaryPage(Limit limit);
+
+    @Query(SUMMARY + " WHERE p.createdAt >= :createdAt AND (p.createdAt > :createdAt OR p.id > :id) " +
+            "ORDER BY p.createdAt, p.id")
+    List<PersonSummary> findSummaryPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    default List<PersonSummary> findSummaryKeysetPage(PageCursor after, int size) {
+        return KeysetPagingRepository.keysetPage(after, size, this::findFirstSummaryPage, this::findSummaryPageAfter);
+    }
+
+    // Person.PersonDetail reads: profile, phones and addresses come with the person
+    @EntityGraph(Person.DETAIL_GRAPH)
+    Optional<Person> findDetailById(UUID id);
+
+    @EntityGraph(Person.DETAIL_GRAPH)
+    Optional<Person> findDetailByIdNumber(String idNumber);
+
     //TODO manage status methods
     Optional<Person> findByIdNumber(String idNumber);
     List<Person> findByIsActive(boolean isActive);
     Optional<Person> findByIdAndIsActive(UUID id, boolean isActive);
+
+    // Server-side cursor for exports; must be consumed inside a (read-only) transaction and closed
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p WHERE (:isActive IS NULL OR p.isActive = :isActive) ORDER BY p.createdAt, p.id")
+    Stream<Person> streamByIsActive(@Param("isActive") Boolean isActive);
+
+    /**
+     * Inserts the person, or reactivates the one already registered with that ID number (stamping it as
+     * updated by the creator), in one statement on the unique persons.id_number index.
+     * An already active person is left untouched (no version, updated_at or updated_by change) and no row
+     * comes back: the caller reads it with {@link #findByIdNumber}.
+     * The caller assigns the id of the new row.
+     *
+     * @return the inserted or reactivated row, managed; empty when the person was already active
+     */
+    @Transactional
+    @Query(value = "INSERT INTO persons (id, id_number, name, lastname, is_active, created_at, created_by, version) " +
+            "VALUES (:#{#person.id}, :#{#person.idNumber}, :#{#person.name}, :#{#person.lastname}, TRUE, " +
+            ":#{#person.createdAt}, :#{#person.createdBy}, 0) " +
+            "ON CONFLICT (id_number) DO UPDATE SET is_active = TRUE, updated_at = EXCLUDED.created_at, " +
+            "updated_by = EXCLUDED.created_by, version = persons.version + 1 " +
+            "WHERE persons.is_active = FALSE " +
+            "RETURNING *", nativeQuery = true)
+    Optional<Person> upsertByIdNumber(@Param("person") Person person);
+
+    // Bulk import: resolve a whole chunk of ID numbers with one IN query
+    @Query("SELECT p.id AS id, p.idNumber AS idNumber, p.isActive AS isActive FROM Person p WHERE p.idNumber IN :idNumbers")
+    List<PersonKey> findKeysByIdNumberIn(@Param("idNumbers") Collection<String> idNumbers);
+
+    // Activate/deactivate in one versioned UPDATE; no row when missing, stale or already in that state
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Person p SET p.isActive = :active, p.updatedAt = :updatedAt, p.updatedBy = :updatedBy, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.isActive <> :active " +
+            "AND (:expectedVersion IS NULL OR p.version = :expectedVersion)")
+    int updateActive(
+            @Param("id") UUID id,
+            @Param("active") boolean active,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Person p SET p.isActive = :active, p.updatedAt = :updatedAt, p.updatedBy = :updatedBy, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id IN :ids AND p.isActive <> :active")
+    int updateActiveByIdIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("active") boolean active,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+
+    // Bulk status jobs: next chunk of ids matching the filter, keyset on the (time-ordered) id
+    @Query("SELECT p.id FROM Person p WHERE (:currentActive IS NULL OR p.isActive = :currentActive) " +
+            "AND (:idNumberPattern IS NULL OR p.idNumber LIKE :idNumberPattern ESCAPE '!') " +
+            "AND (:after IS NULL OR p.id > :after) ORDER BY p.id")
+    List<UUID> findIdsByStatusFilter(
+            @Param("currentActive") Boolean currentActive,
+            @Param("idNumberPattern") String idNumberPattern,
+            @Param("after") UUID after,
+            Limit limit
+    );
+
+    @Query("SELECT COUNT(p) FROM Person p WHERE (:currentActive IS NULL OR p.isActive = :currentActive) " +
+            "AND (:idNumberPattern IS NULL OR p.idNumber LIKE :idNumberPattern ESCAPE '!')")
+    long countByStatusFilter(
+            @Param("currentActive") Boolean currentActive,
+            @Param("idNumberPattern") String idNumberPattern
+    );
+
+    interface PersonKey {
+        UUID getId();
+        String getIdNumber();
+        Boolean getIsActive();
+    }
 }
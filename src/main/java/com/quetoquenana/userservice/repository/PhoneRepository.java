@@ -12,6 +12,14 @@ import java.util.UUID;
 public interface PhoneRepository extends JpaRepository<Phone, UUID> {
     List<Phone> findByPersonId(UUID personId);
 
+    // Ownership check in a single statement: the phone belongs to the person linked to the username
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Phone p JOIN User u ON u.person = p.person " +
+            "WHERE p.id = :id AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByIdAndOwnerUsername(
+            @Param("id") UUID id,
+            @Param("username") String username
+    );
+
     @Modifying
     @Query("UPDATE Phone p SET p.isMain = false WHERE p.person.id = :personId AND p.id != :id")
     // Update all phones of the person to set isMain to false, except the one with the given id
@@ -2,10 +2,20 @@ package com.quetoquenana.userservice.repository;
 
 import com.quetoquenana.userservice.model.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByPersonId(UUID personId);
+
+    // Ownership check in a single statement: the profile belongs to the person linked to the username
+    @Query("SELECT CASE WHEN COUNT(pr) > 0 THEN true ELSE false END FROM Profile pr JOIN User u ON u.person = pr.person " +
+            "WHERE pr.id = :id AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByIdAndOwnerUsername(
+            @Param("id") UUID id,
+            @Param("username") String username
+    );
 }
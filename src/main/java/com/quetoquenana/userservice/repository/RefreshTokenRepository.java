@@ -2,13 +2,29 @@ package com.quetoquenana.userservice.repository;
 
 import com.quetoquenana.userservice.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     Optional<RefreshToken> findByToken(String token);
-}
 
+    // Revokes every live refresh token of the given users (idx_refresh_tokens_user_id_live)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.user.id IN :userIds AND t.revoked = false")
+    int revokeByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.revoked = false " +
+            "AND t.user.id IN (SELECT u.id FROM User u WHERE u.person.id IN :personIds)")
+    int revokeByUserPersonIdIn(@Param("personIds") Collection<UUID> personIds);
+}
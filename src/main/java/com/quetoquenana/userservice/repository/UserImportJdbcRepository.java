@@ -0,0 +1,86 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.model.UserStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.quetoquenana.userservice.util.Constants.Import.BATCH_SIZE;
+
+/**
+ * JDBC batch writes for the bulk user import. Ids are generated by the caller (UuidV7, like every entity
+ * id) so rows of the three tables can reference each other without a round trip; {@code version} starts
+ * at 0 like Hibernate's.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserImportJdbcRepository {
+
+    private static final String INSERT_PERSON =
+            "INSERT INTO persons (id, id_number, name, lastname, is_active, created_at, created_by, version) " +
+            "VALUES (?, ?, ?, ?, TRUE, ?, ?, 0)";
+    private static final String REACTIVATE_PERSON =
+            "UPDATE persons SET is_active = TRUE, updated_at = ?, updated_by = ?, version = version + 1 WHERE id = ?";
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, person_id, username, password_hash, nickname, user_status, created_at, created_by, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_APP_ROLE_USER =
+            "INSERT INTO app_roles_users (id, user_id, app_role_id, created_at, created_by, version) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record PersonInsert(UUID id, String idNumber, String name, String lastname) {}
+
+    public record UserInsert(UUID id, UUID personId, String username, String passwordHash, String nickname) {}
+
+    public record AppRoleUserInsert(UUID id, UUID userId, UUID roleId) {}
+
+    public void insertPersons(List<PersonInsert> persons, LocalDateTime createdAt, String createdBy) {
+        jdbcTemplate.batchUpdate(INSERT_PERSON, persons, BATCH_SIZE, (ps, person) -> {
+            ps.setObject(1, person.id());
+            ps.setString(2, person.idNumber());
+            ps.setString(3, person.name());
+            ps.setString(4, person.lastname());
+            ps.setObject(5, createdAt);
+            ps.setString(6, createdBy);
+        });
+    }
+
+    public void reactivatePersons(Collection<UUID> personIds, LocalDateTime updatedAt, String updatedBy) {
+        jdbcTemplate.batchUpdate(REACTIVATE_PERSON, personIds, BATCH_SIZE, (ps, personId) -> {
+            ps.setObject(1, updatedAt);
+            ps.setString(2, updatedBy);
+            ps.setObject(3, personId);
+        });
+    }
+
+    public void insertUsers(List<UserInsert> users, LocalDateTime createdAt, String createdBy) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (ps, user) -> {
+            ps.setObject(1, user.id());
+            ps.setObject(2, user.personId());
+            ps.setString(3, user.username());
+            ps.setString(4, user.passwordHash());
+            ps.setString(5, user.nickname());
+            ps.setString(6, UserStatus.RESET.name());
+            ps.setObject(7, createdAt);
+            ps.setString(8, createdBy);
+        });
+    }
+
+    public void insertAppRoleUsers(List<AppRoleUserInsert> mappings, LocalDateTime createdAt, String createdBy) {
+        jdbcTemplate.batchUpdate(INSERT_APP_ROLE_USER, mappings, BATCH_SIZE, (ps, mapping) -> {
+            ps.setObject(1, mapping.id());
+            ps.setObject(2, mapping.userId());
+            ps.setObject(3, mapping.roleId());
+            ps.setObject(4, createdAt);
+            ps.setString(5, createdBy);
+        });
+    }
+}
@@ -1,24 +1,217 @@
 package com.quetoquenana.userservice.repository;
 
+import com.quetoquenana.userservice.dto.UserSummary;
 import com.quetoquenana.userservice.model.User;
 import com.quetoquenana.userservice.model.UserProvider;
+import com.quetoquenana.userservice.model.UserStatus;
+import com.quetoquenana.userservice.util.PageCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.quetoquenana.userservice.util.Constants.Export.FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, KeysetPagingRepository<User>,
+        VersionedUpdateRepository<User> {
+
+    String SUMMARY = "SELECT new com.quetoquenana.userservice.dto.UserSummary(u.id, u.username, u.externalId, " +
+            "u.provider, u.nickname, u.userStatus, u.createdAt) FROM User u";
+
+    // User.UserList reads: DTO rows, nothing enters the persistence context
+    @Query(value = SUMMARY + " ORDER BY u.createdAt, u.id", countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummary> findSummaryPage(Pageable pageable);
+
+    // unfiltered page without the count(*) query (see PageTotalService)
+    @Query(SUMMARY + " ORDER BY u.createdAt, u.id")
+    Slice<UserSummary> findSummarySlice(Pageable pageable);
+
+    @Query(SUMMARY + " ORDER BY u.createdAt, u.id")
+    List<UserSummary> findFirstSummaryPage(Limit limit);
+
+    @Query(SUMMARY + " WHERE u.createdAt >= :createdAt AND (u.createdAt > :createdAt OR u.id > :id) " +
+            "ORDER BY u.createdAt, u.id")
+    List<UserSummary> findSummaryPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    default List<UserSummary> findSummaryKeysetPage(PageCursor after, int size) {
+        return KeysetPagingRepository.keysetPage(after, size, this::findFirstSummaryPage, this::findSummaryPageAfter);
+    }
+
+    // User.UserDetail reads
+    @EntityGraph(User.DETAIL_GRAPH)
+    Optional<User> findDetailById(UUID id);
 
     //TODO manage status methods
+    // with the person: token claims (full name), reset emails and UserDetail responses all read it
+    @EntityGraph(User.DETAIL_GRAPH)
     Optional<User> findByUsernameIgnoreCase(String username);
 
     boolean existsByUsernameIgnoreCase(String username);
 
     List<User> findByPersonId(UUID personId);
 
+    // Ownership checks: LOWER(username) so the lookup hits idx_users_username
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
+            "WHERE u.id = :id AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByIdAndUsername(
+            @Param("id") UUID id,
+            @Param("username") String username
+    );
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
+            "WHERE u.person.id = :personId AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByPersonIdAndUsername(
+            @Param("personId") UUID personId,
+            @Param("username") String username
+    );
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u JOIN u.person p " +
+            "WHERE p.idNumber = :idNumber AND LOWER(u.username) = LOWER(:username)")
+    boolean existsByPersonIdNumberAndUsername(
+            @Param("idNumber") String idNumber,
+            @Param("username") String username
+    );
+
     // find by external provider and external id (case-insensitive)
     Optional<User> findByProviderAndExternalId(UserProvider provider, String externalId);
+
+    // Server-side cursor for exports; must be consumed inside a (read-only) transaction and closed
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.createdAt, u.id")
+    Stream<User> streamAll();
+
+    /**
+     * Inserts the user unless the username is taken (case-insensitive, on idx_users_username), in one
+     * statement: no exists check beforehand, and a concurrent registration of the same username loses cleanly.
+     * The caller assigns the id.
+     *
+     * @return the inserted row, managed; empty when the username is taken
+     */
+    @Transactional
+    @Query(value = "INSERT INTO users (id, person_id, username, password_hash, external_id, provider, nickname, " +
+            "user_status, created_at, created_by, version) " +
+            "VALUES (:#{#user.id}, :#{#user.person.id}, :#{#user.username}, :#{#user.passwordHash}, " +
+            ":#{#user.externalId}, :#{#user.provider?.name()}, :#{#user.nickname}, :#{#user.userStatus.name()}, " +
+            ":#{#user.createdAt}, :#{#user.createdBy}, 0) " +
+            "ON CONFLICT ((LOWER(username))) DO NOTHING " +
+            "RETURNING *", nativeQuery = true)
+    Optional<User> insertIfUsernameFree(@Param("user") User user);
+
+    // Bulk import: resolve a whole chunk of (lower-cased) usernames with one IN query on idx_users_username
+    @Query("SELECT u.id AS id, LOWER(u.username) AS username FROM User u WHERE LOWER(u.username) IN :usernames")
+    List<UserKey> findKeysByLowerUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // Status change without loading the user (and its person); 0 when missing, stale or unchanged
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.userStatus = :status, u.updatedAt = :updatedAt, u.updatedBy = :updatedBy, " +
+            "u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.userStatus <> :status " +
+            "AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int updateStatus(
+            @Param("id") UUID id,
+            @Param("status") UserStatus status,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+
+    /**
+     * Forgot-password as one conditional statement: moves the user to {@code RESET} with the new hash unless a
+     * forgot-password request was already recorded within the window. Concurrent requests, on this node or
+     * others, serialize on the row lock, and the losers see the winner's {@code reset_requested_at}.
+     *
+     * @return 1 when this request reset the password, 0 when the user is unknown or a recent request won
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.userStatus = :reset, u.passwordHash = :passwordHash, u.resetRequestedAt = :now, " +
+            "u.updatedAt = :now, u.updatedBy = u.username, u.version = u.version + 1 " +
+            "WHERE LOWER(u.username) = LOWER(:username) " +
+            "AND (u.userStatus <> :reset OR u.resetRequestedAt IS NULL OR u.resetRequestedAt <= :windowStart)")
+    int resetPasswordUnlessRecentlyRequested(
+            @Param("username") String username,
+            @Param("passwordHash") String passwordHash,
+            @Param("reset") UserStatus reset,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("now") LocalDateTime now
+    );
+
+    // Replaces the temporary password of a spilled email task, as long as the user has not set their own yet
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash, u.updatedAt = :updatedAt, u.updatedBy = :updatedBy, " +
+            "u.version = u.version + 1 " +
+            "WHERE LOWER(u.username) = LOWER(:username) AND u.userStatus = :status")
+    int updatePasswordHashByUsernameAndStatus(
+            @Param("username") String username,
+            @Param("status") UserStatus status,
+            @Param("passwordHash") String passwordHash,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+
+    // Bulk status jobs: next chunk of ids matching the filter, keyset on the (time-ordered) id
+    @Query("SELECT u.id FROM User u WHERE (:currentStatus IS NULL OR u.userStatus = :currentStatus) " +
+            "AND (:usernamePattern IS NULL OR LOWER(u.username) LIKE :usernamePattern ESCAPE '!') " +
+            "AND (:after IS NULL OR u.id > :after) ORDER BY u.id")
+    List<UUID> findIdsByStatusFilter(
+            @Param("currentStatus") UserStatus currentStatus,
+            @Param("usernamePattern") String usernamePattern,
+            @Param("after") UUID after,
+            Limit limit
+    );
+
+    @Query("SELECT COUNT(u) FROM User u WHERE (:currentStatus IS NULL OR u.userStatus = :currentStatus) " +
+            "AND (:usernamePattern IS NULL OR LOWER(u.username) LIKE :usernamePattern ESCAPE '!')")
+    long countByStatusFilter(
+            @Param("currentStatus") UserStatus currentStatus,
+            @Param("usernamePattern") String usernamePattern
+    );
+
+    // Set-based transition of one chunk; currentStatus is re-checked so rows changed since selection are left alone
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.userStatus = :status, u.updatedAt = :updatedAt, u.updatedBy = :updatedBy, " +
+            "u.version = u.version + 1 " +
+            "WHERE u.id IN :ids AND u.userStatus <> :status " +
+            "AND (:currentStatus IS NULL OR u.userStatus = :currentStatus)")
+    int updateStatusByIdIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") UserStatus status,
+            @Param("currentStatus") UserStatus currentStatus,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("updatedBy") String updatedBy
+    );
+
+    interface UserKey {
+        UUID getId();
+        String getUsername();
+    }
 }
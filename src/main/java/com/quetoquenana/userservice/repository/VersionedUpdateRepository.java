@@ -0,0 +1,37 @@
+package com.quetoquenana.userservice.repository;
+
+import com.quetoquenana.userservice.exception.RecordNotFoundException;
+import com.quetoquenana.userservice.exception.StaleRecordException;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Support for targeted {@code UPDATE ... WHERE id = :id AND version = :expectedVersion} statements on
+ * {@link com.quetoquenana.userservice.model.Auditable} entities. Such an update bumps {@code version} itself;
+ * when it matches no row, {@link #checkUnmatchedUpdate} tells a missing row from a stale version.
+ */
+@NoRepositoryBean
+public interface VersionedUpdateRepository<T> extends Repository<T, UUID> {
+
+    @Query("SELECT e.version FROM #{#entityName} e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Called after a targeted update matched no row. Returns normally when the row exists at the expected
+     * version (or no version was given), i.e. it was already in the requested state.
+     *
+     * @throws RecordNotFoundException when there is no row with that id
+     * @throws StaleRecordException when the row is at another version than {@code expectedVersion}
+     */
+    default void checkUnmatchedUpdate(UUID id, Long expectedVersion) {
+        Long version = findVersionById(id).orElseThrow(RecordNotFoundException::new);
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new StaleRecordException();
+        }
+    }
+}
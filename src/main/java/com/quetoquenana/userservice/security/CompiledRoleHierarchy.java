@@ -0,0 +1,125 @@
+package com.quetoquenana.userservice.security;
+
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RoleHierarchy} compiled once from its "role implies roles" edges.
+ * <p>
+ * Every role gets a small integer id, and the transitive closure of each role is stored as a bitset
+ * ({@code long}, so at most 64 roles per hierarchy). A decision ORs the closures of the granted roles and
+ * returns the immutable authority list cached for the resulting bitset, built from one shared
+ * {@link GrantedAuthority} instance per role. Authorities unknown to the hierarchy are passed through as-is.
+ */
+public class CompiledRoleHierarchy implements RoleHierarchy {
+
+    static final int MAX_ROLES = Long.SIZE;
+
+    private final Map<String, Integer> roleIds;
+    private final GrantedAuthority[] authorities;
+    private final long[] closures;
+
+    // reachable bitset -> interned result; bounded by the role combinations that actually occur
+    private final Map<Long, List<GrantedAuthority>> reachableCache = new ConcurrentHashMap<>();
+
+    public CompiledRoleHierarchy(Map<String, ? extends Collection<String>> implies) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> roles = new ArrayList<>();
+        implies.forEach((role, implied) -> {
+            register(role, ids, roles);
+            implied.forEach(child -> register(child, ids, roles));
+        });
+        if (roles.size() > MAX_ROLES) {
+            throw new IllegalArgumentException("Role hierarchy supports at most " + MAX_ROLES + " roles, got " + roles.size());
+        }
+
+        this.roleIds = Map.copyOf(ids);
+        this.authorities = new GrantedAuthority[roles.size()];
+        this.closures = new long[roles.size()];
+        for (int i = 0; i < roles.size(); i++) {
+            authorities[i] = new SimpleGrantedAuthority(roles.get(i));
+            closures[i] = 1L << i;
+        }
+        implies.forEach((role, implied) -> {
+            int id = ids.get(role);
+            implied.forEach(child -> closures[id] |= 1L << ids.get(child));
+        });
+
+        // fixpoint: keep folding in the closures of reachable roles until nothing changes (handles cycles)
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < closures.length; i++) {
+                long reachable = closures[i];
+                for (long rest = reachable; rest != 0; rest &= rest - 1) {
+                    reachable |= closures[Long.numberOfTrailingZeros(rest)];
+                }
+                if (reachable != closures[i]) {
+                    closures[i] = reachable;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getReachableGrantedAuthorities(Collection<? extends GrantedAuthority> granted) {
+        if (granted == null || granted.isEmpty()) {
+            return List.of();
+        }
+        long reachable = 0L;
+        List<GrantedAuthority> unknown = null;
+        for (GrantedAuthority grantedAuthority : granted) {
+            String role = grantedAuthority.getAuthority();
+            if (role == null) {
+                continue;
+            }
+            Integer id = roleIds.get(role);
+            if (id != null) {
+                reachable |= closures[id];
+            } else {
+                if (unknown == null) {
+                    unknown = new ArrayList<>();
+                }
+                if (!containsAuthority(unknown, role)) {
+                    unknown.add(grantedAuthority);
+                }
+            }
+        }
+
+        List<GrantedAuthority> known = reachable == 0L ? List.of() : reachableCache.computeIfAbsent(reachable, this::toAuthorities);
+        if (unknown == null) {
+            return known;
+        }
+        unknown.addAll(known);
+        return Collections.unmodifiableList(unknown);
+    }
+
+    private List<GrantedAuthority> toAuthorities(long reachable) {
+        List<GrantedAuthority> result = new ArrayList<>(Long.bitCount(reachable));
+        for (long rest = reachable; rest != 0; rest &= rest - 1) {
+            result.add(authorities[Long.numberOfTrailingZeros(rest)]);
+        }
+        return List.copyOf(result);
+    }
+
+    private static void register(String role, Map<String, Integer> ids, List<String> roles) {
+        if (!ids.containsKey(role)) {
+            ids.put(role, roles.size());
+            roles.add(role);
+        }
+    }
+
+    private static boolean containsAuthority(List<GrantedAuthority> authorities, String role) {
+        for (GrantedAuthority authority : authorities) {
+            if (role.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.quetoquenana.userservice.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Restricts a method to the owner of the resource identified by one of its parameters, e.g.
+ * {@code @OwnedResource(type = OwnedResourceType.PHONE, param = "idPhone")}.
+ * <p>
+ * Typed replacement for {@code @PreAuthorize("@securityService.canAccessIdPhone(authentication, #idPhone)")}:
+ * the parameter is bound once per method by {@link OwnedResourceAuthorizationManager}, so no SpEL is parsed
+ * or evaluated per call.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OwnedResource {
+
+    OwnedResourceType type();
+
+    /**
+     * Name of the method parameter holding the resource id.
+     */
+    String param();
+}
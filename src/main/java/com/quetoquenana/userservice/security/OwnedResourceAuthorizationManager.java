@@ -0,0 +1,88 @@
+package com.quetoquenana.userservice.security;
+
+import com.quetoquenana.userservice.service.SecurityService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes {@link OwnedResource} methods. Each method is compiled once into a {@link Binding}
+ * (argument index + resource type); later calls only read the argument and run the ownership check.
+ */
+public class OwnedResourceAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final ObjectProvider<SecurityService> securityServiceProvider;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final Map<Method, Binding> bindings = new ConcurrentHashMap<>();
+
+    // resolved lazily: the interceptor is created before regular beans such as the SecurityService
+    private volatile SecurityService securityService;
+
+    public OwnedResourceAuthorizationManager(ObjectProvider<SecurityService> securityServiceProvider) {
+        this.securityServiceProvider = securityServiceProvider;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || trustResolver.isAnonymous(auth)) {
+            return DENIED;
+        }
+        Binding binding = bindings.computeIfAbsent(invocation.getMethod(), this::compile);
+        Object id = invocation.getArguments()[binding.argumentIndex()];
+        if (id == null) {
+            return DENIED;
+        }
+        return binding.type().canAccess(securityService(), auth, id) ? GRANTED : DENIED;
+    }
+
+    /**
+     * Resolves the annotated parameter of a method. Fails fast on a misconfigured annotation.
+     */
+    Binding compile(Method method) {
+        OwnedResource annotation = AnnotationUtils.findAnnotation(method, OwnedResource.class);
+        if (annotation == null) {
+            throw new IllegalStateException("Method " + method + " is not annotated with @OwnedResource");
+        }
+        String[] names = parameterNameDiscoverer.getParameterNames(method);
+        int index = names == null ? -1 : Arrays.asList(names).indexOf(annotation.param());
+        if (index < 0) {
+            throw new IllegalStateException("@OwnedResource param '" + annotation.param() + "' not found on " + method);
+        }
+        Class<?> parameterType = method.getParameterTypes()[index];
+        if (!ClassUtils.isAssignable(annotation.type().getIdType(), parameterType)) {
+            throw new IllegalStateException("@OwnedResource param '" + annotation.param() + "' on " + method
+                    + " must be a " + annotation.type().getIdType().getSimpleName());
+        }
+        return new Binding(annotation.type(), index);
+    }
+
+    private SecurityService securityService() {
+        SecurityService service = securityService;
+        if (service == null) {
+            service = securityServiceProvider.getObject();
+            securityService = service;
+        }
+        return service;
+    }
+
+    record Binding(OwnedResourceType type, int argumentIndex) {}
+}
@@ -0,0 +1,60 @@
+package com.quetoquenana.userservice.security;
+
+import com.quetoquenana.userservice.service.SecurityService;
+import org.springframework.security.core.Authentication;
+
+import java.util.UUID;
+
+/**
+ * Kinds of resources guarded by {@link OwnedResource}, each bound to its {@link SecurityService} check.
+ */
+public enum OwnedResourceType {
+    ID_NUMBER(String.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdNumber(authentication, (String) id);
+        }
+    },
+    PERSON(UUID.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdPerson(authentication, (UUID) id);
+        }
+    },
+    PROFILE(UUID.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdProfile(authentication, (UUID) id);
+        }
+    },
+    ADDRESS(UUID.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdAddress(authentication, (UUID) id);
+        }
+    },
+    PHONE(UUID.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdPhone(authentication, (UUID) id);
+        }
+    },
+    USER(UUID.class) {
+        @Override
+        boolean canAccess(SecurityService securityService, Authentication authentication, Object id) {
+            return securityService.canAccessIdUser(authentication, (UUID) id);
+        }
+    };
+
+    private final Class<?> idType;
+
+    OwnedResourceType(Class<?> idType) {
+        this.idType = idType;
+    }
+
+    public Class<?> getIdType() {
+        return idType;
+    }
+
+    abstract boolean canAccess(SecurityService securityService, Authentication authentication, Object id);
+}
@@ -0,0 +1,28 @@
+package com.quetoquenana.userservice.service;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * In-memory, per-application permission masks compiled from the app_permissions / app_role_permissions tables.
+ */
+public interface AppPermissionService {
+
+    /**
+     * @param roleNames role names without the {@code ROLE_} prefix, as carried in the roles claim
+     * @return the base64url bitmask of the permissions granted to those roles, or null when they grant none
+     */
+    String encodePermissions(String applicationName, Collection<String> roleNames);
+
+    /**
+     * Checks a permission of the token's application against the bitmask carried in the token; no DB access.
+     */
+    boolean hasPermission(Authentication authentication, String permissionName);
+
+    /**
+     * Recompiles the permission masks of a single application from the database.
+     */
+    void rebuild(UUID applicationId);
+}
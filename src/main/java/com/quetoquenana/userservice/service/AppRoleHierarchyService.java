@@ -0,0 +1,28 @@
+package com.quetoquenana.userservice.service;
+
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+
+import java.util.UUID;
+
+/**
+ * In-memory, per-application role hierarchies compiled from the app_role_implies table.
+ * Role names are compared with the {@code ROLE_} prefix, like the authorities used by method security.
+ */
+public interface AppRoleHierarchyService {
+
+    /**
+     * @return the compiled hierarchy of the application (by name); a no-op hierarchy when it defines none
+     */
+    RoleHierarchy getRoleHierarchy(String applicationName);
+
+    /**
+     * Recompiles the hierarchy of a single application from the database.
+     */
+    void rebuild(UUID applicationId);
+
+    /**
+     * Published when an application's roles, role implications or permissions change; the compiled
+     * hierarchy and permission masks are rebuilt after commit.
+     */
+    record ChangedEvent(UUID applicationId) {}
+}
@@ -20,19 +20,22 @@ public class AppRoleUserService {
     @Transactional
     public void deleteByUserUsername(String username) {
         log.info("Deleting AppRoleUser mappings for username={}", username);
-        appRoleUserRepository.deleteByUserUsernameIgnoreCase(username);
+        int deleted = appRoleUserRepository.deleteByUserUsernameIgnoreCase(username);
+        log.debug("Deleted {} AppRoleUser mapping(s)", deleted);
     }
 
     @Transactional
     public void deleteByApplicationIdAndUsername(UUID applicationId, String username) {
         log.info("Deleting AppRoleUser mappings for applicationId={}, username={}", applicationId, username);
-        appRoleUserRepository.deleteByRoleApplicationIdAndUserUsernameIgnoreCase(applicationId, username);
+        int deleted = appRoleUserRepository.deleteByRoleApplicationIdAndUserUsernameIgnoreCase(applicationId, username);
+        log.debug("Deleted {} AppRoleUser mapping(s)", deleted);
     }
 
     @Transactional
     public void deleteByApplicationIdUsernameAndRole(UUID applicationId, String username, String roleName) {
         log.info("Deleting AppRoleUser mappings for applicationId={}, username={}, roleName={}", applicationId, username, roleName);
-        appRoleUserRepository.deleteByRoleApplicationIdAndUserUsernameIgnoreCaseAndRoleRoleNameIgnoreCase(applicationId, username, roleName);
+        int deleted = appRoleUserRepository.deleteByRoleApplicationIdAndUserUsernameIgnoreCaseAndRoleRoleNameIgnoreCase(applicationId, username, roleName);
+        log.debug("Deleted {} AppRoleUser mapping(s)", deleted);
     }
 }
 
@@ -2,9 +2,13 @@ package com.quetoquenana.userservice.service;
 
 import com.quetoquenana.userservice.command.CreateUserCommand;
 import com.quetoquenana.userservice.dto.*;
+import com.quetoquenana.userservice.model.AppPermission;
 import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.model.AppRoleImplication;
 import com.quetoquenana.userservice.model.AppRoleUser;
 import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -15,11 +19,13 @@ import java.util.UUID;
 public interface ApplicationService {
     List<Application> findActive();
 
-    Page<Application> findAll(Pageable pageable);
+    Page<ApplicationSummary> findAll(Pageable pageable, boolean exactTotal);
+
+    JsonViewCursorPage<ApplicationSummary> findAfter(PageCursor after, int size);
 
     Optional<Application> findById(UUID id);
 
-    Page<Application> searchByName(String name, Pageable pageable);
+    Page<ApplicationSummary> searchByName(String name, Pageable pageable);
 
     Application save(ApplicationCreateRequest request);
 
@@ -35,5 +41,20 @@ public interface ApplicationService {
 
     void deleteRole(UUID applicationId, UUID roleId);
 
-    void deleteById(UUID id);
+    List<AppRoleImplication> findRoleImplications(UUID applicationId);
+
+    AppRoleImplication addRoleImplication(UUID applicationId, AppRoleImplicationCreateRequest request);
+
+    void removeRoleImplication(UUID applicationId, UUID implicationId);
+
+    List<AppPermission> findPermissions(UUID applicationId);
+
+    AppPermission addPermission(UUID applicationId, AppPermissionCreateRequest request);
+
+    void grantPermission(UUID applicationId, UUID roleId, UUID permissionId);
+
+    void revokePermission(UUID applicationId, UUID roleId, UUID permissionId);
+
+    // expectedVersion: optimistic-lock check against the stored version, skipped when null
+    void deleteById(UUID id, Long expectedVersion);
 }
@@ -0,0 +1,32 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.dto.BulkPersonStatusRequest;
+import com.quetoquenana.userservice.dto.BulkStatusJob;
+import com.quetoquenana.userservice.dto.BulkUserStatusRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Set-based status changes for many users or persons, run in the background. Rows are updated in chunks,
+ * one transaction per chunk, so a failure keeps the chunks already committed; the job reports progress.
+ */
+public interface BulkStatusService {
+
+    /**
+     * Moves the selected users to INACTIVE, BLOCKED or RESET and revokes their refresh tokens in the same
+     * transaction. RESET only flags the account: users go through forgot-password, no email is sent.
+     *
+     * @return the job, RUNNING (or FAILED when it could not be queued)
+     */
+    BulkStatusJob changeUserStatus(BulkUserStatusRequest request);
+
+    /**
+     * Activates or deactivates the selected persons (by id, or by filter in keyset chunks like the users);
+     * deactivating also revokes the refresh tokens of their users.
+     */
+    BulkStatusJob changePersonStatus(BulkPersonStatusRequest request);
+
+    // answered by any node: from memory on the node running the job, from bulk_status_jobs on the others
+    Optional<BulkStatusJob> findJob(UUID jobId);
+}
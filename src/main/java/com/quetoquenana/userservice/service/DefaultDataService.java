@@ -3,14 +3,19 @@ package com.quetoquenana.userservice.service;
 import com.quetoquenana.userservice.dto.DefaultDataCreateRequest;
 import com.quetoquenana.userservice.dto.DefaultDataUpdateRequest;
 import com.quetoquenana.userservice.model.DefaultData;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface DefaultDataService {
-    Page<DefaultData> findAll(Pageable pageable);
+    Page<DefaultData> findAll(Pageable pageable, boolean exactTotal);
+
+    JsonViewCursorPage<DefaultData> findAfter(PageCursor after, int size);
 
     Optional<DefaultData> findById(UUID id);
 
@@ -20,6 +25,32 @@ public interface DefaultDataService {
 
     DefaultData update(UUID id, DefaultDataUpdateRequest request);
 
-    void deleteById(UUID id);
+    // expectedVersion: optimistic-lock check against the stored version, skipped when null
+    void deleteById(UUID id, Long expectedVersion);
+
+    /**
+     * Active ROLE entries: the roles every new application starts with.
+     */
+    List<RoleTemplate> getRoleTemplates();
+
+    /**
+     * Version of the catalog the reads above are served from (an ETag for conditional GETs). Identical on every
+     * node that holds the same rows.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Reloads the in-memory catalog from the database. Runs after every default data change commits on this node,
+     * and on the next read once app.default-data.catalog-ttl-seconds have passed, so changes made on other nodes
+     * show up too.
+     */
+    void reloadCatalog();
+
+    record RoleTemplate(String roleName, String description) {}
+
+    /**
+     * Published when default data is created, updated or deleted; the catalog is reloaded after commit.
+     */
+    record ChangedEvent(UUID id) {}
 }
 
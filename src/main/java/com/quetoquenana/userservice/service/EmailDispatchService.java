@@ -0,0 +1,11 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.dto.EmailTask;
+
+/**
+ * Sends emails asynchronously on the email executor, spilling to disk when it is saturated.
+ */
+public interface EmailDispatchService {
+
+    void dispatch(EmailTask task);
+}
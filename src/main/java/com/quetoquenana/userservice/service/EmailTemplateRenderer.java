@@ -0,0 +1,14 @@
+package com.quetoquenana.userservice.service;
+
+import java.util.Locale;
+
+/**
+ * Renders the HTML and plain-text bodies of transactional emails.
+ * Values are positional and follow {@link com.quetoquenana.userservice.util.Constants.Emails#VARIABLES}.
+ */
+public interface EmailTemplateRenderer {
+
+    String renderHtml(String templateName, Locale locale, String... values);
+
+    String renderText(String messageKey, Locale locale, String... values);
+}
@@ -0,0 +1,20 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams whole tables to a response: rows are read through a server-side cursor and written one by one,
+ * so memory use does not depend on the table size.
+ */
+public interface ExportService {
+
+    /**
+     * @param isActive only persons with this status; all persons when null
+     */
+    void exportPersons(Boolean isActive, ExportFormat format, OutputStream out) throws IOException;
+
+    void exportUsers(ExportFormat format, OutputStream out) throws IOException;
+}
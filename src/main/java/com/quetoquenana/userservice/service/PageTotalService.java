@@ -0,0 +1,21 @@
+package com.quetoquenana.userservice.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for unfiltered listings without a {@code count(*)} per page request.
+ */
+public interface PageTotalService {
+
+    /**
+     * Turns a slice of an unfiltered listing of {@code table} into a page whose total is the planner's row estimate
+     * ({@code pg_class.reltuples}), flagged as approximate. Small or never analyzed tables, and the last page,
+     * get an exact total instead.
+     *
+     * @param exactCount exact {@code count(*)}, only called for small tables
+     */
+    <T> Page<T> withEstimatedTotal(Slice<T> slice, String table, LongSupplier exactCount);
+}
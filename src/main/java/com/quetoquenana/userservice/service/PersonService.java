@@ -2,8 +2,11 @@ package com.quetoquenana.userservice.service;
 
 import com.quetoquenana.userservice.command.PersonCreateCommand;
 import com.quetoquenana.userservice.dto.PersonCreateRequest;
+import com.quetoquenana.userservice.dto.PersonSummary;
 import com.quetoquenana.userservice.dto.PersonUpdateRequest;
 import com.quetoquenana.userservice.model.Person;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -14,23 +17,30 @@ import java.util.UUID;
 public interface PersonService {
     List<Person> findAll();
 
-    Page<Person> findAll(Pageable pageable);
+    Page<PersonSummary> findAll(Pageable pageable, boolean exactTotal);
 
-    List<Person> findByIsActive(boolean isActive);
+    JsonViewCursorPage<PersonSummary> findAfter(PageCursor after, int size);
+
+    List<PersonSummary> findByIsActive(boolean isActive);
 
     Optional<Person> findById(UUID id);
 
     Optional<Person> findByIdNumber(String idNumber);
 
+    // the whole aggregate (profile, phones, addresses, users and roles) as a ready-to-send ApiResponse JSON document
+    Optional<byte[]> findOverviewJson(UUID id);
+
     Person save(PersonCreateRequest request);
 
     Person save(PersonCreateCommand request);
 
     Person update(UUID id, PersonUpdateRequest request);
 
-    void updateStatus(UUID id, boolean status);
+    // expectedVersion: optimistic-lock check against the stored version, skipped when null
+    void updateStatus(UUID id, boolean status, Long expectedVersion);
 
     Person getById(UUID id);
 
-    void deleteById(UUID id);
+    // expectedVersion: optimistic-lock check against the stored version, skipped when null
+    void deleteById(UUID id, Long expectedVersion);
 }
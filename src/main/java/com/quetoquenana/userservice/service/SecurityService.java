@@ -6,7 +6,7 @@ import org.springframework.security.core.Authentication;
 import java.util.UUID;
 
 /**
- * Authorization helper used from method-security SpEL (e.g. @PreAuthorize("@securityService.canAccessIdNumber(authentication, #idNumber)"))
+ * Authorization helper behind the {@code @OwnedResource} checks (e.g. {@code @OwnedResource(type = ID_NUMBER, param = "idNumber")}).
  */
 public interface SecurityService {
 
@@ -0,0 +1,22 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.dto.ExportFormat;
+import com.quetoquenana.userservice.dto.UserImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * Bulk creation of users with a role in an application. Rows are read as a stream and processed in
+ * chunks: each chunk is resolved with IN queries, its passwords hashed in parallel and its rows written
+ * with JDBC batches in one transaction, so a failing chunk does not roll back the ones before it.
+ */
+public interface UserImportService {
+
+    /**
+     * @param format NDJSON accepts a JSON array or newline-delimited objects; CSV needs a header row
+     * @return one result per data row, in input order
+     */
+    UserImportResponse importUsers(UUID applicationId, String roleName, ExportFormat format, InputStream in) throws IOException;
+}
@@ -2,10 +2,13 @@ package com.quetoquenana.userservice.service;
 
 import com.quetoquenana.userservice.command.CreateUserCommand;
 import com.quetoquenana.userservice.dto.UserCreateRequest;
+import com.quetoquenana.userservice.dto.UserSummary;
 import com.quetoquenana.userservice.dto.UserUpdateRequest;
 import com.quetoquenana.userservice.model.AppRoleUser;
 import com.quetoquenana.userservice.model.User;
 import com.quetoquenana.userservice.model.UserProvider;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -20,7 +23,9 @@ public interface UserService {
 
     List<AppRoleUser> findAllAppRoleByApplicationId(UUID idUser, UUID idApplication);
 
-    Page<User> findAll(Pageable pageable);
+    Page<UserSummary> findAll(Pageable pageable, boolean exactTotal);
+
+    JsonViewCursorPage<UserSummary> findAfter(PageCursor after, int size);
 
     Optional<User> findById(UUID id);
 
@@ -30,9 +35,16 @@ public interface UserService {
 
     User save(CreateUserCommand request);
 
+    // Creates the user, or returns the one already registered with that username (also when a concurrent
+    // request registers it first); unlike save, a taken username is not an error
+    User findOrCreate(UserCreateRequest request);
+
+    User findOrCreate(CreateUserCommand command);
+
     User update(UUID id, UserUpdateRequest request);
 
-    void delete(UUID id);
+    // expectedVersion: optimistic-lock check against the stored version, skipped when null
+    void delete(UUID id, Long expectedVersion);
 
     void resetPassword(UUID id, String newPassword);
 
@@ -0,0 +1,169 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.quetoquenana.userservice.model.AppPermission;
+import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.repository.AppPermissionRepository;
+import com.quetoquenana.userservice.repository.ApplicationRepository;
+import com.quetoquenana.userservice.service.AppPermissionService;
+import com.quetoquenana.userservice.service.AppRoleHierarchyService;
+import com.quetoquenana.userservice.util.PermissionBits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+import static com.quetoquenana.userservice.util.Constants.JWTClaims.KEY_PERMISSIONS;
+
+/**
+ * Keeps, per application name, the permission bitmask of every role and the bit of every permission.
+ * Copy-on-write like {@link AppRoleHierarchyServiceImpl}: lookups never lock or hit the database. Like the
+ * hierarchies, everything is also reloaded on a schedule, so tokens issued by any node carry masks at most
+ * {@code app.applications.authorization-reload-ms} old.
+ */
+@Service("permissionService")
+@RequiredArgsConstructor
+@Slf4j
+public class AppPermissionServiceImpl implements AppPermissionService {
+
+    private final AppPermissionRepository appPermissionRepository;
+    private final ApplicationRepository applicationRepository;
+
+    private volatile Map<String, CompiledPermissions> permissions = Map.of();
+    // application id -> name its permissions are registered under (names can change)
+    private final Map<UUID, String> registeredNames = new HashMap<>();
+
+    @Override
+    public String encodePermissions(String applicationName, Collection<String> roleNames) {
+        CompiledPermissions compiled = applicationName == null ? null : permissions.get(applicationName);
+        if (compiled == null) {
+            return null;
+        }
+        byte[] bits = new byte[0];
+        for (String roleName : roleNames) {
+            byte[] roleBits = compiled.roleBits().get(roleName);
+            if (roleBits != null) {
+                bits = PermissionBits.or(bits, roleBits);
+            }
+        }
+        return bits.length == 0 ? null : PermissionBits.encode(bits);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, String permissionName) {
+        if (authentication == null || permissionName == null || !(authentication.getPrincipal() instanceof Jwt jwt)) {
+            return false;
+        }
+        Map<String, Object> masks = jwt.getClaimAsMap(KEY_PERMISSIONS);
+        if (masks == null || jwt.getAudience() == null) {
+            return false;
+        }
+        String key = permissionName.toLowerCase(Locale.ROOT);
+        for (String audience : jwt.getAudience()) {
+            CompiledPermissions compiled = permissions.get(audience);
+            Integer bit = compiled == null ? null : compiled.permissionBits().get(key);
+            if (bit != null && masks.get(audience) instanceof String mask && PermissionBits.test(PermissionBits.decode(mask), bit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        log.info("Compiled permissions for {} application(s)", compileAll());
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.applications.authorization-reload-ms:60000}",
+            fixedDelayString = "${app.applications.authorization-reload-ms:60000}"
+    )
+    public void reloadAll() {
+        try {
+            log.debug("Recompiled permissions for {} application(s)", compileAll());
+        } catch (RuntimeException e) {
+            log.warn("Could not reload permissions, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    // three queries whatever the number of applications
+    private synchronized int compileAll() {
+        Map<UUID, Map<String, Integer>> permissionBits = new HashMap<>();
+        for (AppPermissionRepository.PermissionBit row : appPermissionRepository.findAllPermissionBits()) {
+            permissionBits.computeIfAbsent(row.getApplicationId(), id -> new HashMap<>())
+                    .put(row.getName().toLowerCase(Locale.ROOT), row.getBitIndex());
+        }
+        Map<UUID, Map<String, byte[]>> roleBits = new HashMap<>();
+        for (AppPermissionRepository.ApplicationRolePermissionBit row : appPermissionRepository.findAllRolePermissionBits()) {
+            roleBits.computeIfAbsent(row.getApplicationId(), id -> new HashMap<>())
+                    .merge(row.getRoleName(), PermissionBits.set(new byte[0], row.getBitIndex()), PermissionBits::or);
+        }
+
+        Map<String, CompiledPermissions> compiled = new HashMap<>();
+        registeredNames.clear();
+        for (Application application : applicationRepository.findAll()) {
+            Map<String, Integer> bits = permissionBits.get(application.getId());
+            if (bits != null) {
+                Map<String, byte[]> roles = roleBits.getOrDefault(application.getId(), Map.of());
+                compiled.put(application.getName(), new CompiledPermissions(Map.copyOf(roles), Map.copyOf(bits)));
+                registeredNames.put(application.getId(), application.getName());
+            }
+        }
+        permissions = Map.copyOf(compiled);
+        return compiled.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChanged(AppRoleHierarchyService.ChangedEvent event) {
+        rebuild(event.applicationId());
+    }
+
+    @Override
+    public synchronized void rebuild(UUID applicationId) {
+        Map<String, CompiledPermissions> updated = new HashMap<>(permissions);
+        String previousName = registeredNames.remove(applicationId);
+        if (previousName != null) {
+            updated.remove(previousName);
+        }
+
+        Optional<Application> application = applicationRepository.findById(applicationId);
+        if (application.isPresent()) {
+            CompiledPermissions compiled = compile(applicationId);
+            if (compiled != null) {
+                String name = application.get().getName();
+                updated.put(name, compiled);
+                registeredNames.put(applicationId, name);
+            }
+        }
+        permissions = Map.copyOf(updated);
+    }
+
+    private CompiledPermissions compile(UUID applicationId) {
+        List<AppPermission> defined = appPermissionRepository.findByApplicationIdOrderByBitIndex(applicationId);
+        if (defined.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> permissionBits = new HashMap<>();
+        for (AppPermission permission : defined) {
+            permissionBits.put(permission.getName().toLowerCase(Locale.ROOT), permission.getBitIndex());
+        }
+        Map<String, byte[]> roleBits = new HashMap<>();
+        for (AppPermissionRepository.RolePermissionBit row : appPermissionRepository.findRolePermissionBits(applicationId)) {
+            roleBits.merge(row.getRoleName(), PermissionBits.set(new byte[0], row.getBitIndex()), PermissionBits::or);
+        }
+        return new CompiledPermissions(Map.copyOf(roleBits), Map.copyOf(permissionBits));
+    }
+
+    /**
+     * @param roleBits        role name -> bitmask of the permissions granted to it
+     * @param permissionBits  lower-cased permission name -> bit index
+     */
+    private record CompiledPermissions(Map<String, byte[]> roleBits, Map<String, Integer> permissionBits) {}
+}
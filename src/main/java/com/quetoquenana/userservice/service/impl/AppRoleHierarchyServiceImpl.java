@@ -0,0 +1,135 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.quetoquenana.userservice.model.AppRoleImplication;
+import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.repository.AppRoleImplicationRepository;
+import com.quetoquenana.userservice.repository.ApplicationRepository;
+import com.quetoquenana.userservice.security.CompiledRoleHierarchy;
+import com.quetoquenana.userservice.service.AppRoleHierarchyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+import static com.quetoquenana.userservice.util.Constants.Roles.ROLE_PREFIX;
+
+/**
+ * Keeps one {@link CompiledRoleHierarchy} per application name. The map is copy-on-write: readers never lock,
+ * and a change only recompiles the application it belongs to. Change events only reach the node that committed
+ * them, so every node also recompiles all hierarchies every {@code app.applications.authorization-reload-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppRoleHierarchyServiceImpl implements AppRoleHierarchyService {
+
+    private static final RoleHierarchy NO_HIERARCHY = new NullRoleHierarchy();
+
+    private final AppRoleImplicationRepository appRoleImplicationRepository;
+    private final ApplicationRepository applicationRepository;
+
+    private volatile Map<String, RoleHierarchy> hierarchies = Map.of();
+    // application id -> name its hierarchy is registered under (names can change)
+    private final Map<UUID, String> registeredNames = new HashMap<>();
+
+    @Override
+    public RoleHierarchy getRoleHierarchy(String applicationName) {
+        if (applicationName == null) {
+            return NO_HIERARCHY;
+        }
+        return hierarchies.getOrDefault(applicationName, NO_HIERARCHY);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        log.info("Compiled role hierarchies for {} application(s)", compileAll());
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.applications.authorization-reload-ms:60000}",
+            fixedDelayString = "${app.applications.authorization-reload-ms:60000}"
+    )
+    public void reloadAll() {
+        try {
+            log.debug("Recompiled role hierarchies for {} application(s)", compileAll());
+        } catch (RuntimeException e) {
+            log.warn("Could not reload role hierarchies, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    private synchronized int compileAll() {
+        Map<UUID, String> names = new HashMap<>();
+        Map<UUID, List<AppRoleImplication>> byApplication = new HashMap<>();
+        for (AppRoleImplication implication : appRoleImplicationRepository.findAllBy()) {
+            Application application = implication.getApplication();
+            names.put(application.getId(), application.getName());
+            byApplication.computeIfAbsent(application.getId(), id -> new ArrayList<>()).add(implication);
+        }
+
+        Map<String, RoleHierarchy> compiled = new HashMap<>();
+        registeredNames.clear();
+        byApplication.forEach((applicationId, implications) -> {
+            RoleHierarchy hierarchy = compile(applicationId, implications);
+            if (hierarchy != null) {
+                compiled.put(names.get(applicationId), hierarchy);
+                registeredNames.put(applicationId, names.get(applicationId));
+            }
+        });
+        hierarchies = Map.copyOf(compiled);
+        return compiled.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChanged(ChangedEvent event) {
+        rebuild(event.applicationId());
+    }
+
+    @Override
+    public synchronized void rebuild(UUID applicationId) {
+        Map<String, RoleHierarchy> updated = new HashMap<>(hierarchies);
+        String previousName = registeredNames.remove(applicationId);
+        if (previousName != null) {
+            updated.remove(previousName);
+        }
+
+        Optional<Application> application = applicationRepository.findById(applicationId);
+        if (application.isPresent()) {
+            RoleHierarchy hierarchy = compile(applicationId, appRoleImplicationRepository.findByApplicationId(applicationId));
+            if (hierarchy != null) {
+                String name = application.get().getName();
+                updated.put(name, hierarchy);
+                registeredNames.put(applicationId, name);
+            }
+        }
+        hierarchies = Map.copyOf(updated);
+        log.debug("Rebuilt role hierarchy of application {}", applicationId);
+    }
+
+    /**
+     * @return the compiled hierarchy, or null when the application has no implications (or an invalid hierarchy)
+     */
+    private RoleHierarchy compile(UUID applicationId, List<AppRoleImplication> implications) {
+        if (implications.isEmpty()) {
+            return null;
+        }
+        Map<String, Set<String>> implies = new HashMap<>();
+        for (AppRoleImplication implication : implications) {
+            implies.computeIfAbsent(ROLE_PREFIX + implication.getRole().getRoleName(), role -> new HashSet<>())
+                    .add(ROLE_PREFIX + implication.getImpliedRole().getRoleName());
+        }
+        try {
+            return new CompiledRoleHierarchy(implies);
+        } catch (IllegalArgumentException e) {
+            log.error("Ignoring role hierarchy of application {}: {}", applicationId, e.getMessage());
+            return null;
+        }
+    }
+}
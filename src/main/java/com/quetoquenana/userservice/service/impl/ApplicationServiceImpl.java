@@ -6,10 +6,17 @@ import com.quetoquenana.userservice.exception.DuplicateRecordException;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.model.*;
 import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.AppRoleHierarchyService;
 import com.quetoquenana.userservice.service.ApplicationService;
 import com.quetoquenana.userservice.service.CurrentUserService;
+import com.quetoquenana.userservice.service.DefaultDataService;
+import com.quetoquenana.userservice.service.PageTotalService;
 import com.quetoquenana.userservice.service.UserService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
+import com.quetoquenana.userservice.util.UuidV7;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,7 +37,11 @@ public class ApplicationServiceImpl implements ApplicationService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final CurrentUserService currentUserService;
-    private final DefaultDataRepository defaultDataRepository;
+    private final DefaultDataService defaultDataService;
+    private final AppRoleImplicationRepository appRoleImplicationRepository;
+    private final AppPermissionRepository appPermissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PageTotalService pageTotalService;
 
     @Override
     public List<Application> findActive() {
@@ -38,18 +49,30 @@ public class ApplicationServiceImpl implements ApplicationService {
     }
 
     @Override
-    public Page<Application> findAll(Pageable pageable) {
-        return applicationRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<ApplicationSummary> findAll(Pageable pageable, boolean exactTotal) {
+        if (exactTotal) {
+            return applicationRepository.findSummaryPage(pageable);
+        }
+        return pageTotalService.withEstimatedTotal(applicationRepository.findSummarySlice(pageable), "applications", applicationRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JsonViewCursorPage<ApplicationSummary> findAfter(PageCursor after, int size) {
+        return JsonViewCursorPage.of(applicationRepository.findSummaryKeysetPage(after, size), size,
+                application -> new PageCursor(application.createdAt(), application.id()));
     }
 
     @Override
     public Optional<Application> findById(UUID id) {
-        return applicationRepository.findById(id);
+        return applicationRepository.findDetailById(id);
     }
 
     @Override
-    public Page<Application> searchByName(String name, Pageable pageable) {
-        return applicationRepository.findByNameContainingIgnoreCase(name, pageable);
+    @Transactional(readOnly = true)
+    public Page<ApplicationSummary> searchByName(String name, Pageable pageable) {
+        return applicationRepository.findSummaryByNameContainingIgnoreCase(name, pageable);
     }
 
     @Override
@@ -60,16 +83,19 @@ public class ApplicationServiceImpl implements ApplicationService {
         }
         Application application = Application.fromCreateRequest(request);
         LocalDateTime now = LocalDateTime.now();
-        User currentUser = userRepository.findByUsernameIgnoreCase(currentUserService.getCurrentUsername())
-                .orElseThrow(RecordNotFoundException::new);
+        String username = currentUserService.getCurrentUsername();
+        if (!userRepository.existsByUsernameIgnoreCase(username)) {
+            throw new RecordNotFoundException();
+        }
         application.setCreatedAt(now);
-        application.setCreatedBy(currentUser.getUsername());
+        application.setCreatedBy(username);
 
-        // sets role.application and adds to set
-        for (DefaultData data : defaultDataRepository.findByDataCategoryAndIsActive(DataCategory.ROLE, true)) {
-            AppRole role = AppRole.fromData(data.getDataName(), data.getDescription());
+        // default roles come from the cached ROLE template; ids are assigned in the JVM, so the cascade
+        // flushes them as one JDBC batch (hibernate.jdbc.batch_size / order_inserts) after the application row
+        for (DefaultDataService.RoleTemplate template : defaultDataService.getRoleTemplates()) {
+            AppRole role = AppRole.fromData(template.roleName(), template.description());
             role.setCreatedAt(now);
-            role.setCreatedBy(currentUser.getUsername());
+            role.setCreatedBy(username);
             application.addRole(role);
         }
         return applicationRepository.save(application);
@@ -78,11 +104,15 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Override
     @Transactional
     public Application update(UUID id, ApplicationUpdateRequest request) {
-        Application existing = applicationRepository.findById(id)
+        // the response is an ApplicationDetail
+        Application existing = applicationRepository.findDetailById(id)
                 .orElseThrow(RecordNotFoundException::new);
 
         existing.updateFromRequest(request, currentUserService.getCurrentUsername());
-        return applicationRepository.save(existing);
+        Application saved = applicationRepository.save(existing);
+        // the compiled role hierarchy is registered under the application name
+        eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(id));
+        return saved;
     }
 
     @Override
@@ -121,29 +151,14 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Override
     @Transactional
     public AppRoleUser addUser(UUID applicationId, AppRoleUserCreateRequest request) {
-        // validate application exists
-        applicationRepository.findById(applicationId)
-                .orElseThrow(RecordNotFoundException::new);
-
-        // find matching app role for the application
+        // find matching app role for the application (also validates the application exists)
         AppRole role = appRoleRepository.findByApplicationIdAndRoleName(applicationId, request.getRoleName())
                 .orElseThrow(RecordNotFoundException::new);
 
-        // Step 1: see if a User with the username already exists. If yes, reuse it.
-        User user = userService.findByUsername(request.getUser().getUsername())
-                .orElseGet(() -> userService.save(request.getUser()));
+        // create the user, or reuse the one registered with that username (one INSERT ... ON CONFLICT)
+        User user = userService.findOrCreate(request.getUser());
 
-        // check if mapping already exists for this user and application
-        List<AppRoleUser> existingMappings = appRoleUserRepository.findByUserIdAndRoleApplicationId(user.getId(), applicationId);
-        if (!existingMappings.isEmpty()) {
-            throw new DuplicateRecordException("application.role.user.duplicate");
-        }
-
-        // create match record
-        AppRoleUser appRoleUser = AppRoleUser.of(user, role);
-        appRoleUser.setCreatedAt(LocalDateTime.now());
-        appRoleUser.setCreatedBy(currentUserService.getCurrentUsername());
-        return appRoleUserRepository.save(appRoleUser);
+        return insertMapping(user, role);
     }
 
     @Override
@@ -158,21 +173,23 @@ public class ApplicationServiceImpl implements ApplicationService {
         AppRole role = appRoleRepository.findByApplicationIdAndRoleName(applicationId, command.getRoleName())
                 .orElseThrow(RecordNotFoundException::new);
 
-        // Step 1: see if a User with the username already exists. If yes, reuse it.
-        User user = userService.findByUsername(command.getEmail())
-                .orElseGet(() -> userService.save(command));
+        // create the user, or reuse the one registered with that username (one INSERT ... ON CONFLICT)
+        User user = userService.findOrCreate(command);
 
-        // check if mapping already exists for this user and application
-        List<AppRoleUser> existingMappings = appRoleUserRepository.findByUserIdAndRoleApplicationId(user.getId(), applicationId);
-        if (!existingMappings.isEmpty()) {
-            throw new DuplicateRecordException("application.role.user.duplicate");
-        }
+        return insertMapping(user, role);
+    }
 
-        // create match record
+    /**
+     * Inserts the mapping in one statement that also refuses it when the user already holds a role in the
+     * application, instead of a duplicate check followed by an insert.
+     */
+    private AppRoleUser insertMapping(User user, AppRole role) {
         AppRoleUser appRoleUser = AppRoleUser.of(user, role);
+        appRoleUser.setId(UuidV7.next());
         appRoleUser.setCreatedAt(LocalDateTime.now());
         appRoleUser.setCreatedBy(currentUserService.getCurrentUsername());
-        return appRoleUserRepository.save(appRoleUser);
+        return appRoleUserRepository.insertIfNoRoleInApplication(appRoleUser)
+                .orElseThrow(() -> new DuplicateRecordException("application.role.user.duplicate"));
     }
 
     @Override
@@ -200,21 +217,131 @@ public class ApplicationServiceImpl implements ApplicationService {
             throw new RecordNotFoundException();
         }
 
-        // delete mappings for the role and then the role
+        // delete mappings for the role in one statement and then the role (its implications cascade in the
+        // database); the bulk delete clears the persistence context, so the role is removed by id
         appRoleUserRepository.deleteByRoleId(roleId);
-        appRoleRepository.delete(role);
+        appRoleRepository.deleteById(roleId);
+        eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+    }
+
+    @Override
+    public List<AppRoleImplication> findRoleImplications(UUID applicationId) {
+        applicationRepository.findById(applicationId)
+                .orElseThrow(RecordNotFoundException::new);
+        return appRoleImplicationRepository.findByApplicationId(applicationId);
+    }
+
+    @Override
+    @Transactional
+    public AppRoleImplication addRoleImplication(UUID applicationId, AppRoleImplicationCreateRequest request) {
+        applicationRepository.findById(applicationId)
+                .orElseThrow(RecordNotFoundException::new);
+
+        AppRole role = appRoleRepository.findByApplicationIdAndRoleName(applicationId, request.getRoleName())
+                .orElseThrow(RecordNotFoundException::new);
+        AppRole impliedRole = appRoleRepository.findByApplicationIdAndRoleName(applicationId, request.getImpliedRoleName())
+                .orElseThrow(RecordNotFoundException::new);
+
+        // a role always implies itself
+        if (role.getId().equals(impliedRole.getId())) {
+            throw new DuplicateRecordException("application.role.implies.self");
+        }
+        if (appRoleImplicationRepository.existsByRoleIdAndImpliedRoleId(role.getId(), impliedRole.getId())) {
+            throw new DuplicateRecordException("application.role.implies.duplicate");
+        }
+
+        AppRoleImplication implication = AppRoleImplication.of(role, impliedRole);
+        implication.setCreatedAt(LocalDateTime.now());
+        implication.setCreatedBy(currentUserService.getCurrentUsername());
+        AppRoleImplication saved = appRoleImplicationRepository.save(implication);
+        eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void removeRoleImplication(UUID applicationId, UUID implicationId) {
+        AppRoleImplication implication = appRoleImplicationRepository.findById(implicationId)
+                .orElseThrow(RecordNotFoundException::new);
+        if (!implication.getApplication().getId().equals(applicationId)) {
+            throw new RecordNotFoundException();
+        }
+        appRoleImplicationRepository.delete(implication);
+        eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+    }
+
+    @Override
+    public List<AppPermission> findPermissions(UUID applicationId) {
+        applicationRepository.findById(applicationId)
+                .orElseThrow(RecordNotFoundException::new);
+        return appPermissionRepository.findByApplicationIdOrderByBitIndex(applicationId);
+    }
+
+    @Override
+    @Transactional
+    public AppPermission addPermission(UUID applicationId, AppPermissionCreateRequest request) {
+        // the row lock makes concurrent additions take turns, so each one sees the bits (and names) added before it
+        Application application = applicationRepository.findByIdForUpdate(applicationId)
+                .orElseThrow(RecordNotFoundException::new);
+        if (appPermissionRepository.existsByApplicationIdAndNameIgnoreCase(applicationId, request.getName())) {
+            throw new DuplicateRecordException("application.permission.duplicate");
+        }
+
+        // bits are appended and never reused, so masks in already issued tokens keep their meaning
+        int bitIndex = appPermissionRepository.findMaxBitIndex(applicationId) + 1;
+        AppPermission permission = AppPermission.fromCreateRequest(application, bitIndex, request);
+        permission.setCreatedAt(LocalDateTime.now());
+        permission.setCreatedBy(currentUserService.getCurrentUsername());
+        AppPermission saved = appPermissionRepository.save(permission);
+        eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void grantPermission(UUID applicationId, UUID roleId, UUID permissionId) {
+        AppRole role = findApplicationRole(applicationId, roleId);
+        if (role.grant(findApplicationPermission(applicationId, permissionId))) {
+            appRoleRepository.save(role);
+            eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void revokePermission(UUID applicationId, UUID roleId, UUID permissionId) {
+        AppRole role = findApplicationRole(applicationId, roleId);
+        if (role.revoke(findApplicationPermission(applicationId, permissionId))) {
+            appRoleRepository.save(role);
+            eventPublisher.publishEvent(new AppRoleHierarchyService.ChangedEvent(applicationId));
+        }
+    }
+
+    private AppRole findApplicationRole(UUID applicationId, UUID roleId) {
+        AppRole role = appRoleRepository.findById(roleId)
+                .orElseThrow(RecordNotFoundException::new);
+        if (role.getApplication() == null || !role.getApplication().getId().equals(applicationId)) {
+            throw new RecordNotFoundException();
+        }
+        return role;
+    }
+
+    private AppPermission findApplicationPermission(UUID applicationId, UUID permissionId) {
+        AppPermission permission = appPermissionRepository.findById(permissionId)
+                .orElseThrow(RecordNotFoundException::new);
+        if (!permission.getApplication().getId().equals(applicationId)) {
+            throw new RecordNotFoundException();
+        }
+        return permission;
     }
 
     @Override
     @Transactional
-    public void deleteById(UUID id) {
-        Application existing = applicationRepository.findById(id)
-                .orElseThrow(RecordNotFoundException::new);
-        if (existing.isActive()) {
-            existing.setActive(false);
-            existing.setUpdatedAt(LocalDateTime.now());
-            existing.setUpdatedBy(currentUserService.getCurrentUsername());
-            applicationRepository.save(existing);
+    public void deleteById(UUID id, Long expectedVersion) {
+        int updated = applicationRepository.updateActive(
+                id, false, expectedVersion, LocalDateTime.now(), currentUserService.getCurrentUsername());
+        if (updated == 0) {
+            applicationRepository.checkUnmatchedUpdate(id, expectedVersion);
         }
     }
 }
@@ -0,0 +1,235 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.quetoquenana.userservice.dto.BulkPersonStatusRequest;
+import com.quetoquenana.userservice.dto.BulkStatusJob;
+import com.quetoquenana.userservice.dto.BulkUserStatusRequest;
+import com.quetoquenana.userservice.model.UserStatus;
+import com.quetoquenana.userservice.repository.BulkStatusJobJdbcRepository;
+import com.quetoquenana.userservice.repository.PersonRepository;
+import com.quetoquenana.userservice.repository.RefreshTokenRepository;
+import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.CurrentUserService;
+import com.quetoquenana.userservice.util.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Runs each job on the {@code bulkStatusExecutor}. Progress is kept in memory on the node running the job and
+ * stored in bulk_status_jobs (chunk counters in the chunk's own transaction), so a poll that lands on any other
+ * node behind the load balancer still finds the job. A job whose node stops mid-way stays RUNNING there with the
+ * counters of its last committed chunk.
+ */
+@Service
+@Slf4j
+public class BulkStatusServiceImpl implements BulkStatusService {
+
+    private static final Set<UserStatus> TARGET_STATUSES = EnumSet.of(UserStatus.INACTIVE, UserStatus.BLOCKED, UserStatus.RESET);
+
+    private final UserRepository userRepository;
+    private final PersonRepository personRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CurrentUserService currentUserService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor bulkStatusExecutor;
+    private final BulkStatusJobJdbcRepository bulkStatusJobRepository;
+
+    // jobs of this node, kept until purged some time after they finish; other nodes' jobs are read from the table
+    private final Map<UUID, BulkStatusJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.bulk-status.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.bulk-status.retention-seconds:3600}")
+    private long retentionSeconds;
+
+    public BulkStatusServiceImpl(
+            UserRepository userRepository,
+            PersonRepository personRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            CurrentUserService currentUserService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("bulkStatusExecutor") Executor bulkStatusExecutor,
+            BulkStatusJobJdbcRepository bulkStatusJobRepository
+    ) {
+        this.userRepository = userRepository;
+        this.personRepository = personRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.currentUserService = currentUserService;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkStatusExecutor = bulkStatusExecutor;
+        this.bulkStatusJobRepository = bulkStatusJobRepository;
+    }
+
+    // counts of one committed chunk; last is the keyset position for filter-driven jobs
+    private record ChunkResult(int selected, int updated, int revoked, UUID last) {}
+
+    @Override
+    public BulkStatusJob changeUserStatus(BulkUserStatusRequest request) {
+        UserStatus status = request.getStatus();
+        if (!TARGET_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Bulk status must be one of " + TARGET_STATUSES);
+        }
+        String actor = currentUserService.getCurrentUsername();
+
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(request.getUserIds()));
+            BulkStatusJob job = new BulkStatusJob(UuidV7.next(), BulkStatusJob.Target.USERS, actor, ids.size());
+            return submit(job, () -> forEachChunk(ids, job, chunk -> transitionUsers(chunk, status, null, actor)));
+        }
+
+        UserStatus currentStatus = request.getCurrentStatus();
+        String suffix = request.getUsernameSuffix();
+        // usernames are matched case-insensitively
+        String usernamePattern = likePattern("%", suffix == null ? null : suffix.toLowerCase(Locale.ROOT), "");
+        long total = userRepository.countByStatusFilter(currentStatus, usernamePattern);
+        BulkStatusJob job = new BulkStatusJob(UuidV7.next(), BulkStatusJob.Target.USERS, actor, total);
+        return submit(job, () -> forEachFilteredChunk(job,
+                after -> userRepository.findIdsByStatusFilter(currentStatus, usernamePattern, after, Limit.of(chunkSize)),
+                ids -> transitionUsers(ids, status, currentStatus, actor)));
+    }
+
+    @Override
+    public BulkStatusJob changePersonStatus(BulkPersonStatusRequest request) {
+        boolean active = request.getActive();
+        String actor = currentUserService.getCurrentUsername();
+
+        if (request.getPersonIds() != null && !request.getPersonIds().isEmpty()) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(request.getPersonIds()));
+            BulkStatusJob job = new BulkStatusJob(UuidV7.next(), BulkStatusJob.Target.PERSONS, actor, ids.size());
+            return submit(job, () -> forEachChunk(ids, job, chunk -> transitionPersons(chunk, active, actor)));
+        }
+
+        Boolean currentActive = request.getCurrentActive();
+        String idNumberPattern = likePattern("", request.getIdNumberPrefix(), "%");
+        long total = personRepository.countByStatusFilter(currentActive, idNumberPattern);
+        BulkStatusJob job = new BulkStatusJob(UuidV7.next(), BulkStatusJob.Target.PERSONS, actor, total);
+        return submit(job, () -> forEachFilteredChunk(job,
+                after -> personRepository.findIdsByStatusFilter(currentActive, idNumberPattern, after, Limit.of(chunkSize)),
+                ids -> transitionPersons(ids, active, actor)));
+    }
+
+    @Override
+    public Optional<BulkStatusJob> findJob(UUID jobId) {
+        BulkStatusJob local = jobs.get(jobId);
+        return local != null ? Optional.of(local) : bulkStatusJobRepository.findById(jobId);
+    }
+
+    /**
+     * Drops finished jobs older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.bulk-status.purge-interval-ms:600000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(retentionSeconds);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        int purged = bulkStatusJobRepository.deleteFinishedBefore(cutoff);
+        if (purged > 0) {
+            log.debug("Purged {} finished bulk status job(s)", purged);
+        }
+    }
+
+    private ChunkResult transitionUsers(List<UUID> ids, UserStatus status, UserStatus currentStatus, String actor) {
+        int updated = userRepository.updateStatusByIdIn(ids, status, currentStatus, LocalDateTime.now(), actor);
+        // none of the target statuses may keep a session alive
+        int revoked = refreshTokenRepository.revokeByUserIdIn(ids);
+        return new ChunkResult(ids.size(), updated, revoked, ids.getLast());
+    }
+
+    private ChunkResult transitionPersons(List<UUID> ids, boolean active, String actor) {
+        int updated = personRepository.updateActiveByIdIn(ids, active, LocalDateTime.now(), actor);
+        int revoked = active ? 0 : refreshTokenRepository.revokeByUserPersonIdIn(ids);
+        return new ChunkResult(ids.size(), updated, revoked, ids.getLast());
+    }
+
+    private void forEachChunk(List<UUID> ids, BulkStatusJob job, Function<List<UUID>, ChunkResult> work) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            ChunkResult result = transactionTemplate.execute(tx -> recorded(job, work.apply(chunk)));
+            job.chunkCommitted(result.selected(), result.updated(), result.revoked());
+        }
+    }
+
+    // filter-driven jobs: select and transition each chunk in one transaction, keyset on the last id
+    private void forEachFilteredChunk(BulkStatusJob job, Function<UUID, List<UUID>> nextIds, Function<List<UUID>, ChunkResult> work) {
+        UUID after = null;
+        ChunkResult result;
+        do {
+            UUID position = after;
+            result = transactionTemplate.execute(tx -> {
+                List<UUID> ids = nextIds.apply(position);
+                return ids.isEmpty() ? null : recorded(job, work.apply(ids));
+            });
+            if (result != null) {
+                job.chunkCommitted(result.selected(), result.updated(), result.revoked());
+                after = result.last();
+            }
+        } while (result != null && result.selected() == chunkSize);
+    }
+
+    // adds the chunk to the stored progress in the chunk's transaction: both commit, or neither
+    private ChunkResult recorded(BulkStatusJob job, ChunkResult result) {
+        bulkStatusJobRepository.addChunk(job.getId(), result.selected(), result.updated(), result.revoked());
+        return result;
+    }
+
+    private BulkStatusJob submit(BulkStatusJob job, Runnable work) {
+        bulkStatusJobRepository.insert(job);
+        jobs.put(job.getId(), job);
+        log.info("Bulk status job {} on {} started by {} for {} row(s)", job.getId(), job.getTarget(), job.getRequestedBy(), job.getTotal());
+        try {
+            bulkStatusExecutor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            log.warn("Bulk status job {} rejected: executor saturated", job.getId());
+            job.fail("Too many bulk status jobs running; retry later");
+            storeOutcome(job);
+        }
+        return job;
+    }
+
+    private void run(BulkStatusJob job, Runnable work) {
+        try {
+            work.run();
+            job.complete();
+            log.info("Bulk status job {} completed: {} processed, {} updated, {} token(s) revoked in {} chunk(s)",
+                    job.getId(), job.getProcessed(), job.getUpdated(), job.getTokensRevoked(), job.getChunks());
+        } catch (RuntimeException e) {
+            // chunks committed so far stay committed; the counters say how far the job got
+            log.error("Bulk status job {} failed after {} row(s)", job.getId(), job.getProcessed(), e);
+            job.fail(e.getMessage());
+        }
+        storeOutcome(job);
+    }
+
+    private void storeOutcome(BulkStatusJob job) {
+        try {
+            bulkStatusJobRepository.finish(job);
+        } catch (DataAccessException e) {
+            log.error("Could not store the outcome of bulk status job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    // LIKE pattern around the value, '!' escaping its wildcards; null when there is no value
+    private static String likePattern(String before, String value, String after) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String escaped = value.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return before + escaped + after;
+    }
+}
@@ -9,36 +9,75 @@ import com.quetoquenana.userservice.model.DefaultData;
 import com.quetoquenana.userservice.repository.DefaultDataRepository;
 import com.quetoquenana.userservice.service.CurrentUserService;
 import com.quetoquenana.userservice.service.DefaultDataService;
+import com.quetoquenana.userservice.service.PageTotalService;
+import com.quetoquenana.userservice.util.DefaultDataCatalog;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class DefaultDataServiceImpl implements DefaultDataService {
 
     private final DefaultDataRepository defaultDataRepository;
     private final CurrentUserService currentUserService;
+    private final PageTotalService pageTotalService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.default-data.catalog-ttl-seconds:60}")
+    private long catalogTtlSeconds;
+
+    private record LoadedCatalog(DefaultDataCatalog catalog, long loadedAtNanos) {}
+
+    private volatile LoadedCatalog loaded;
+
+    // sorted requests are rare (the controller never sorts) and are left to the database
+    @Override
+    public Page<DefaultData> findAll(Pageable pageable, boolean exactTotal) {
+        if (pageable.getSort().isUnsorted()) {
+            return catalog().page(pageable);
+        }
+        if (exactTotal) {
+            return defaultDataRepository.findAll(pageable);
+        }
+        return pageTotalService.withEstimatedTotal(defaultDataRepository.findAllBy(pageable), "default_data", defaultDataRepository::count);
+    }
 
     @Override
-    public Page<DefaultData> findAll(Pageable pageable) {
-        return defaultDataRepository.findAll(pageable);
+    public JsonViewCursorPage<DefaultData> findAfter(PageCursor after, int size) {
+        return JsonViewCursorPage.of(catalog().findKeysetPage(after, size), size,
+                defaultData -> new PageCursor(defaultData.getCreatedAt(), defaultData.getId()));
     }
 
+    // a miss may be an entry created on another node since the last reload
     @Override
     public Optional<DefaultData> findById(UUID id) {
-        return defaultDataRepository.findById(id);
+        return catalog().findById(id).or(() -> defaultDataRepository.findById(id));
     }
 
     @Override
     public Page<DefaultData> findByDataCategory(String category, Pageable pageable) {
-        return defaultDataRepository.findByDataCategory(DataCategory.valueOf(category), pageable);
+        DataCategory dataCategory = DataCategory.valueOf(category);
+        if (pageable.getSort().isUnsorted()) {
+            return catalog().page(dataCategory, pageable);
+        }
+        return defaultDataRepository.findByDataCategory(dataCategory, pageable);
     }
 
     @Override
@@ -50,7 +89,9 @@ public class DefaultDataServiceImpl implements DefaultDataService {
         DefaultData entity = DefaultData.fromCreate(request);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setCreatedBy(currentUserService.getCurrentUsername());
-        return defaultDataRepository.save(entity);
+        DefaultData saved = defaultDataRepository.save(entity);
+        eventPublisher.publishEvent(new ChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -61,20 +102,64 @@ public class DefaultDataServiceImpl implements DefaultDataService {
         existing.updateFromRequest(request);
         existing.setUpdatedAt(LocalDateTime.now());
         existing.setUpdatedBy(currentUserService.getCurrentUsername());
+        eventPublisher.publishEvent(new ChangedEvent(id));
         return defaultDataRepository.save(existing);
     }
 
     @Override
     @Transactional
-    public void deleteById(UUID id) {
-        DefaultData existing = defaultDataRepository.findById(id)
-                .orElseThrow(RecordNotFoundException::new);
-        if (existing.getIsActive()) {
-            existing.setIsActive(false);
-            existing.setUpdatedAt(LocalDateTime.now());
-            existing.setUpdatedBy(currentUserService.getCurrentUsername());
-            defaultDataRepository.save(existing);
+    public void deleteById(UUID id, Long expectedVersion) {
+        int updated = defaultDataRepository.updateActive(
+                id, false, expectedVersion, LocalDateTime.now(), currentUserService.getCurrentUsername());
+        if (updated == 0) {
+            defaultDataRepository.checkUnmatchedUpdate(id, expectedVersion);
+        } else {
+            eventPublisher.publishEvent(new ChangedEvent(id));
         }
     }
-}
 
+    @Override
+    public List<RoleTemplate> getRoleTemplates() {
+        return catalog().findActive(DataCategory.ROLE).stream()
+                .map(data -> new RoleTemplate(data.getDataName(), data.getDescription()))
+                .toList();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalog().version();
+    }
+
+    @Override
+    public synchronized void reloadCatalog() {
+        load();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChanged(ChangedEvent event) {
+        reloadCatalog();
+    }
+
+    private DefaultDataCatalog catalog() {
+        LoadedCatalog current = loaded;
+        if (current != null && !isExpired(current)) {
+            return current.catalog();
+        }
+        synchronized (this) {
+            current = loaded;
+            return current != null && !isExpired(current) ? current.catalog() : load();
+        }
+    }
+
+    // callers hold the lock, so a reload that started after a commit is always the one published last
+    private DefaultDataCatalog load() {
+        DefaultDataCatalog catalog = DefaultDataCatalog.of(defaultDataRepository.findAllReadOnly());
+        loaded = new LoadedCatalog(catalog, System.nanoTime());
+        log.debug("Loaded default data catalog version {}", Long.toHexString(catalog.version()));
+        return catalog;
+    }
+
+    private boolean isExpired(LoadedCatalog catalog) {
+        return System.nanoTime() - catalog.loadedAtNanos() >= TimeUnit.SECONDS.toNanos(catalogTtlSeconds);
+    }
+}
@@ -0,0 +1,184 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quetoquenana.userservice.config.EmailSpillProperties;
+import com.quetoquenana.userservice.dto.EmailTask;
+import com.quetoquenana.userservice.model.UserStatus;
+import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.EmailDispatchService;
+import com.quetoquenana.userservice.service.EmailService;
+import com.quetoquenana.userservice.util.PasswordUtil;
+import com.quetoquenana.userservice.util.SpillJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs email tasks on the {@code emailExecutor}. When its queue is full, tasks are appended to a
+ * {@link SpillJournal} and fed back to the executor by {@link #drain()} as capacity frees up.
+ * Pending journal entries are replayed on startup. The journal holds no passwords: a task read back from it
+ * gets a fresh temporary password when it is sent. Without a journal, or without room in it, the task is dropped
+ * and logged rather than sent on the calling thread (a request or import thread must never wait on the mail
+ * server); the user is left in RESET and gets a temporary password through forgot-password.
+ */
+@Service
+@Slf4j
+public class EmailDispatchServiceImpl implements EmailDispatchService {
+
+    private final EmailService emailService;
+    private final Executor emailExecutor;
+    private final EmailSpillProperties spillProperties;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    private SpillJournal journal;
+
+    public EmailDispatchServiceImpl(
+            EmailService emailService,
+            @Qualifier("emailExecutor") Executor emailExecutor,
+            EmailSpillProperties spillProperties,
+            ObjectMapper objectMapper,
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder
+    ) {
+        this.emailService = emailService;
+        this.emailExecutor = emailExecutor;
+        this.spillProperties = spillProperties;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @PostConstruct
+    public void openJournal() throws IOException {
+        if (!spillProperties.isEnabled()) {
+            return;
+        }
+        if (spillProperties.getPath() == null || spillProperties.getPath().isBlank()) {
+            log.warn("app.email.spill.path is not set: emails the executor rejects are dropped");
+            return;
+        }
+        journal = new SpillJournal(Path.of(spillProperties.getPath()), spillProperties.getCapacityBytes());
+        if (!journal.isEmpty()) {
+            log.info("Replaying {} spilled email task(s) from {}", journal.size(), spillProperties.getPath());
+            drain();
+        }
+    }
+
+    @PreDestroy
+    public void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    @Override
+    public void dispatch(EmailTask task) {
+        // keep FIFO order: once tasks are waiting on disk, new ones queue up behind them
+        if (journal != null && !journal.isEmpty()) {
+            spill(task);
+            return;
+        }
+        try {
+            submit(task);
+        } catch (RejectedExecutionException e) {
+            spill(task);
+        }
+    }
+
+    /**
+     * Moves spilled tasks back to the executor until it rejects again or the journal is empty.
+     */
+    @Scheduled(fixedDelayString = "${app.email.spill.drain-interval-ms:1000}")
+    public void drain() {
+        if (journal == null) {
+            return;
+        }
+        byte[] entry;
+        while ((entry = journal.peek()) != null) {
+            EmailTask task = read(entry);
+            if (task != null) {
+                try {
+                    submit(task);
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+            journal.remove();
+        }
+    }
+
+    private void submit(EmailTask task) {
+        CompletableFuture.runAsync(() -> send(task), emailExecutor);
+    }
+
+    private void send(EmailTask task) {
+        try {
+            String password = task.getPassword() != null ? task.getPassword() : reissuePassword(task);
+            if (password == null) {
+                log.info("Skipping spilled {} email to {}: the user no longer has a temporary password",
+                        task.getType(), task.getUser().getUsername());
+                return;
+            }
+            switch (task.getType()) {
+                case NEW_USER -> emailService.sendNewUserEmail(task.getUser(), password, task.getLocale());
+                case PASSWORD_RESET -> emailService.sendPasswordEmail(task.getUser(), password, task.getLocale());
+            }
+        } catch (Exception e) {
+            log.error("Error sending {} email to {}", task.getType(), task.getUser().getUsername(), e);
+        }
+    }
+
+    /**
+     * The password that went out with the spilled task was never written to disk, so the one whose hash is
+     * stored cannot be mailed anymore: replace it, unless the user has set their own password meanwhile.
+     *
+     * @return the new temporary password, or null when the user is no longer waiting for one
+     */
+    private String reissuePassword(EmailTask task) {
+        String username = task.getUser().getUsername();
+        String plain = PasswordUtil.generateRandomPassword();
+        int updated = userRepository.updatePasswordHashByUsernameAndStatus(
+                username, UserStatus.RESET, passwordEncoder.encode(plain), LocalDateTime.now(), username);
+        return updated == 1 ? plain : null;
+    }
+
+    private void spill(EmailTask task) {
+        String username = task.getUser().getUsername();
+        if (journal == null) {
+            log.error("Email executor saturated and no spill journal, dropped {} email to {}", task.getType(), username);
+            return;
+        }
+        try {
+            if (journal.append(objectMapper.writeValueAsBytes(task))) {
+                log.warn("Email executor saturated, spilled {} email to {} to disk", task.getType(), username);
+                return;
+            }
+            log.error("Email spill journal full, dropped {} email to {}", task.getType(), username);
+        } catch (IOException e) {
+            log.error("Could not spill {} email to {}, dropped it: {}", task.getType(), username, e.getMessage(), e);
+        }
+    }
+
+    private EmailTask read(byte[] entry) {
+        try {
+            return objectMapper.readValue(entry, EmailTask.class);
+        } catch (IOException e) {
+            log.error("Discarding unreadable spilled email task: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.quetoquenana.userservice.service.impl;
 
+import com.google.api.client.http.AbstractInputStreamContent;
 import com.google.api.services.gmail.Gmail;
-import com.google.api.services.gmail.model.Message;
 import com.quetoquenana.userservice.dto.UserEmailInfo;
 import com.quetoquenana.userservice.service.EmailService;
+import com.quetoquenana.userservice.service.EmailTemplateRenderer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
@@ -13,25 +14,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Locale;
 import java.util.Properties;
 
+import static com.quetoquenana.userservice.util.Constants.Emails.TEMPLATE_NEW_USER;
+import static com.quetoquenana.userservice.util.Constants.Emails.TEMPLATE_PASSWORD_RESET;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
     private final Gmail gmail;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
     private final MessageSource messageSource;
 
+    // Sessions are thread-safe and carry no per-message state, so one is shared by every email
+    private static final Session MAIL_SESSION = Session.getInstance(new Properties());
+
     @Value("${GMAIL_SENDER_EMAIL:}")
     private String fromAddress;
 
@@ -40,44 +47,34 @@ public class EmailServiceImpl implements EmailService {
 
     @Override
     public void sendPasswordEmail(UserEmailInfo user, String plainPassword, Locale locale) {
-        Object[] args = new Object[]{user.getPersonName(), user.getPersonLastname(), user.getUsername(), plainPassword, supportEmail};
+        String[] values = getValues(user, plainPassword);
 
         String subject = messageSource.getMessage("email.password.reset.subject", null, "User Service - Password reset", locale);
-        String textBody = messageSource.getMessage("email.password.reset.text", args, "", locale);
-
-        Context ctx = getContext(user, plainPassword, locale);
-        String htmlBody = templateEngine.process("password-reset", ctx);
+        String textBody = templateRenderer.renderText("email.password.reset.text", locale, values);
+        String htmlBody = templateRenderer.renderHtml(TEMPLATE_PASSWORD_RESET, locale, values);
 
         sendViaGmail(user.getUsername(), subject, textBody, htmlBody);
     }
 
-    private Context getContext(UserEmailInfo user, String plainPassword, Locale locale) {
-        Context ctx = new Context(locale);
-        ctx.setVariable("name", user.getPersonName());
-        ctx.setVariable("lastname", user.getPersonLastname());
-        ctx.setVariable("username", user.getUsername());
-        ctx.setVariable("password", plainPassword);
-        ctx.setVariable("supportEmail", supportEmail);
-        return ctx;
+    private String[] getValues(UserEmailInfo user, String plainPassword) {
+        // same order as Constants.Emails.VARIABLES
+        return new String[]{user.getPersonName(), user.getPersonLastname(), user.getUsername(), plainPassword, supportEmail};
     }
 
     @Override
     public void sendNewUserEmail(UserEmailInfo user, String initialPassword, Locale locale) {
-        Object[] args = new Object[]{user.getPersonName(), user.getPersonLastname(), user.getUsername(), initialPassword, supportEmail};
+        String[] values = getValues(user, initialPassword);
 
         String subject = messageSource.getMessage("email.new.user.subject", null, "Welcome to User Service", locale);
-        String textBody = messageSource.getMessage("email.new.user.text", args, "", locale);
-
-        Context ctx = getContext(user, initialPassword, locale);
-        String htmlBody = templateEngine.process("new-user", ctx);
+        String textBody = templateRenderer.renderText("email.new.user.text", locale, values);
+        String htmlBody = templateRenderer.renderHtml(TEMPLATE_NEW_USER, locale, values);
 
         sendViaGmail(user.getUsername(), subject, textBody, htmlBody);
     }
 
     private void sendViaGmail(String to, String subject, String textBody, String htmlBody) {
         try {
-            Session session = Session.getInstance(new Properties());
-            MimeMessage mimeMessage = new MimeMessage(session);
+            MimeMessage mimeMessage = new MimeMessage(MAIL_SESSION);
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, StandardCharsets.UTF_8.name());
 
             helper.setSubject(subject);
@@ -95,14 +92,12 @@ public class EmailServiceImpl implements EmailService {
 
             helper.setText(textBody, htmlBody);
 
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            mimeMessage.writeTo(buffer);
-            String raw = Base64.getUrlEncoder().encodeToString(buffer.toByteArray());
-
-            Message msg = new Message();
-            msg.setRaw(raw);
-
-            gmail.users().messages().send("me", msg).execute();
+            // Upload the raw RFC 822 message as media instead of a base64url "raw" JSON field:
+            // the MIME output is written straight into the request body, without intermediate copies.
+            Gmail.Users.Messages.Send send = gmail.users().messages()
+                    .send("me", null, new MimeMessageContent(mimeMessage));
+            send.getMediaHttpUploader().setDirectUploadEnabled(true);
+            send.execute();
 
             log.info("Email sent to {} (from={}) subject={}", to, effectiveFrom, subject);
         } catch (MessagingException e) {
@@ -113,4 +108,48 @@ public class EmailServiceImpl implements EmailService {
             log.error("Failed to send email to {}: {}", to, e.getMessage(), e);
         }
     }
+
+    /**
+     * Gmail media content that writes the MIME message directly to the HTTP request stream.
+     * Only {@link #getInputStream()} (used by resumable uploads) needs to buffer the message.
+     */
+    private static final class MimeMessageContent extends AbstractInputStreamContent {
+
+        private static final String RFC822_TYPE = "message/rfc822";
+
+        private final MimeMessage mimeMessage;
+
+        private MimeMessageContent(MimeMessage mimeMessage) {
+            super(RFC822_TYPE);
+            this.mimeMessage = mimeMessage;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try {
+                mimeMessage.writeTo(out);
+            } catch (MessagingException e) {
+                throw new IOException("Unable to write MIME message", e);
+            }
+            out.flush();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            writeTo(buffer);
+            return new ByteArrayInputStream(buffer.toByteArray());
+        }
+
+        @Override
+        public long getLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean retrySupported() {
+            // the message is saved on the first write, so it can be written again identically
+            return true;
+        }
+    }
 }
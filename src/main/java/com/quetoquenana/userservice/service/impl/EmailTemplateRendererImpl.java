@@ -0,0 +1,148 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.quetoquenana.userservice.service.EmailTemplateRenderer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.quetoquenana.userservice.util.Constants.Emails.VARIABLES;
+
+/**
+ * Email renderer that pays the Thymeleaf / MessageSource cost once per template and locale.
+ * <p>
+ * The first render of a (template, locale) pair runs the real template with marker values in every
+ * variable, and the output is split around those markers into static fragments. Later renders only
+ * concatenate the fragments with the (escaped) values into a per-thread buffer.
+ * Set {@code app.email.template-cache.enabled=false} to always go through Thymeleaf (e.g. while editing templates).
+ */
+@Service
+@Slf4j
+public class EmailTemplateRendererImpl implements EmailTemplateRenderer {
+
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 32 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    private final SpringTemplateEngine templateEngine;
+    private final MessageSource messageSource;
+    private final boolean cacheEnabled;
+
+    // Random per instance so that a marker can never collide with template or message content
+    private final String markerPrefix = "__slot_" + UUID.randomUUID().toString().replace("-", "") + "_";
+    private static final String MARKER_SUFFIX = "__";
+
+    private final Map<CacheKey, CompiledTemplate> htmlTemplates = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CompiledTemplate> textTemplates = new ConcurrentHashMap<>();
+
+    public EmailTemplateRendererImpl(
+            SpringTemplateEngine templateEngine,
+            MessageSource messageSource,
+            @Value("${app.email.template-cache.enabled:true}") boolean cacheEnabled
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    @Override
+    public String renderHtml(String templateName, Locale locale, String... values) {
+        if (!cacheEnabled) {
+            return templateEngine.process(templateName, getContext(locale, values));
+        }
+        CompiledTemplate compiled = htmlTemplates.computeIfAbsent(new CacheKey(templateName, locale), key -> {
+            log.debug("Compiling email template {} for locale {}", templateName, locale);
+            return compile(templateEngine.process(templateName, getContext(locale, markers())), true);
+        });
+        return compiled.render(values);
+    }
+
+    @Override
+    public String renderText(String messageKey, Locale locale, String... values) {
+        if (!cacheEnabled) {
+            return messageSource.getMessage(messageKey, values, "", locale);
+        }
+        CompiledTemplate compiled = textTemplates.computeIfAbsent(new CacheKey(messageKey, locale), key -> {
+            log.debug("Compiling email text {} for locale {}", messageKey, locale);
+            return compile(messageSource.getMessage(messageKey, markers(), "", locale), false);
+        });
+        return compiled.render(values);
+    }
+
+    private Context getContext(Locale locale, String[] values) {
+        Context ctx = new Context(locale);
+        for (int i = 0; i < VARIABLES.length; i++) {
+            ctx.setVariable(VARIABLES[i], i < values.length ? values[i] : null);
+        }
+        return ctx;
+    }
+
+    private String[] markers() {
+        String[] markers = new String[VARIABLES.length];
+        for (int i = 0; i < markers.length; i++) {
+            markers[i] = markerPrefix + i + MARKER_SUFFIX;
+        }
+        return markers;
+    }
+
+    /**
+     * Splits a rendered output into static fragments around the variable markers.
+     */
+    private CompiledTemplate compile(String rendered, boolean escapeHtml) {
+        List<String> fragments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int from = 0;
+        int start;
+        while ((start = rendered.indexOf(markerPrefix, from)) >= 0) {
+            int indexStart = start + markerPrefix.length();
+            int end = rendered.indexOf(MARKER_SUFFIX, indexStart);
+            fragments.add(rendered.substring(from, start));
+            slots.add(Integer.parseInt(rendered.substring(indexStart, end)));
+            from = end + MARKER_SUFFIX.length();
+        }
+        fragments.add(rendered.substring(from));
+
+        int[] slotArray = slots.stream().mapToInt(Integer::intValue).toArray();
+        return new CompiledTemplate(fragments.toArray(String[]::new), slotArray, escapeHtml);
+    }
+
+    private record CacheKey(String name, Locale locale) {}
+
+    /**
+     * Static fragments interleaved with variable slots: fragments[0] slot[0] fragments[1] ... fragments[n].
+     */
+    private record CompiledTemplate(String[] fragments, int[] slots, boolean escapeHtml) {
+
+        String render(String[] values) {
+            StringBuilder sb = BUFFER.get();
+            sb.setLength(0);
+
+            for (int i = 0; i < slots.length; i++) {
+                sb.append(fragments[i]);
+                int slot = slots[i];
+                String value = slot < values.length && values[slot] != null ? values[slot] : "";
+                // th:text escapes its whole result, so escaping the value alone yields the same markup
+                sb.append(escapeHtml ? HtmlEscape.escapeHtml4Xml(value) : value);
+            }
+            sb.append(fragments[fragments.length - 1]);
+
+            String result = sb.toString();
+            if (sb.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                BUFFER.remove();
+            }
+            return result;
+        }
+    }
+}
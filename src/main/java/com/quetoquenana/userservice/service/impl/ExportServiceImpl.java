@@ -0,0 +1,117 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.quetoquenana.userservice.dto.ExportFormat;
+import com.quetoquenana.userservice.model.Person;
+import com.quetoquenana.userservice.model.User;
+import com.quetoquenana.userservice.repository.PersonRepository;
+import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.ExportService;
+import com.quetoquenana.userservice.util.Csv;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.quetoquenana.userservice.util.Constants.Export.FLUSH_EVERY;
+
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // CSV columns, in the same order and with the same fields as the PersonList / UserList JSON views
+    private static final Map<String, Function<Person, Object>> PERSON_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<User, Object>> USER_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        PERSON_COLUMNS.put("id", Person::getId);
+        PERSON_COLUMNS.put("idNumber", Person::getIdNumber);
+        PERSON_COLUMNS.put("name", Person::getName);
+        PERSON_COLUMNS.put("lastname", Person::getLastname);
+        PERSON_COLUMNS.put("isActive", Person::getIsActive);
+
+        USER_COLUMNS.put("id", User::getId);
+        USER_COLUMNS.put("username", User::getUsername);
+        USER_COLUMNS.put("nickname", User::getNickname);
+        USER_COLUMNS.put("provider", User::getProvider);
+        USER_COLUMNS.put("externalId", User::getExternalId);
+        USER_COLUMNS.put("userStatus", User::getUserStatus);
+    }
+
+    private final PersonRepository personRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportPersons(Boolean isActive, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Person> persons = personRepository.streamByIsActive(isActive)) {
+            write(persons, format, out, Person.PersonList.class, PERSON_COLUMNS);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<User> users = userRepository.streamAll()) {
+            write(users, format, out, User.UserList.class, USER_COLUMNS);
+        }
+    }
+
+    private <T> void write(
+            Stream<T> rows,
+            ExportFormat format,
+            OutputStream out,
+            Class<?> view,
+            Map<String, Function<T, Object>> columns
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writerWithView(view);
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, columns.keySet().stream().map(Object.class::cast).toList());
+        }
+
+        int written = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, columns.values().stream().map(column -> column.apply(row)).toList());
+            } else {
+                writer.write(json.writeValueAsString(row));
+                writer.write('\n');
+            }
+            // keep the persistence context from growing with the table
+            entityManager.detach(row);
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, Iterable<Object> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write(Csv.escapeCell(value));
+            first = false;
+        }
+        writer.write("\r\n");
+    }
+}
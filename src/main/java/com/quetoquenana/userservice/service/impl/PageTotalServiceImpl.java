@@ -0,0 +1,53 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.quetoquenana.userservice.service.PageTotalService;
+import com.quetoquenana.userservice.util.JsonViewPageUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static com.quetoquenana.userservice.util.Constants.Pagination.EXACT_COUNT_THRESHOLD;
+
+@Service
+public class PageTotalServiceImpl implements PageTotalService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> Page<T> withEstimatedTotal(Slice<T> slice, String table, LongSupplier exactCount) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            // last page: the rows seen so far are the total
+            return new JsonViewPageUtil<>(slice.getContent(), slice.getPageable(), seen, false);
+        }
+
+        long estimate = estimateRowCount(table);
+        if (estimate < EXACT_COUNT_THRESHOLD) {
+            return new JsonViewPageUtil<>(slice.getContent(), slice.getPageable(), exactCount.getAsLong(), false);
+        }
+        if (!slice.hasContent()) {
+            // a page past the end says nothing about the total: its offset is only what the client asked for
+            return new JsonViewPageUtil<>(slice.getContent(), slice.getPageable(), estimate, true);
+        }
+        // a stale estimate must still leave room for the next page
+        return new JsonViewPageUtil<>(slice.getContent(), slice.getPageable(), Math.max(estimate, seen + 1), true);
+    }
+
+    /**
+     * @return the planner's estimate, or -1 when the table is unknown or was never analyzed
+     */
+    private long estimateRowCount(String table) {
+        List<?> result = entityManager
+                .createNativeQuery("SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(:table)")
+                .setParameter("table", table)
+                .getResultList();
+        return result.isEmpty() || result.getFirst() == null ? -1 : ((Number) result.getFirst()).longValue();
+    }
+}
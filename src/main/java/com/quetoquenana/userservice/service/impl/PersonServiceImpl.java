@@ -2,12 +2,18 @@ package com.quetoquenana.userservice.service.impl;
 
 import com.quetoquenana.userservice.command.PersonCreateCommand;
 import com.quetoquenana.userservice.dto.PersonCreateRequest;
+import com.quetoquenana.userservice.dto.PersonSummary;
 import com.quetoquenana.userservice.dto.PersonUpdateRequest;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.model.Person;
+import com.quetoquenana.userservice.repository.PersonOverviewJdbcRepository;
 import com.quetoquenana.userservice.repository.PersonRepository;
 import com.quetoquenana.userservice.service.CurrentUserService;
+import com.quetoquenana.userservice.service.PageTotalService;
 import com.quetoquenana.userservice.service.PersonService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
+import com.quetoquenana.userservice.util.UuidV7;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,7 +30,9 @@ import java.util.UUID;
 public class PersonServiceImpl implements PersonService {
 
     private final PersonRepository personRepository;
+    private final PersonOverviewJdbcRepository personOverviewJdbcRepository;
     private final CurrentUserService currentUserService;
+    private final PageTotalService pageTotalService;
 
     @Override
     @Transactional(readOnly = true)
@@ -33,68 +41,75 @@ public class PersonServiceImpl implements PersonService {
     }
 
     @Override
-    public List<Person> findByIsActive(boolean isActive) {
-        return personRepository.findByIsActive(isActive);
+    @Transactional(readOnly = true)
+    public List<PersonSummary> findByIsActive(boolean isActive) {
+        return personRepository.findSummariesByIsActive(isActive);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PersonSummary> findAll(Pageable pageable, boolean exactTotal) {
+        if (exactTotal) {
+            return personRepository.findSummaryPage(pageable);
+        }
+        return pageTotalService.withEstimatedTotal(personRepository.findSummarySlice(pageable), "persons", personRepository::count);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Person> findAll(Pageable pageable) {
-        return personRepository.findAll(pageable);
+    public JsonViewCursorPage<PersonSummary> findAfter(PageCursor after, int size) {
+        return JsonViewCursorPage.of(personRepository.findSummaryKeysetPage(after, size), size,
+                person -> new PageCursor(person.createdAt(), person.id()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Person> findById(UUID id) {
-        return personRepository.findById(id);
+        return personRepository.findDetailById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<Person> findByIdNumber(String idNumber) { return personRepository.findByIdNumber(idNumber);}
+    public Optional<Person> findByIdNumber(String idNumber) { return personRepository.findDetailByIdNumber(idNumber);}
+
+    @Override
+    public Optional<byte[]> findOverviewJson(UUID id) {
+        return personOverviewJdbcRepository.findOverviewJson(id);
+    }
 
     @Override
     @Transactional
     public Person save(PersonCreateRequest request) {
-        String username = currentUserService.getCurrentUsername();
-        return personRepository.findByIdNumber(request.getIdNumber())
-                .map(found -> {
-                    found.setIsActive(true);
-                    found.setUpdatedAt(LocalDateTime.now());
-                    found.setUpdatedBy(username);
-                    return personRepository.save(found);
-                })
-                .orElseGet(() -> {
-                    Person person = Person.fromCreateRequest(request);
-                    person.setCreatedAt(LocalDateTime.now());
-                    person.setCreatedBy(username);
-                    return personRepository.save(person);
-                });
+        Person person = Person.fromCreateRequest(request);
+        person.setId(UuidV7.next());
+        person.setCreatedAt(LocalDateTime.now());
+        person.setCreatedBy(currentUserService.getCurrentUsername());
+        return upsert(person);
     }
 
     @Override
     @Transactional
     public Person save(PersonCreateCommand command) {
-        String username = currentUserService.getCurrentUsername();
-        return personRepository.findByIdNumber(command.getIdNumber())
-            .map(found -> {
-                found.setIsActive(true);
-                found.setUpdatedAt(LocalDateTime.now());
-                found.setUpdatedBy(username);
-                return personRepository.save(found);
-            })
-            .orElseGet(() -> {
-                Person person = Person.fromCreateCommand(command);
-                person.setCreatedAt(LocalDateTime.now());
-                person.setCreatedBy(username);
-                return personRepository.save(person);
-            });
+        Person person = Person.fromCreateCommand(command);
+        person.setId(UuidV7.next());
+        person.setCreatedAt(LocalDateTime.now());
+        person.setCreatedBy(currentUserService.getCurrentUsername());
+        return upsert(person);
+    }
+
+    // creates the person, or reactivates the one already registered with that ID number; an active one is
+    // returned as it is, without bumping its version or audit columns
+    private Person upsert(Person person) {
+        return personRepository.upsertByIdNumber(person)
+                .or(() -> personRepository.findByIdNumber(person.getIdNumber()))
+                .orElseThrow(RecordNotFoundException::new);
     }
 
     @Override
     @Transactional
     public Person update(UUID id, PersonUpdateRequest request) {
-        Person existing = personRepository.findById(id)
+        // the response is a PersonDetail
+        Person existing = personRepository.findDetailById(id)
                 .orElseThrow(RecordNotFoundException::new);
         existing.updateFromRequest(request, currentUserService.getCurrentUsername());
         return personRepository.save(existing);
@@ -102,11 +117,12 @@ public class PersonServiceImpl implements PersonService {
 
     @Override
     @Transactional
-    public void updateStatus(UUID id, boolean status) {
-        Person existing = personRepository.findById(id)
-                .orElseThrow(RecordNotFoundException::new);
-        existing.updateStatus(currentUserService.getCurrentUsername(), status);
-        personRepository.save(existing);
+    public void updateStatus(UUID id, boolean status, Long expectedVersion) {
+        int updated = personRepository.updateActive(
+                id, status, expectedVersion, LocalDateTime.now(), currentUserService.getCurrentUsername());
+        if (updated == 0) {
+            personRepository.checkUnmatchedUpdate(id, expectedVersion);
+        }
     }
 
     @Override
@@ -117,14 +133,7 @@ public class PersonServiceImpl implements PersonService {
 
     @Override
     @Transactional
-    public void deleteById(UUID id) {
-        Person existingPerson = personRepository.findById(id)
-                .orElseThrow(RecordNotFoundException::new);
-        if (existingPerson.getIsActive()) {
-            existingPerson.setIsActive(false);
-            existingPerson.setUpdatedAt(LocalDateTime.now());
-            existingPerson.setUpdatedBy(currentUserService.getCurrentUsername());
-            personRepository.save(existingPerson);
-        }
+    public void deleteById(UUID id, Long expectedVersion) {
+        updateStatus(id, false, expectedVersion);
     }
 }
@@ -1,34 +1,42 @@
 package com.quetoquenana.userservice.service.impl;
 
 import com.quetoquenana.userservice.dto.ChangePasswordRequest;
+import com.quetoquenana.userservice.dto.EmailTask;
 import com.quetoquenana.userservice.dto.UserEmailInfo;
 import com.quetoquenana.userservice.exception.AuthenticationException;
-import com.quetoquenana.userservice.model.Person;
-import com.quetoquenana.userservice.model.Profile;
 import com.quetoquenana.userservice.model.User;
 import com.quetoquenana.userservice.model.UserStatus;
 import com.quetoquenana.userservice.repository.AddressRepository;
 import com.quetoquenana.userservice.repository.PhoneRepository;
 import com.quetoquenana.userservice.repository.ProfileRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
-import com.quetoquenana.userservice.service.EmailService;
+import com.quetoquenana.userservice.service.EmailDispatchService;
 import com.quetoquenana.userservice.service.SecurityService;
 import com.quetoquenana.userservice.util.PasswordUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.quetoquenana.userservice.util.Constants.JWTClaims.KEY_PERSON_ID;
+import static com.quetoquenana.userservice.util.Constants.JWTClaims.KEY_USER_ID;
 
 /**
- * Default implementation of {@link SecurityService} used from method-security SpEL (bean name: "securityService").
+ * Default implementation of {@link SecurityService} used by the {@code @OwnedResource} checks (bean name: "securityService").
  */
 @Service("securityService")
 @RequiredArgsConstructor
@@ -40,8 +48,13 @@ public class SecurityServiceImpl implements SecurityService {
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
-    private final Executor emailExecutor;
+    private final EmailDispatchService emailDispatchService;
+
+    // lower-cased username -> end of its forgot-password window on this node
+    private final Map<String, Instant> forgotPasswordWindows = new ConcurrentHashMap<>();
+
+    @Value("${app.security.forgot-password.window-seconds:300}")
+    private long forgotPasswordWindowSeconds;
 
     @Override
     public void login(Authentication authentication) {
@@ -67,13 +80,53 @@ public class SecurityServiceImpl implements SecurityService {
 
     @Override
     public void forgotPassword(String username) {
+        // Repeated requests for the same user within the window are coalesced into the first one,
+        // so they don't each hash a new password, write the user row and send another email.
+        String key = username.toLowerCase(Locale.ROOT);
+        Instant now = Instant.now();
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        forgotPasswordWindows.compute(key, (k, windowEnd) -> {
+            if (windowEnd != null && windowEnd.isAfter(now)) {
+                return windowEnd;
+            }
+            claimed.set(true);
+            return now.plusSeconds(forgotPasswordWindowSeconds);
+        });
+        if (!claimed.get()) {
+            log.info("ForgotPassword for user {} coalesced with a recent request", username);
+            return;
+        }
+
+        try {
+            resetForgottenPassword(username);
+        } catch (RuntimeException e) {
+            // a failed attempt must not throttle the next one
+            forgotPasswordWindows.remove(key);
+            throw e;
+        }
+    }
+
+    private void resetForgottenPassword(String username) {
         User user = userRepository.findByUsernameIgnoreCase(username)
                 .orElseThrow(AuthenticationException::new);
 
+        // other nodes don't share the in-memory map: the window is also recorded on the user row
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = now.minusSeconds(forgotPasswordWindowSeconds);
+        if (isRecentForgotPassword(user, windowStart)) {
+            log.info("ForgotPassword for user {} already handled at {}", username, user.getResetRequestedAt());
+            return;
+        }
+
         String plain = PasswordUtil.generateRandomPassword();
         String passwordHash = passwordEncoder.encode(plain);
-        user.updateStatus(UserStatus.RESET, passwordHash, username);
-        userRepository.save(user);
+        // the check above only saves the hashing; this conditional UPDATE is what lets exactly one request through
+        int updated = userRepository.resetPasswordUnlessRecentlyRequested(
+                user.getUsername(), passwordHash, UserStatus.RESET, windowStart, now);
+        if (updated == 0) {
+            log.info("ForgotPassword for user {} lost to a concurrent request", username);
+            return;
+        }
 
         // capture Locale and lightweight DTO inside the request thread to avoid ThreadLocal loss and lazy-loading
         Locale locale = LocaleContextHolder.getLocale();
@@ -82,79 +135,87 @@ public class SecurityServiceImpl implements SecurityService {
                 .personLastname(user.getPerson().getLastname())
                 .username(user.getUsername())
                 .build();
-        CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendPasswordEmail(emailInfo, plain, locale);
-            } catch (Exception e) {
-                log.error("Error sending password reset email to {}", username, e);
-            }
-        }, emailExecutor);
+        emailDispatchService.dispatch(new EmailTask(EmailTask.Type.PASSWORD_RESET, emailInfo, plain, locale));
+    }
+
+    private static boolean isRecentForgotPassword(User user, LocalDateTime windowStart) {
+        return user.getUserStatus() == UserStatus.RESET
+                && user.getResetRequestedAt() != null
+                && user.getResetRequestedAt().isAfter(windowStart);
     }
 
+    /**
+     * Drops expired forgot-password windows so the map only holds recent requests.
+     */
+    @Scheduled(fixedDelayString = "${app.security.forgot-password.purge-interval-ms:60000}")
+    public void purgeForgotPasswordWindows() {
+        Instant now = Instant.now();
+        forgotPasswordWindows.values().removeIf(windowEnd -> !windowEnd.isAfter(now));
+    }
+
+    // Ownership checks: user/person/profile ids are read from the token claims when present; everything
+    // else (and tokens without those claims) runs one existence query joining the resource to the username
+
     @Override
     public boolean canAccessIdNumber(Authentication authentication, String idNumber) {
-        if (authentication == null || authentication.getName() == null) return false;
-        return userRepository.findByUsernameIgnoreCase(authentication.getName())
-                .map(u -> u.getPerson() != null && idNumber != null && idNumber.equals(u.getPerson().getIdNumber()))
-                .orElse(false);
+        if (authentication == null || authentication.getName() == null || idNumber == null) return false;
+        return userRepository.existsByPersonIdNumberAndUsername(idNumber, authentication.getName());
     }
 
     @Override
     public boolean canAccessIdProfile(Authentication authentication, UUID idProfile) {
-        if (authentication == null || authentication.getName() == null || idProfile == null) return false;
-
-        return userRepository.findByUsernameIgnoreCase(authentication.getName())
-                .map(User::getPerson)
-                .filter(person -> person.getId() != null)
-                .flatMap(person -> profileRepository.findByPersonId(person.getId()))
-                .map(Profile::getId)
-                .map(id -> id.equals(idProfile))
-                .orElse(false);
+        if (!paramsValidation(authentication, idProfile)) return false;
+        // a profile shares its person's id
+        return uuidClaim(authentication, KEY_PERSON_ID)
+                .map(idProfile::equals)
+                .orElseGet(() -> profileRepository.existsByIdAndOwnerUsername(idProfile, authentication.getName()));
     }
 
     @Override
     public boolean canAccessIdPerson(Authentication authentication, UUID idPerson) {
-        if (authentication == null || authentication.getName() == null || idPerson == null) return false;
-
-        return userRepository.findByUsernameIgnoreCase(authentication.getName())
-                .map(User::getPerson)
-                .map(Person::getId)
+        if (!paramsValidation(authentication, idPerson)) return false;
+        return uuidClaim(authentication, KEY_PERSON_ID)
                 .map(idPerson::equals)
-                .orElse(false);
+                .orElseGet(() -> userRepository.existsByPersonIdAndUsername(idPerson, authentication.getName()));
     }
 
     @Override
     public boolean canAccessIdAddress(Authentication authentication, UUID idAddress) {
         if (!paramsValidation(authentication, idAddress)) return false;
-
-        return userRepository.findByUsernameIgnoreCase(authentication.getName())
-                .map(User::getPerson)
-                .filter(person -> person.getId() != null)
-                .map(person -> addressRepository.findByPersonId(person.getId())
-                        .stream()
-                        .anyMatch(address -> address.getId().equals(idAddress)))
-                .orElse(false);
+        return addressRepository.existsByIdAndOwnerUsername(idAddress, authentication.getName());
     }
 
     @Override
     public boolean canAccessIdPhone(Authentication authentication, UUID idPhone) {
         if (!paramsValidation(authentication, idPhone)) return false;
-
-        return userRepository.findByUsernameIgnoreCase(authentication.getName())
-                .map(User::getPerson)
-                .filter(person -> person.getId() != null)
-                .map(person -> phoneRepository.findByPersonId(person.getId())
-                        .stream()
-                        .anyMatch(phone -> phone.getId().equals(idPhone)))
-                .orElse(false);
+        return phoneRepository.existsByIdAndOwnerUsername(idPhone, authentication.getName());
     }
 
     @Override
     public boolean canAccessIdUser(Authentication authentication, UUID idUser) {
         if (!paramsValidation(authentication, idUser)) return false;
+        return uuidClaim(authentication, KEY_USER_ID)
+                .map(idUser::equals)
+                .orElseGet(() -> userRepository.existsByIdAndUsername(idUser, authentication.getName()));
+    }
 
-        Optional<User> userOpt = userRepository.findByUsernameIgnoreCase(authentication.getName());
-        return userOpt.map(user -> user.getId().equals(idUser)).orElse(false);
+    /**
+     * Reads a UUID claim from a validated JWT principal; empty for other authentication types,
+     * or tokens issued before the claim existed.
+     */
+    private static Optional<UUID> uuidClaim(Authentication authentication, String claim) {
+        if (!(authentication.getPrincipal() instanceof Jwt jwt)) {
+            return Optional.empty();
+        }
+        String value = jwt.getClaimAsString(claim);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     private boolean paramsValidation(Authentication authentication, UUID id) {
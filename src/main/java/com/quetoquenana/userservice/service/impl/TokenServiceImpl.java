@@ -6,12 +6,15 @@ import com.quetoquenana.userservice.model.RefreshToken;
 import com.quetoquenana.userservice.model.User;
 import com.quetoquenana.userservice.model.UserStatus;
 import com.quetoquenana.userservice.repository.RefreshTokenRepository;
+import com.quetoquenana.userservice.service.AppPermissionService;
+import com.quetoquenana.userservice.service.AppRoleHierarchyService;
 import com.quetoquenana.userservice.service.TokenService;
 import com.quetoquenana.userservice.service.UserService;
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.jwt.*;
@@ -21,6 +24,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -35,6 +39,8 @@ public class TokenServiceImpl implements TokenService {
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final AppRoleHierarchyService appRoleHierarchyService;
+    private final AppPermissionService appPermissionService;
     private final long accessTokenSeconds;
     private final long refreshTokenSeconds;
     private final String issuer;
@@ -43,6 +49,8 @@ public class TokenServiceImpl implements TokenService {
                             JwtEncoder jwtEncoder,
                             JwtDecoder jwtDecoder,
                             RefreshTokenRepository refreshTokenRepository,
+                            AppRoleHierarchyService appRoleHierarchyService,
+                            AppPermissionService appPermissionService,
                             @Value("${security.jwt.access-token-seconds:604800}") long accessTokenSeconds,
                             @Value("${security.jwt.refresh-token-seconds:604800}") long refreshTokenSeconds,
                             @Value("${security.jwt.issuer}") String issuer) {
@@ -51,6 +59,8 @@ public class TokenServiceImpl implements TokenService {
         this.jwtEncoder = jwtEncoder;
         this.jwtDecoder = jwtDecoder;
         this.refreshTokenRepository = refreshTokenRepository;
+        this.appRoleHierarchyService = appRoleHierarchyService;
+        this.appPermissionService = appPermissionService;
         this.accessTokenSeconds = accessTokenSeconds;
         this.refreshTokenSeconds = refreshTokenSeconds;
         this.issuer = issuer;
@@ -61,7 +71,7 @@ public class TokenServiceImpl implements TokenService {
         User user = userService.findByUsername(authentication.getName())
                 .orElseThrow(() -> new AuthenticationException("error.authentication"));
 
-        return getTokenResponse(user, appCode, getRoles(authentication.getAuthorities()));
+        return getTokenResponse(user, appCode, getRoles(appCode, authentication.getAuthorities()));
     }
 
     @Override
@@ -90,7 +100,7 @@ public class TokenServiceImpl implements TokenService {
         }
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
 
-        return getTokenResponse(user, appCode, getRoles(userDetails.getAuthorities()));
+        return getTokenResponse(user, appCode, getRoles(appCode, userDetails.getAuthorities()));
     }
 
     @Override
@@ -99,16 +109,17 @@ public class TokenServiceImpl implements TokenService {
                 .orElseThrow(() -> new AuthenticationException("error.authentication"));
         // Load roles for user via UserDetailsService
         UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        List<String> roles = getRoles(userDetails.getAuthorities());
+        List<String> roles = getRoles(appCode, userDetails.getAuthorities());
 
         // Build tokens using audience set to the provided applicationName if present, otherwise fall back to configured audience list
         Instant now = Instant.now();
         List<String> audienceList = List.of(appCode);
+        String permissions = appPermissionService.encodePermissions(appCode, roles);
 
-        JwtClaimsSet claims = buildCommonClaims(now, user, TYPE_AUTH, accessTokenSeconds, audienceList, roles);
+        JwtClaimsSet claims = buildCommonClaims(now, user, TYPE_AUTH, accessTokenSeconds, audienceList, roles, permissions);
         String accessToken = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
 
-        JwtClaimsSet refreshClaims = buildCommonClaims(now, user, TYPE_REFRESH, refreshTokenSeconds, audienceList, roles);
+        JwtClaimsSet refreshClaims = buildCommonClaims(now, user, TYPE_REFRESH, refreshTokenSeconds, audienceList, roles, permissions);
         String newRefreshToken = jwtEncoder.encode(JwtEncoderParameters.from(refreshClaims)).getTokenValue();
 
         // persist refresh token
@@ -129,17 +140,30 @@ public class TokenServiceImpl implements TokenService {
     private TokenResponse getTokenResponse(User user, String appCode, List<String> roles) {
         Instant now = Instant.now();
         List<String> audienceList = List.of(appCode);
+        String permissions = appPermissionService.encodePermissions(appCode, roles);
 
-        JwtClaimsSet claims = buildCommonClaims(now, user, TYPE_AUTH, accessTokenSeconds, audienceList, roles);
+        JwtClaimsSet claims = buildCommonClaims(now, user, TYPE_AUTH, accessTokenSeconds, audienceList, roles, permissions);
         String accessToken = jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
 
-        JwtClaimsSet refreshClaims = buildCommonClaims(now, user, TYPE_REFRESH, refreshTokenSeconds, audienceList, roles);
+        JwtClaimsSet refreshClaims = buildCommonClaims(now, user, TYPE_REFRESH, refreshTokenSeconds, audienceList, roles, permissions);
         String newRefreshToken = jwtEncoder.encode(JwtEncoderParameters.from(refreshClaims)).getTokenValue();
 
         return new TokenResponse(accessToken, newRefreshToken, accessTokenSeconds);
     }
 
 
+    /**
+     * Roles of the token: the granted roles expanded with the application's role hierarchy.
+     */
+    private List<String> getRoles(String appCode, Collection<? extends GrantedAuthority> authorities) {
+        List<GrantedAuthority> prefixed = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(a -> a.startsWith(ROLE_SUFFIX) ? a : ROLE_SUFFIX + a)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return getRoles(appRoleHierarchyService.getRoleHierarchy(appCode).getReachableGrantedAuthorities(prefixed));
+    }
+
     private static List<String> getRoles(Collection<? extends GrantedAuthority> authorities) {
         // Roles normalization
         return authorities.stream()
@@ -154,7 +178,8 @@ public class TokenServiceImpl implements TokenService {
             String type,
             long tokenSeconds,
             List<String> audienceList,
-            List<String> roles
+            List<String> roles,
+            String permissions
     ) {
 
         return JwtClaimsSet.builder()
@@ -169,6 +194,16 @@ public class TokenServiceImpl implements TokenService {
                 .claim(KEY_ROLES, roles)
                 .claim(KEY_TYPE, type)
                 .claim(KEY_USER_ID, user.getId().toString())
+                // lets ownership checks on the user's own person/profile run without a DB lookup
+                .claims(c -> {
+                    if (user.getPerson() != null) {
+                        c.put(KEY_PERSON_ID, user.getPerson().getId().toString());
+                    }
+                    // one bitmask per audience; permission checks are a single bit test against it
+                    if (permissions != null) {
+                        c.put(KEY_PERMISSIONS, Map.of(audienceList.getFirst(), permissions));
+                    }
+                })
                 .build();
     }
 
@@ -0,0 +1,343 @@
+package com.quetoquenana.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quetoquenana.userservice.dto.*;
+import com.quetoquenana.userservice.exception.RecordNotFoundException;
+import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.repository.PersonRepository.PersonKey;
+import com.quetoquenana.userservice.repository.UserImportJdbcRepository.AppRoleUserInsert;
+import com.quetoquenana.userservice.repository.UserImportJdbcRepository.PersonInsert;
+import com.quetoquenana.userservice.repository.UserImportJdbcRepository.UserInsert;
+import com.quetoquenana.userservice.repository.UserRepository.UserKey;
+import com.quetoquenana.userservice.service.CurrentUserService;
+import com.quetoquenana.userservice.service.EmailDispatchService;
+import com.quetoquenana.userservice.service.UserImportService;
+import com.quetoquenana.userservice.util.Csv;
+import com.quetoquenana.userservice.util.PasswordUtil;
+import com.quetoquenana.userservice.util.UuidV7;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.quetoquenana.userservice.util.Constants.Import.CHUNK_SIZE;
+
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("username", "idNumber", "name", "lastname", "nickname");
+
+    private final ApplicationRepository applicationRepository;
+    private final AppRoleRepository appRoleRepository;
+    private final PersonRepository personRepository;
+    private final UserRepository userRepository;
+    private final AppRoleUserRepository appRoleUserRepository;
+    private final UserImportJdbcRepository userImportJdbcRepository;
+    private final CurrentUserService currentUserService;
+    private final PasswordEncoder passwordEncoder;
+    private final EmailDispatchService emailDispatchService;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor passwordHashExecutor;
+
+    public UserImportServiceImpl(
+            ApplicationRepository applicationRepository,
+            AppRoleRepository appRoleRepository,
+            PersonRepository personRepository,
+            UserRepository userRepository,
+            AppRoleUserRepository appRoleUserRepository,
+            UserImportJdbcRepository userImportJdbcRepository,
+            CurrentUserService currentUserService,
+            PasswordEncoder passwordEncoder,
+            EmailDispatchService emailDispatchService,
+            Validator validator,
+            MessageSource messageSource,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("passwordHashExecutor") Executor passwordHashExecutor
+    ) {
+        this.applicationRepository = applicationRepository;
+        this.appRoleRepository = appRoleRepository;
+        this.personRepository = personRepository;
+        this.userRepository = userRepository;
+        this.appRoleUserRepository = appRoleUserRepository;
+        this.userImportJdbcRepository = userImportJdbcRepository;
+        this.currentUserService = currentUserService;
+        this.passwordEncoder = passwordEncoder;
+        this.emailDispatchService = emailDispatchService;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    // what every chunk of one import shares; captured on the request thread
+    private record ImportContext(UUID applicationId, UUID roleId, String username, Locale locale) {}
+
+    private record PendingRow(int row, UserImportRow data) {}
+
+    @FunctionalInterface
+    private interface RowReader {
+        /**
+         * @return the next row, or null at end of input
+         * @throws IllegalArgumentException when only this row is unreadable
+         * @throws IOException when the rest of the input is unreadable
+         */
+        UserImportRow next() throws IOException;
+    }
+
+    @Override
+    public UserImportResponse importUsers(UUID applicationId, String roleName, ExportFormat format, InputStream in) throws IOException {
+        applicationRepository.findById(applicationId)
+                .orElseThrow(RecordNotFoundException::new);
+        AppRole role = appRoleRepository.findByApplicationIdAndRoleName(applicationId, roleName)
+                .orElseThrow(RecordNotFoundException::new);
+        ImportContext context = new ImportContext(
+                applicationId, role.getId(), currentUserService.getCurrentUsername(), LocaleContextHolder.getLocale());
+
+        List<UserImportResult> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Set<String> seenUsernames = new HashSet<>();
+        RowReader reader = format == ExportFormat.CSV ? csvReader(in) : jsonReader(in);
+
+        int row = 0;
+        while (true) {
+            UserImportRow data;
+            row++;
+            try {
+                data = reader.next();
+            } catch (IllegalArgumentException e) {
+                results.add(result(row, null, UserImportResult.Status.FAILED, "import.row.malformed", context));
+                continue;
+            } catch (IOException e) {
+                log.warn("Stopping user import at row {}: {}", row, e.getMessage());
+                results.add(result(row, null, UserImportResult.Status.FAILED, "import.input.malformed", context));
+                break;
+            }
+            if (data == null) {
+                break;
+            }
+
+            Set<ConstraintViolation<UserImportRow>> violations = validator.validate(data);
+            if (!violations.isEmpty()) {
+                results.add(new UserImportResult(row, data.getUsername(), UserImportResult.Status.FAILED, describe(violations)));
+            } else if (!seenUsernames.add(data.getUsername().toLowerCase(Locale.ROOT))) {
+                results.add(result(row, data.getUsername(), UserImportResult.Status.SKIPPED, "import.username.repeated", context));
+            } else {
+                chunk.add(new PendingRow(row, data));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(importChunk(chunk, context));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, context));
+        }
+
+        results.sort(Comparator.comparingInt(UserImportResult::getRow));
+        UserImportResponse response = new UserImportResponse(results);
+        log.info("Imported users into application {} with role {}: {}", applicationId, roleName, response.getTotals());
+        return response;
+    }
+
+    private List<UserImportResult> importChunk(List<PendingRow> chunk, ImportContext context) {
+        // 1. resolve the whole chunk against the database with IN queries
+        Map<String, UUID> existingUsers = new HashMap<>();
+        List<String> usernames = chunk.stream().map(p -> p.data().getUsername().toLowerCase(Locale.ROOT)).toList();
+        for (UserKey key : userRepository.findKeysByLowerUsernameIn(usernames)) {
+            existingUsers.put(key.getUsername(), key.getId());
+        }
+        Set<UUID> usersInApplication = existingUsers.isEmpty()
+                ? Set.of()
+                : appRoleUserRepository.findUserIdsInApplication(context.applicationId(), existingUsers.values());
+        Map<String, PersonKey> existingPersons = new HashMap<>();
+        List<String> idNumbers = chunk.stream()
+                .filter(p -> !existingUsers.containsKey(p.data().getUsername().toLowerCase(Locale.ROOT)))
+                .map(p -> p.data().getIdNumber())
+                .distinct()
+                .toList();
+        if (!idNumbers.isEmpty()) {
+            for (PersonKey key : personRepository.findKeysByIdNumberIn(idNumbers)) {
+                existingPersons.put(key.getIdNumber(), key);
+            }
+        }
+
+        // 2. plan the writes; new users get their password hashed on the hash executor meanwhile
+        List<UserImportResult> results = new ArrayList<>(chunk.size());
+        List<PendingRow> written = new ArrayList<>();
+        Map<String, PersonInsert> newPersons = new LinkedHashMap<>();
+        Set<UUID> reactivatedPersons = new LinkedHashSet<>();
+        List<AppRoleUserInsert> mappings = new ArrayList<>();
+        List<PendingRow> created = new ArrayList<>();
+        List<UUID> createdIds = new ArrayList<>();
+        List<UUID> createdPersonIds = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+
+        for (PendingRow pending : chunk) {
+            UserImportRow data = pending.data();
+            UUID userId = existingUsers.get(data.getUsername().toLowerCase(Locale.ROOT));
+            if (userId != null && usersInApplication.contains(userId)) {
+                results.add(result(pending.row(), data.getUsername(), UserImportResult.Status.SKIPPED,
+                        "application.role.user.duplicate", context));
+                continue;
+            }
+            if (userId == null) {
+                UUID personId;
+                PersonKey person = existingPersons.get(data.getIdNumber());
+                if (person != null) {
+                    personId = person.getId();
+                    if (!Boolean.TRUE.equals(person.getIsActive())) {
+                        reactivatedPersons.add(personId);
+                    }
+                } else {
+                    personId = newPersons.computeIfAbsent(data.getIdNumber(), idNumber ->
+                            new PersonInsert(UuidV7.next(), idNumber, data.getName(), data.getLastname())).id();
+                }
+                userId = UuidV7.next();
+                String plain = PasswordUtil.generateRandomPassword();
+                created.add(pending);
+                createdIds.add(userId);
+                createdPersonIds.add(personId);
+                passwords.add(plain);
+                hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(plain), passwordHashExecutor));
+            }
+            mappings.add(new AppRoleUserInsert(UuidV7.next(), userId, context.roleId()));
+            written.add(pending);
+        }
+
+        List<UserInsert> users = new ArrayList<>(created.size());
+        for (int i = 0; i < created.size(); i++) {
+            UserImportRow data = created.get(i).data();
+            users.add(new UserInsert(createdIds.get(i), createdPersonIds.get(i), data.getUsername(),
+                    hashes.get(i).join(), data.getNickname()));
+        }
+
+        // 3. write the chunk in one transaction, three tables in JDBC batches
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userImportJdbcRepository.insertPersons(new ArrayList<>(newPersons.values()), now, context.username());
+                userImportJdbcRepository.reactivatePersons(reactivatedPersons, now, context.username());
+                userImportJdbcRepository.insertUsers(users, now, context.username());
+                userImportJdbcRepository.insertAppRoleUsers(mappings, now, context.username());
+            });
+        } catch (DataAccessException e) {
+            // typically a concurrent insert of the same username / ID number; the import can be re-run as is
+            log.warn("User import chunk of {} row(s) rolled back: {}", written.size(), e.getMostSpecificCause().getMessage());
+            for (PendingRow pending : written) {
+                results.add(result(pending.row(), pending.data().getUsername(), UserImportResult.Status.FAILED,
+                        "import.chunk.conflict", context));
+            }
+            return results;
+        }
+
+        // 4. committed: report and send the welcome emails
+        Set<PendingRow> createdRows = new HashSet<>(created);
+        for (PendingRow pending : written) {
+            UserImportResult.Status status = createdRows.contains(pending)
+                    ? UserImportResult.Status.CREATED
+                    : UserImportResult.Status.LINKED;
+            results.add(new UserImportResult(pending.row(), pending.data().getUsername(), status, null));
+        }
+        for (int i = 0; i < created.size(); i++) {
+            UserImportRow data = created.get(i).data();
+            UserEmailInfo emailInfo = UserEmailInfo.builder()
+                    .personLastname(data.getLastname())
+                    .personName(data.getName())
+                    .username(data.getUsername())
+                    .build();
+            emailDispatchService.dispatch(new EmailTask(EmailTask.Type.NEW_USER, emailInfo, passwords.get(i), context.locale()));
+        }
+        return results;
+    }
+
+    private RowReader jsonReader(InputStream in) throws IOException {
+        // a top-level array is unwrapped, so both [ {...}, {...} ] and newline-delimited objects stream row by row
+        MappingIterator<UserImportRow> rows = objectMapper.readerFor(UserImportRow.class).readValues(in);
+        return () -> rows.hasNextValue() ? rows.nextValue() : null;
+    }
+
+    private RowReader csvReader(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = Csv.readRecord(reader);
+        if (header == null) {
+            return () -> null;
+        }
+        int[] positions = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            positions[i] = indexOfIgnoreCase(header, CSV_COLUMNS.get(i));
+        }
+        return () -> {
+            List<String> record = Csv.readRecord(reader);
+            while (record != null && record.size() == 1 && record.getFirst().isBlank()) {
+                record = Csv.readRecord(reader); // skip empty lines
+            }
+            if (record == null) {
+                return null;
+            }
+            if (record.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields, got " + record.size());
+            }
+            return new UserImportRow(
+                    field(record, positions[0]),
+                    field(record, positions[1]),
+                    field(record, positions[2]),
+                    field(record, positions[3]),
+                    field(record, positions[4])
+            );
+        };
+    }
+
+    private static int indexOfIgnoreCase(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> record, int position) {
+        if (position < 0) {
+            return null;
+        }
+        String value = record.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String describe(Set<ConstraintViolation<UserImportRow>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .reduce((a, b) -> a + "; " + b)
+                .orElse(null);
+    }
+
+    private UserImportResult result(int row, String username, UserImportResult.Status status, String messageKey, ImportContext context) {
+        return new UserImportResult(row, username, status, messageSource.getMessage(messageKey, null, messageKey, context.locale()));
+    }
+}
@@ -2,8 +2,10 @@ package com.quetoquenana.userservice.service.impl;
 
 import com.quetoquenana.userservice.command.CreateUserCommand;
 import com.quetoquenana.userservice.command.PersonCreateCommand;
+import com.quetoquenana.userservice.dto.EmailTask;
 import com.quetoquenana.userservice.dto.UserCreateRequest;
 import com.quetoquenana.userservice.dto.UserEmailInfo;
+import com.quetoquenana.userservice.dto.UserSummary;
 import com.quetoquenana.userservice.dto.UserUpdateRequest;
 import com.quetoquenana.userservice.exception.AuthenticationException;
 import com.quetoquenana.userservice.exception.DuplicateRecordException;
@@ -12,10 +14,14 @@ import com.quetoquenana.userservice.model.*;
 import com.quetoquenana.userservice.repository.AppRoleUserRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
 import com.quetoquenana.userservice.service.CurrentUserService;
-import com.quetoquenana.userservice.service.EmailService;
+import com.quetoquenana.userservice.service.EmailDispatchService;
+import com.quetoquenana.userservice.service.PageTotalService;
 import com.quetoquenana.userservice.service.PersonService;
 import com.quetoquenana.userservice.service.UserService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
 import com.quetoquenana.userservice.util.PasswordUtil;
+import com.quetoquenana.userservice.util.UuidV7;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -33,8 +39,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 
 
 @Service
@@ -47,41 +51,63 @@ public class UserServiceImpl implements UserService {
     private final PersonService personService;
     private final CurrentUserService currentUserService;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
-    private final Executor emailExecutor;
+    private final EmailDispatchService emailDispatchService;
+    private final PageTotalService pageTotalService;
 
 
     @Transactional
     @Override
     public User save(UserCreateRequest request) {
-        // Check username uniqueness (case-insensitive)
-        if (userRepository.existsByUsernameIgnoreCase(request.getUsername())) {
-            throw new DuplicateRecordException("user.username.duplicate");
-        }
+        return insert(request)
+                .orElseThrow(() -> new DuplicateRecordException("user.username.duplicate"));
+    }
 
-        // Create or get person
-        Person person = personService.findByIdNumber(request.getPerson().getIdNumber())
-                .map(found -> {
-                    // Ensure person is active
-                    if (!found.getIsActive()) {
-                        found.setIsActive(true);
-                        personService.updateStatus(found.getId(), true);
-                    }
-                    return found;
-                })
-                .orElseGet(() ->
-                        personService.save(request.getPerson())
-                );
+    @Transactional
+    @Override
+    public User findOrCreate(UserCreateRequest request) {
+        return insert(request)
+                .or(() -> userRepository.findByUsernameIgnoreCase(request.getUsername()))
+                .orElseThrow(RecordNotFoundException::new);
+    }
+
+    @Transactional
+    @Override
+    public User save(CreateUserCommand command) {
+        return insert(command)
+                .orElseThrow(() -> new DuplicateRecordException("user.username.duplicate"));
+    }
+
+    @Transactional
+    @Override
+    public User findOrCreate(CreateUserCommand command) {
+        return insert(command)
+                .or(() -> userRepository.findByUsernameIgnoreCase(command.getEmail()))
+                .orElseThrow(RecordNotFoundException::new);
+    }
+
+    /**
+     * Inserts the user unless the username is taken (case-insensitive), in one statement that waits for a
+     * concurrent insert of the same username and then yields to it. The new-user email is only sent for a row
+     * inserted here. The person upsert runs first: save rolls it back with the duplicate error, findOrCreate
+     * keeps it (a person may exist without a user).
+     *
+     * @return the new user; empty when the username is taken
+     */
+    private Optional<User> insert(UserCreateRequest request) {
+        // Create the person, or reactivate the one with that ID number (single upsert)
+        Person person = personService.save(request.getPerson());
 
         String plain = PasswordUtil.generateRandomPassword();
-        User user = User.fromCreateRequest(
-                request, passwordEncoder.encode(plain), UserStatus.RESET, personService.getById(person.getId())
-        );
+        User user = User.fromCreateRequest(request, passwordEncoder.encode(plain), UserStatus.RESET, person);
 
+        user.setId(UuidV7.next());
         user.setCreatedAt(LocalDateTime.now());
         user.setCreatedBy(currentUserService.getCurrentUsername());
 
-        userRepository.save(user);
+        Optional<User> inserted = userRepository.insertIfUsernameFree(user);
+        if (inserted.isEmpty()) {
+            return inserted;
+        }
 
         // capture locale here (request thread) so it's preserved for the async task
         Locale locale = LocaleContextHolder.getLocale();
@@ -102,35 +128,16 @@ public class UserServiceImpl implements UserService {
             sendNewUserEmailAsync(emailInfo, plain, locale);
         }
 
-        return user;
+        return inserted;
     }
 
-    @Transactional
-    @Override
-    public User save(CreateUserCommand command) {
-        // Check username uniqueness (case-insensitive)
-        if (userRepository.existsByUsernameIgnoreCase(command.getEmail())) {
-            throw new DuplicateRecordException("user.username.duplicate");
-        }
-
-        // Create or get person
-        Person person = personService.findByIdNumber(command.getIdNumber())
-            .map(found -> {
-                // Ensure person is active
-                if (!found.getIsActive()) {
-                    found.setIsActive(true);
-                    personService.updateStatus(found.getId(), true);
-                }
-                return found;
-            })
-            .orElseGet(() ->
-                personService.save(PersonCreateCommand.builder()
-                    .name(command.getName())
-                    .lastname(command.getLastname())
-                    .idNumber(command.getIdNumber())
-                    .build())
-            );
-
+    private Optional<User> insert(CreateUserCommand command) {
+        // Create the person, or reactivate the one with that ID number (single upsert)
+        Person person = personService.save(PersonCreateCommand.builder()
+                .name(command.getName())
+                .lastname(command.getLastname())
+                .idNumber(command.getIdNumber())
+                .build());
 
         String plain = null;
         switch(command.getProvider()) {
@@ -142,19 +149,23 @@ public class UserServiceImpl implements UserService {
                 command,
                 passwordEncoder.encode(plain),
                 UserStatus.RESET,
-                personService.getById(person.getId())
+                person
             );
 
+        user.setId(UuidV7.next());
         user.setCreatedAt(LocalDateTime.now());
         user.setCreatedBy(currentUserService.getCurrentUsername());
 
-        userRepository.save(user);
+        Optional<User> inserted = userRepository.insertIfUsernameFree(user);
+        if (inserted.isEmpty()) {
+            return inserted;
+        }
 
         switch(command.getProvider()) {
             case GOOGLE, PASSWORD -> {}
             case LOCAL_EMAIL -> sendNewUserEmailAsync(person, command.getEmail(), plain);
         }
-        return user;
+        return inserted;
     }
 
     private void sendNewUserEmailAsync(Person person , String email, String plain) {
@@ -217,7 +228,8 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public User update(UUID id, UserUpdateRequest request) {
-        User existing = userRepository.findById(id)
+        // the response is a UserDetail
+        User existing = userRepository.findDetailById(id)
                 .orElseThrow(RecordNotFoundException::new);
 
         existing.updateFromRequest(request, currentUserService.getCurrentUsername());
@@ -227,11 +239,12 @@ public class UserServiceImpl implements UserService {
 
     @Transactional
     @Override
-    public void delete(UUID id) {
-        User existing = userRepository.findById(id)
-                .orElseThrow(RecordNotFoundException::new);
-        existing.updateStatus(UserStatus.INACTIVE, currentUserService.getCurrentUsername());
-        userRepository.save(existing);
+    public void delete(UUID id, Long expectedVersion) {
+        int updated = userRepository.updateStatus(
+                id, UserStatus.INACTIVE, expectedVersion, LocalDateTime.now(), currentUserService.getCurrentUsername());
+        if (updated == 0) {
+            userRepository.checkUnmatchedUpdate(id, expectedVersion);
+        }
     }
 
     @Transactional
@@ -246,7 +259,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<User> findById(UUID id) {
-        return userRepository.findById(id);
+        return userRepository.findDetailById(id);
     }
 
     @Override
@@ -256,12 +269,23 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<AppRoleUser> findAllAppRoleByApplicationId(UUID idUser, UUID idApplication) {
-        return appRoleUserRepository.findByUserIdAndRoleApplicationId(idUser, idApplication);
+        return appRoleUserRepository.findDetailByUserIdAndRoleApplicationId(idUser, idApplication);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findAll(Pageable pageable, boolean exactTotal) {
+        if (exactTotal) {
+            return userRepository.findSummaryPage(pageable);
+        }
+        return pageTotalService.withEstimatedTotal(userRepository.findSummarySlice(pageable), "users", userRepository::count);
     }
 
     @Override
-    public Page<User> findAll(Pageable pageable) {
-        return userRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public JsonViewCursorPage<UserSummary> findAfter(PageCursor after, int size) {
+        return JsonViewCursorPage.of(userRepository.findSummaryKeysetPage(after, size), size,
+                user -> new PageCursor(user.createdAt(), user.id()));
     }
 
     @Override
@@ -271,23 +295,11 @@ public class UserServiceImpl implements UserService {
 
     // --- async email helpers ---
     private void sendNewUserEmailAsync(UserEmailInfo user, String plain, Locale locale) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendNewUserEmail(user, plain, locale);
-            } catch (Exception e) {
-                log.error("Error sending new user email to {}", user.getUsername(), e);
-            }
-        }, emailExecutor);
+        emailDispatchService.dispatch(new EmailTask(EmailTask.Type.NEW_USER, user, plain, locale));
     }
 
     private void sendPasswordEmailAsync(UserEmailInfo user, String plain, Locale locale) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendPasswordEmail(user, plain, locale);
-            } catch (Exception e) {
-                log.error("Error sending password reset email to {}", user.getUsername(), e);
-            }
-        }, emailExecutor);
+        emailDispatchService.dispatch(new EmailTask(EmailTask.Type.PASSWORD_RESET, user, plain, locale));
     }
 }
 
@@ -10,6 +10,9 @@ public class Constants {
         public static final String KEY_ROLES = "roles";
         public static final String KEY_TYPE = "type";
         public static final String KEY_USER_ID = "userId";
+        public static final String KEY_PERSON_ID = "personId";
+        // application name -> base64url permission bitmask (see PermissionBits)
+        public static final String KEY_PERMISSIONS = "perms";
 
         public static final String KEY_SUB = "sub";
 
@@ -28,6 +31,25 @@ public class Constants {
         public static final String TEMPLATES_PATH = "templates/email/";
         public static final String SUFFIX = ".html";
         public static final String TEMPLATE_MODE = "HTML";
+
+        public static final String TEMPLATE_NEW_USER = "new-user";
+        public static final String TEMPLATE_PASSWORD_RESET = "password-reset";
+
+        // Template variables, in the same order as the {0}..{4} arguments of the email.*.text messages
+        public static final String VAR_NAME = "name";
+        public static final String VAR_LASTNAME = "lastname";
+        public static final String VAR_USERNAME = "username";
+        public static final String VAR_PASSWORD = "password";
+        public static final String VAR_SUPPORT_EMAIL = "supportEmail";
+        public static final String[] VARIABLES = {VAR_NAME, VAR_LASTNAME, VAR_USERNAME, VAR_PASSWORD, VAR_SUPPORT_EMAIL};
+    }
+
+    public static class Export {
+        // rows per round trip of the server-side cursor; also how often the response is flushed
+        public static final String FETCH_SIZE = "500";
+        public static final int FLUSH_EVERY = 500;
+        public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+        public static final String CSV_CONTENT_TYPE = "text/csv";
     }
 
     public static class Headers {
@@ -35,6 +57,13 @@ public class Constants {
         public static final String AUTHORIZATION = "Authorization";
     }
 
+    public static class Import {
+        // rows resolved, hashed and inserted per transaction
+        public static final int CHUNK_SIZE = 500;
+        // rows per JDBC batch round trip
+        public static final int BATCH_SIZE = 100;
+    }
+
     public static class Logging {
         public static final String ENV_PROPERTY = "app.environment";
         public static final String ENV_PROPERTY_DEFAULT = "env unknown";
@@ -49,6 +78,8 @@ public class Constants {
     public static class Pagination {
         public static final String PAGE = "0";
         public static final String PAGE_SIZE = "10";
+        // below this many (estimated) rows an exact count(*) is cheap enough to run per page
+        public static final long EXACT_COUNT_THRESHOLD = 10_000L;
     }
 
     public static class Roles {
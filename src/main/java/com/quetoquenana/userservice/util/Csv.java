@@ -0,0 +1,94 @@
+package com.quetoquenana.userservice.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers shared by the CSV export and import.
+ */
+public final class Csv {
+
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+
+    private Csv() {
+        // utility class
+    }
+
+    /**
+     * RFC 4180 quoting: values containing a separator, quote or line break are quoted, inner quotes doubled.
+     */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * {@link #escape} for files meant to be opened in a spreadsheet: a value starting with {@code =}, {@code +},
+     * {@code -}, {@code @}, a tab or a carriage return would be evaluated as a formula, so it gets a leading
+     * single quote and is shown as text.
+     */
+    public static String escapeCell(Object value) {
+        String text = value == null ? null : value.toString();
+        if (text != null && !text.isEmpty() && FORMULA_TRIGGERS.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        return escape(text);
+    }
+
+    /**
+     * Reads the next record. Quoted fields may contain separators, doubled quotes and line breaks.
+     *
+     * @param reader source (read one char at a time, with a one-char look-ahead for doubled quotes)
+     * @return the fields of the record, or null at end of input
+     */
+    public static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
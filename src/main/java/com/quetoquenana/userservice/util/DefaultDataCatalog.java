@@ -0,0 +1,128 @@
+package com.quetoquenana.userservice.util;
+
+import com.quetoquenana.userservice.model.DataCategory;
+import com.quetoquenana.userservice.model.DefaultData;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the default_data table, ordered by {@code (created_at, id)} like the keyset listings and
+ * grouped by {@link DataCategory}. Entries are detached copies, so nothing handed out can reach a persistence context.
+ * <p>
+ * {@link #version()} is derived from the ids and entity versions alone: two nodes holding the same rows report the
+ * same value, which makes it usable as an ETag behind a load balancer.
+ */
+public final class DefaultDataCatalog {
+
+    private static final Comparator<UUID> UUID_ORDER = (a, b) -> {
+        // unsigned, as PostgreSQL compares uuid values
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+    private static final Comparator<DefaultData> KEY_ORDER = Comparator
+            .comparing(DefaultData::getCreatedAt)
+            .thenComparing(DefaultData::getId, UUID_ORDER);
+
+    private final long version;
+    private final List<DefaultData> entries;
+    private final Map<UUID, DefaultData> byId;
+    private final Map<DataCategory, List<DefaultData>> byCategory;
+
+    private DefaultDataCatalog(List<DefaultData> entries) {
+        this.entries = entries;
+        Map<UUID, DefaultData> ids = new HashMap<>();
+        Map<DataCategory, List<DefaultData>> categories = new EnumMap<>(DataCategory.class);
+        long hash = entries.size();
+        for (DefaultData entry : entries) {
+            ids.put(entry.getId(), entry);
+            categories.computeIfAbsent(entry.getDataCategory(), category -> new ArrayList<>()).add(entry);
+            hash = mix(hash, entry.getId().getMostSignificantBits());
+            hash = mix(hash, entry.getId().getLeastSignificantBits());
+            hash = mix(hash, entry.getVersion() != null ? entry.getVersion() : 0);
+        }
+        categories.replaceAll((category, list) -> List.copyOf(list));
+        this.byId = Map.copyOf(ids);
+        this.byCategory = Collections.unmodifiableMap(categories);
+        this.version = hash;
+    }
+
+    public static DefaultDataCatalog of(Collection<DefaultData> rows) {
+        return new DefaultDataCatalog(rows.stream()
+                .map(DefaultDataCatalog::copyOf)
+                .sorted(KEY_ORDER)
+                .toList());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Optional<DefaultData> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Page<DefaultData> page(Pageable pageable) {
+        return slice(entries, pageable);
+    }
+
+    public Page<DefaultData> page(DataCategory category, Pageable pageable) {
+        return slice(byCategory.getOrDefault(category, List.of()), pageable);
+    }
+
+    public List<DefaultData> findActive(DataCategory category) {
+        return byCategory.getOrDefault(category, List.of()).stream()
+                .filter(entry -> Boolean.TRUE.equals(entry.getIsActive()))
+                .toList();
+    }
+
+    /**
+     * Same contract as {@code KeysetPagingRepository.findKeysetPage}.
+     *
+     * @return up to {@code size + 1} entries after {@code after} (from the start when null)
+     */
+    public List<DefaultData> findKeysetPage(PageCursor after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        int from = 0;
+        if (after != null) {
+            DefaultData bound = DefaultData.builder().id(after.id()).build();
+            bound.setCreatedAt(after.createdAt());
+            int index = Collections.binarySearch(entries, bound, KEY_ORDER);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return entries.subList(from, Math.min(entries.size(), from + size + 1));
+    }
+
+    private static Page<DefaultData> slice(List<DefaultData> list, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(list, pageable, list.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), list.size());
+        int to = Math.min(list.size(), from + pageable.getPageSize());
+        return new PageImpl<>(list.subList(from, to), pageable, list.size());
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    private static DefaultData copyOf(DefaultData row) {
+        DefaultData copy = DefaultData.builder()
+                .id(row.getId())
+                .dataName(row.getDataName())
+                .description(row.getDescription())
+                .isActive(row.getIsActive())
+                .dataCategory(row.getDataCategory())
+                .build();
+        copy.setVersion(row.getVersion());
+        copy.setCreatedAt(row.getCreatedAt());
+        copy.setCreatedBy(row.getCreatedBy());
+        copy.setUpdatedAt(row.getUpdatedAt());
+        copy.setUpdatedBy(row.getUpdatedBy());
+        return copy;
+    }
+}
@@ -0,0 +1,50 @@
+package com.quetoquenana.userservice.util;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.quetoquenana.userservice.dto.ApiBaseResponseView;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset counterpart of {@link JsonViewPageUtil}: a slice of rows plus the cursor of the next one.
+ * No totals, so no count query is needed to build it.
+ *
+ * @param <T> The type of the content of the slice.
+ */
+@Getter
+@JsonView(ApiBaseResponseView.Always.class)
+public class JsonViewCursorPage<T> {
+
+    @JsonView(ApiBaseResponseView.Always.class)
+    private final List<T> content;
+
+    @JsonView(ApiBaseResponseView.Always.class)
+    private final int size;
+
+    @JsonView(ApiBaseResponseView.Always.class)
+    private final boolean hasNext;
+
+    @JsonView(ApiBaseResponseView.Always.class)
+    private final String nextCursor;
+
+    public JsonViewCursorPage(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @param rows  rows fetched with a limit of {@code size + 1}; the extra row only signals that there is a next page
+     * @param keyOf cursor of a row
+     */
+    public static <T> JsonViewCursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> keyOf) {
+        if (rows.size() <= size) {
+            return new JsonViewCursorPage<>(rows, size, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new JsonViewCursorPage<>(List.copyOf(content), size, keyOf.apply(content.getLast()).encode());
+    }
+}
@@ -18,16 +18,33 @@ import java.util.List;
 @JsonView(ApiBaseResponseView.Always.class)
 public class JsonViewPageUtil<T> extends PageImpl<T> {
 
+    private final boolean approximateTotal;
+
     public JsonViewPageUtil(List<T> content, Pageable pageable, long total) {
+        this(content, pageable, total, false);
+    }
+
+    public JsonViewPageUtil(List<T> content, Pageable pageable, long total, boolean approximateTotal) {
         super(content, pageable, total);
+        this.approximateTotal = approximateTotal;
     }
 
     public JsonViewPageUtil(final Page<T> page, final Pageable pageable) {
         super(page.getContent(), pageable, page.getTotalElements());
+        this.approximateTotal = page instanceof JsonViewPageUtil<T> view && view.isApproximateTotal();
     }
 
     public JsonViewPageUtil(List<T> content) {
         super(content);
+        this.approximateTotal = false;
+    }
+
+    /**
+     * @return true when {@link #getTotalElements()} is a planner estimate rather than an exact count
+     */
+    @JsonView(ApiBaseResponseView.Always.class)
+    public boolean isApproximateTotal() {
+        return approximateTotal;
     }
 
     @Override
@@ -0,0 +1,73 @@
+package com.quetoquenana.userservice.util;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Permission bitmasks as carried in tokens: bit {@code i} is byte {@code i / 8}, mask {@code 1 << (i % 8)},
+ * trailing zero bytes trimmed, encoded as unpadded base64url. Downstream services only need
+ * {@link #decode(String)} once per token and {@link #test(byte[], int)} per check.
+ */
+public final class PermissionBits {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private PermissionBits() {
+        // utility class
+    }
+
+    public static boolean test(byte[] bits, int index) {
+        int b = index >>> 3;
+        return index >= 0 && b < bits.length && (bits[b] & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * Sets {@code index} in {@code bits} (in place when it fits).
+     *
+     * @return the mask holding the bit: {@code bits} itself, or a grown copy
+     */
+    public static byte[] set(byte[] bits, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Negative permission index: " + index);
+        }
+        int b = index >>> 3;
+        byte[] result = b < bits.length ? bits : Arrays.copyOf(bits, b + 1);
+        result[b] |= (byte) (1 << (index & 7));
+        return result;
+    }
+
+    /**
+     * @return a new mask with the bits of both masks
+     */
+    public static byte[] or(byte[] a, byte[] b) {
+        byte[] longer = a.length >= b.length ? a : b;
+        byte[] shorter = longer == a ? b : a;
+        byte[] result = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return result;
+    }
+
+    public static String encode(byte[] bits) {
+        int length = bits.length;
+        while (length > 0 && bits[length - 1] == 0) {
+            length--;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(length == bits.length ? bits : Arrays.copyOf(bits, length));
+    }
+
+    /**
+     * @return the decoded mask; empty when the value is missing or not valid base64url
+     */
+    public static byte[] decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return EMPTY;
+        }
+        try {
+            return Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return EMPTY;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.quetoquenana.userservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Append-only FIFO of byte records backed by a fixed-size memory-mapped file.
+ * <p>
+ * Layout: an 8-byte header ({@code readPos}, {@code writePos}) followed by records of
+ * {@code [int length][payload]}. A record is committed by writing its length after the payload,
+ * and a zero length always marks the end of the log, so on open any record written after the last
+ * header update is recovered. Records are only consumed ({@link #remove()}) once they were handed
+ * off, which gives at-least-once delivery across crashes; consumed records are zeroed.
+ * The file is locked while open, so two processes never share a journal.
+ * Not a Spring bean; instances are thread-safe.
+ */
+@Slf4j
+public final class SpillJournal implements Closeable {
+
+    private static final int READ_POS_OFFSET = 0;
+    private static final int WRITE_POS_OFFSET = 4;
+    private static final int HEADER_SIZE = 8;
+    private static final int LENGTH_SIZE = 4;
+
+    private final Path path;
+    private final int capacity;
+
+    private FileChannel channel;
+    private FileLock lock;
+    private MappedByteBuffer buffer;
+
+    private int readPos;
+    private int writePos;
+
+    public SpillJournal(Path path, int capacity) throws IOException {
+        if (capacity <= HEADER_SIZE + LENGTH_SIZE) {
+            throw new IllegalArgumentException("Journal capacity too small: " + capacity);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.path = path;
+        this.capacity = capacity;
+        this.channel = openFile(path);
+        this.lock = tryLock(channel);
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Journal " + path + " is already open in another process or journal");
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        recover();
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @return false when the journal has no room left for the record
+     */
+    public synchronized boolean append(byte[] payload) {
+        int needed = LENGTH_SIZE + payload.length;
+        if (!hasRoom(needed) && !(compact() && hasRoom(needed))) {
+            return false;
+        }
+        int position = writePos;
+        buffer.put(position + LENGTH_SIZE, payload);
+        writePos = position + needed;
+        writeTerminator();
+        // commit point: once the length is in place the record is visible to recovery
+        buffer.putInt(position, payload.length);
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * @return the oldest record, or null when the journal is empty
+     */
+    public synchronized byte[] peek() {
+        if (isEmpty()) {
+            return null;
+        }
+        byte[] payload = new byte[buffer.getInt(readPos)];
+        buffer.get(readPos + LENGTH_SIZE, payload);
+        return payload;
+    }
+
+    /**
+     * Drops the oldest record.
+     */
+    public synchronized void remove() {
+        if (isEmpty()) {
+            return;
+        }
+        int next = readPos + LENGTH_SIZE + buffer.getInt(readPos);
+        zero(readPos + LENGTH_SIZE, next);
+        readPos = next;
+        if (readPos == writePos) {
+            // fully drained: rewind so the file is reused from the start
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE;
+            writeTerminator();
+        }
+        writeHeader();
+    }
+
+    public synchronized boolean isEmpty() {
+        return readPos >= writePos;
+    }
+
+    /**
+     * @return number of pending records (walks the log; meant for logging/diagnostics)
+     */
+    public synchronized int size() {
+        int count = 0;
+        for (int pos = readPos; pos < writePos; pos += LENGTH_SIZE + buffer.getInt(pos)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        lock.release();
+        channel.close();
+    }
+
+    private boolean hasRoom(int needed) {
+        // keep space for the end-of-log terminator
+        return (long) writePos + needed + LENGTH_SIZE <= capacity;
+    }
+
+    /**
+     * Moves pending records to the start of the file. When source and destination (plus the new terminator)
+     * do not overlap this is done in place, and a crash mid-copy leaves the old header pointing at intact
+     * records. Otherwise the records are written to a new file that atomically replaces this one.
+     */
+    private boolean compact() {
+        if (readPos == HEADER_SIZE) {
+            return false;
+        }
+        int live = writePos - readPos;
+        byte[] records = new byte[live];
+        buffer.get(readPos, records);
+        if (HEADER_SIZE + live + LENGTH_SIZE > readPos) {
+            return rewrite(records);
+        }
+        int oldWritePos = writePos;
+        buffer.put(HEADER_SIZE, records);
+        readPos = HEADER_SIZE;
+        writePos = HEADER_SIZE + live;
+        writeTerminator();
+        writeHeader();
+        // the old copies are consumed now
+        zero(writePos + LENGTH_SIZE, oldWritePos);
+        return true;
+    }
+
+    private boolean rewrite(byte[] records) {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        FileChannel target = null;
+        try {
+            Files.deleteIfExists(compacted);
+            target = openFile(compacted);
+            FileLock targetLock = tryLock(target);
+            if (targetLock == null) {
+                target.close();
+                return false;
+            }
+            MappedByteBuffer targetBuffer = target.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            targetBuffer.put(HEADER_SIZE, records);
+            targetBuffer.putInt(HEADER_SIZE + records.length, 0);
+            targetBuffer.putInt(READ_POS_OFFSET, HEADER_SIZE);
+            targetBuffer.putInt(WRITE_POS_OFFSET, HEADER_SIZE + records.length);
+            targetBuffer.force();
+            // the open channel (and its lock) follows the file to its new name
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            lock.release();
+            channel.close();
+            channel = target;
+            lock = targetLock;
+            buffer = targetBuffer;
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE + records.length;
+            return true;
+        } catch (IOException e) {
+            log.error("Could not compact journal {}: {}", path, e.getMessage(), e);
+            if (target != null) {
+                try {
+                    target.close();
+                    Files.deleteIfExists(compacted);
+                } catch (IOException ignored) {
+                    // the next compaction starts over
+                }
+            }
+            return false;
+        }
+    }
+
+    private void recover() {
+        readPos = buffer.getInt(READ_POS_OFFSET);
+        writePos = buffer.getInt(WRITE_POS_OFFSET);
+        if (readPos < HEADER_SIZE || writePos < readPos || writePos > capacity) {
+            // new (zero-filled) or unreadable file
+            readPos = HEADER_SIZE;
+            writePos = HEADER_SIZE;
+            writeTerminator();
+            writeHeader();
+            return;
+        }
+
+        // pick up records committed after the last header update
+        int recovered = 0;
+        while (writePos + LENGTH_SIZE <= capacity) {
+            int length = buffer.getInt(writePos);
+            if (length <= 0 || (long) writePos + LENGTH_SIZE + length > capacity) {
+                break;
+            }
+            writePos += LENGTH_SIZE + length;
+            recovered++;
+        }
+        if (recovered > 0) {
+            log.warn("Recovered {} spilled record(s) not yet recorded in the journal header", recovered);
+            writeTerminator();
+            writeHeader();
+        }
+    }
+
+    private void writeTerminator() {
+        if (writePos + LENGTH_SIZE <= capacity) {
+            buffer.putInt(writePos, 0);
+        }
+    }
+
+    private void zero(int from, int to) {
+        if (to > from) {
+            buffer.put(from, new byte[to - from]);
+        }
+    }
+
+    private void writeHeader() {
+        buffer.putInt(READ_POS_OFFSET, readPos);
+        buffer.putInt(WRITE_POS_OFFSET, writePos);
+        buffer.force();
+    }
+
+    private static FileChannel openFile(Path path) throws IOException {
+        boolean created = Files.notExists(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (created) {
+            restrictPermissions(path);
+        }
+        return channel;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // held by this JVM
+            return null;
+        }
+    }
+
+    private static void restrictPermissions(Path path) {
+        // records hold names and addresses: keep the file readable by the service user only
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            log.warn("Could not restrict permissions of {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Indexes backing the ownership checks of SecurityService (phone/address/user -> person joins)
+CREATE INDEX IF NOT EXISTS idx_phones_person_id ON phones(person_id);
+CREATE INDEX IF NOT EXISTS idx_addresses_person_id ON addresses(person_id);
+CREATE INDEX IF NOT EXISTS idx_users_person_id ON users(person_id);
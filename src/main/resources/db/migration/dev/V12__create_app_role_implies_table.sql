@@ -0,0 +1,25 @@
+-- Migration V12: create app_role_implies table
+-- Per-application role hierarchy: role_id implies implied_role_id (both roles of the same application)
+
+CREATE TABLE app_role_implies (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    application_id UUID NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    role_id UUID NOT NULL,
+    implied_role_id UUID NOT NULL,
+
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    created_by VARCHAR(100) NOT NULL,
+    updated_at TIMESTAMP,
+    updated_by VARCHAR(100),
+    version BIGINT NOT NULL,
+
+    -- composite FKs keep both roles inside the same application
+    CONSTRAINT fk_ari_role FOREIGN KEY (application_id, role_id)
+        REFERENCES app_roles(application_id, id) ON DELETE CASCADE,
+    CONSTRAINT fk_ari_implied_role FOREIGN KEY (application_id, implied_role_id)
+        REFERENCES app_roles(application_id, id) ON DELETE CASCADE,
+    CONSTRAINT ck_ari_not_self CHECK (role_id <> implied_role_id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_app_role_implies ON app_role_implies(role_id, implied_role_id);
+CREATE INDEX IF NOT EXISTS idx_app_role_implies_application_id ON app_role_implies(application_id);
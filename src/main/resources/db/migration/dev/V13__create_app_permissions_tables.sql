@@ -0,0 +1,29 @@
+-- Migration V13: create app_permissions and app_role_permissions tables
+-- Fine-grained permissions per application. bit_index is the permission id inside the application's
+-- token bitmask: it is assigned once and never reused.
+
+CREATE TABLE app_permissions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    application_id UUID NOT NULL REFERENCES applications(id) ON DELETE CASCADE,
+    bit_index INTEGER NOT NULL CHECK (bit_index >= 0),
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(100),
+
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    created_by VARCHAR(100) NOT NULL,
+    updated_at TIMESTAMP,
+    updated_by VARCHAR(100),
+    version BIGINT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_app_permissions_app_name ON app_permissions(application_id, lower(name));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_app_permissions_app_bit ON app_permissions(application_id, bit_index);
+
+-- Permissions granted to a role (the service only links roles and permissions of the same application)
+CREATE TABLE app_role_permissions (
+    app_role_id UUID NOT NULL REFERENCES app_roles(id) ON DELETE CASCADE,
+    permission_id UUID NOT NULL REFERENCES app_permissions(id) ON DELETE CASCADE,
+    PRIMARY KEY (app_role_id, permission_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_app_role_permissions_permission_id ON app_role_permissions(permission_id);
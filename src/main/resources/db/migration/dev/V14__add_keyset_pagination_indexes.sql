@@ -0,0 +1,5 @@
+-- Indexes backing the keyset (created_at, id) listings of KeysetPagingRepository
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_persons_created_at_id ON persons(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_applications_created_at_id ON applications(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_default_data_created_at_id ON default_data(created_at, id);
@@ -0,0 +1,26 @@
+-- Time-ordered UUIDv7 ids (RFC 9562) for rows inserted without an id from the application.
+-- The application generates its own v7 ids (UuidV7); this keeps SQL-side inserts in the same order.
+-- Takes a random v4 UUID, overlays the first 48 bits with epoch milliseconds and turns version 4 into 7.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+$$ LANGUAGE SQL VOLATILE;
+
+ALTER TABLE default_data ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE persons ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE phones ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE addresses ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE applications ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE app_roles ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE app_roles_users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE refresh_tokens ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE app_role_implies ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE app_permissions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,4 @@
+-- Indexes backing the bulk status jobs: revoking the live refresh tokens of a chunk of users
+-- and selecting users by their current status
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id_live ON refresh_tokens(user_id) WHERE revoked = false;
+CREATE INDEX IF NOT EXISTS idx_users_user_status_id ON users(user_status, id);
@@ -0,0 +1,3 @@
+-- When the user last asked for a temporary password through forgot-password; only that flow writes it,
+-- so its coalescing window is not opened by admin resets, bulk status jobs or new accounts
+ALTER TABLE users ADD COLUMN IF NOT EXISTS reset_requested_at TIMESTAMP;
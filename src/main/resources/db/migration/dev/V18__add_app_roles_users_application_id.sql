@@ -0,0 +1,33 @@
+-- One role per user and application, enforced by the database: the role's application is copied onto the
+-- mapping so a unique index can cover (user_id, application_id). A NOT EXISTS guard alone lets two
+-- concurrent inserts of different roles of the same application both through.
+
+ALTER TABLE app_roles_users ADD COLUMN IF NOT EXISTS application_id UUID REFERENCES applications(id) ON DELETE CASCADE;
+
+UPDATE app_roles_users aru SET application_id = r.application_id
+FROM app_roles r
+WHERE r.id = aru.app_role_id AND aru.application_id IS NULL;
+
+-- mappings that already broke the rule: keep the oldest role of each user in each application
+DELETE FROM app_roles_users a
+USING app_roles_users b
+WHERE a.user_id = b.user_id
+  AND a.application_id = b.application_id
+  AND (a.created_at, a.id) > (b.created_at, b.id);
+
+-- Filled from the role on every insert (and role change), so no writer has to pass it
+CREATE OR REPLACE FUNCTION app_roles_users_set_application_id() RETURNS TRIGGER AS $$
+BEGIN
+    SELECT application_id INTO NEW.application_id FROM app_roles WHERE id = NEW.app_role_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_aru_set_application_id ON app_roles_users;
+CREATE TRIGGER trg_aru_set_application_id
+    BEFORE INSERT OR UPDATE OF app_role_id ON app_roles_users
+    FOR EACH ROW EXECUTE FUNCTION app_roles_users_set_application_id();
+
+ALTER TABLE app_roles_users ALTER COLUMN application_id SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_aru_user_application ON app_roles_users(user_id, application_id);
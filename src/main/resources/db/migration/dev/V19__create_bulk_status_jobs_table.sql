@@ -0,0 +1,19 @@
+-- Progress of the bulk user/person status jobs, so any node can answer a status poll, not only the one running
+-- the job. Written when the job starts, once per committed chunk (in the chunk's transaction) and when it ends.
+CREATE TABLE IF NOT EXISTS bulk_status_jobs (
+    id UUID PRIMARY KEY,
+    target VARCHAR(20) NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    requested_by VARCHAR(100) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    total BIGINT NOT NULL,
+    processed BIGINT NOT NULL DEFAULT 0,
+    updated BIGINT NOT NULL DEFAULT 0,
+    tokens_revoked BIGINT NOT NULL DEFAULT 0,
+    chunks INT NOT NULL DEFAULT 0,
+    message TEXT
+);
+
+-- purge of finished jobs past their retention
+CREATE INDEX IF NOT EXISTS idx_bulk_status_jobs_finished_at ON bulk_status_jobs(finished_at) WHERE finished_at IS NOT NULL;
@@ -9,6 +9,7 @@ import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.model.AppRole;
 import com.quetoquenana.userservice.model.Application;
 import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.service.UserImportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -19,6 +20,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +36,9 @@ class ApplicationControllerTest {
     @Mock
     private ApplicationService applicationService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @InjectMocks
     private ApplicationController applicationController;
 
@@ -147,24 +152,24 @@ class ApplicationControllerTest {
 
     @Test
     void testDeleteApplication_Success() {
-        doNothing().when(applicationService).deleteById(appId);
-        ResponseEntity<Void> response = applicationController.deleteApplication(appId);
+        doNothing().when(applicationService).deleteById(appId, null);
+        ResponseEntity<Void> response = applicationController.deleteApplication(appId, null);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
     @Test
     void testDeleteApplication_NotFound() {
         // simulate service throwing when not found
-        org.mockito.Mockito.doThrow(new RecordNotFoundException()).when(applicationService).deleteById(appId);
-        assertThrows(RecordNotFoundException.class, () -> applicationController.deleteApplication(appId));
+        org.mockito.Mockito.doThrow(new RecordNotFoundException()).when(applicationService).deleteById(appId, null);
+        assertThrows(RecordNotFoundException.class, () -> applicationController.deleteApplication(appId, null));
     }
 
     @Test
     void testGetAllApplicationsPage_returnsOk() {
-        var page = new PageImpl<>(List.of(application));
-        when(applicationService.findAll(any(Pageable.class))).thenReturn(page);
+        var page = new PageImpl<>(List.of(summaryOf(application)));
+        when(applicationService.findAll(any(Pageable.class), eq(false))).thenReturn(page);
 
-        ResponseEntity<ApiResponse> response = applicationController.getAllApplicationsPage(0, 10);
+        ResponseEntity<ApiResponse> response = applicationController.getAllApplicationsPage(0, 10, false);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         ApiResponse apiResponse = response.getBody();
         assertNotNull(apiResponse);
@@ -173,7 +178,7 @@ class ApplicationControllerTest {
 
     @Test
     void testSearchApplications_returnsOk() {
-        var page = new PageImpl<>(List.of(application));
+        var page = new PageImpl<>(List.of(summaryOf(application)));
         when(applicationService.searchByName(eq("my"), any(Pageable.class))).thenReturn(page);
 
         ResponseEntity<ApiResponse> response = applicationController.searchApplications("my", 0, 10);
@@ -227,4 +232,9 @@ class ApplicationControllerTest {
         org.mockito.Mockito.doThrow(new RecordNotFoundException()).when(applicationService).deleteRole(appId, roleId);
         assertThrows(RecordNotFoundException.class, () -> applicationController.deleteRole(appId, roleId));
     }
+
+    private static ApplicationSummary summaryOf(Application application) {
+        return new ApplicationSummary(application.getId(), application.getName(), application.getCode(),
+                application.isActive(), LocalDateTime.now());
+    }
 }
@@ -3,6 +3,7 @@ package com.quetoquenana.userservice.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quetoquenana.userservice.dto.PersonSummary;
 import com.quetoquenana.userservice.dto.PersonUpdateRequest;
 import com.quetoquenana.userservice.exception.ImmutableFieldModificationException;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
@@ -19,12 +20,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 class PersonControllerTest {
@@ -60,6 +65,24 @@ class PersonControllerTest {
         assertThrows(RecordNotFoundException.class, () -> personController.getPersonById(personId));
     }
 
+    @Test
+    void testGetPersonOverview_ReturnsTheDocumentAsIs() {
+        byte[] json = "{\"message\":\"Success\",\"errorCode\":0,\"data\":{}}".getBytes(StandardCharsets.UTF_8);
+        when(personService.findOverviewJson(personId)).thenReturn(Optional.of(json));
+
+        ResponseEntity<byte[]> response = personController.getPersonOverview(personId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(json, response.getBody());
+    }
+
+    @Test
+    void testGetPersonOverview_NotFound() {
+        when(personService.findOverviewJson(personId)).thenReturn(Optional.empty());
+        assertThrows(RecordNotFoundException.class, () -> personController.getPersonOverview(personId));
+    }
+
     @Test
     void testUpdatePerson_NotFound() {
         PersonUpdateRequest updateRequest = TestEntityFactory.getPersonUpdateRequest(true);
@@ -94,9 +117,9 @@ class PersonControllerTest {
 
     @Test
     void testGetPersonsPage_ReturnsPage() throws Exception {
-        Page<Person> page = new PageImpl<>(Collections.singletonList(person), PageRequest.of(0, 10), 1);
-        when(personService.findAll(any())).thenReturn(page);
-        ResponseEntity<ApiResponse> response = personController.getPersonsPage(0, 10);
+        Page<PersonSummary> page = new PageImpl<>(Collections.singletonList(summaryOf(person)), PageRequest.of(0, 10), 1);
+        when(personService.findAll(any(), eq(false))).thenReturn(page);
+        ResponseEntity<ApiResponse> response = personController.getPersonsPage(0, 10, false);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         ApiResponse apiResponse = response.getBody();
         assertNotNull(apiResponse);
@@ -124,7 +147,7 @@ class PersonControllerTest {
     // java
     @Test
     void testGetPersonsByStatus_ReturnsActive() throws Exception {
-        List<Person> persons = Collections.singletonList(person); // person is active in setUp()
+        List<PersonSummary> persons = Collections.singletonList(summaryOf(person)); // person is active in setUp()
         when(personService.findByIsActive(true)).thenReturn(persons);
 
         ResponseEntity<ApiResponse> response = personController.getPersonsByStatus(true);
@@ -149,7 +172,7 @@ class PersonControllerTest {
                 .idNumber("ID999999")
                 .isActive(false)
                 .build();
-        when(personService.findByIsActive(false)).thenReturn(Collections.singletonList(inactivePerson));
+        when(personService.findByIsActive(false)).thenReturn(Collections.singletonList(summaryOf(inactivePerson)));
 
         ResponseEntity<ApiResponse> response = personController.getPersonsByStatus(false);
 
@@ -163,4 +186,9 @@ class PersonControllerTest {
         assertTrue(json.contains("idNumber"));
         assertTrue(json.contains("isActive"));
     }
+
+    private static PersonSummary summaryOf(Person person) {
+        return new PersonSummary(person.getId(), person.getIdNumber(), person.getName(), person.getLastname(),
+                person.getIsActive(), LocalDateTime.now());
+    }
 }
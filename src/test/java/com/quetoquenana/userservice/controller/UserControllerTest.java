@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.quetoquenana.userservice.dto.ChangePasswordRequest;
 import com.quetoquenana.userservice.dto.ResetUserRequest;
+import com.quetoquenana.userservice.dto.UserSummary;
 import com.quetoquenana.userservice.dto.UserUpdateRequest;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
 import com.quetoquenana.userservice.dto.ApiResponse;
@@ -25,6 +26,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
@@ -97,9 +99,11 @@ class UserControllerTest {
 
     @Test
     void testGetUsersPage_ReturnsPage() throws Exception {
-        Page<User> page = new PageImpl<>(Collections.singletonList(user), PageRequest.of(0, 10), 1);
-        when(userService.findAll(any())).thenReturn(page);
-        ResponseEntity<ApiResponse> response = userController.getUsersPage(0, 10);
+        UserSummary summary = new UserSummary(user.getId(), user.getUsername(), user.getExternalId(), user.getProvider(),
+                user.getNickname(), user.getUserStatus(), LocalDateTime.now());
+        Page<UserSummary> page = new PageImpl<>(Collections.singletonList(summary), PageRequest.of(0, 10), 1);
+        when(userService.findAll(any(), eq(false))).thenReturn(page);
+        ResponseEntity<ApiResponse> response = userController.getUsersPage(0, 10, false);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         ApiResponse apiResponse = response.getBody();
         assertNotNull(apiResponse);
@@ -109,6 +113,7 @@ class UserControllerTest {
         assertTrue(json.contains("id"));
         assertTrue(json.contains("username"));
         assertTrue(json.contains("nickname"));
+        assertFalse(json.contains("createdAt"));
     }
 
     @Test
@@ -126,14 +131,14 @@ class UserControllerTest {
     @Test
     void testDeleteUser_Success() {
         when(userService.findById(userId)).thenReturn(Optional.of(user));
-        ResponseEntity<Void> response = userController.deleteUser(userId);
+        ResponseEntity<Void> response = userController.deleteUser(userId, null);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
     @Test
     void testDeleteUser_NotFound() {
         when(userService.findById(userId)).thenReturn(Optional.empty());
-        ResponseEntity<Void> response = userController.deleteUser(userId);
+        ResponseEntity<Void> response = userController.deleteUser(userId, null);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
@@ -0,0 +1,121 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.dto.AppPermissionCreateRequest;
+import com.quetoquenana.userservice.model.AppPermission;
+import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.service.impl.AppPermissionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class AppPermissionIT extends AbstractIntegrationTest {
+
+    private static final String APP = "permission-app";
+
+    @Autowired
+    private ApplicationService applicationService;
+    @Autowired
+    private AppPermissionServiceImpl appPermissionService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AppPermissionRepository appPermissionRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private Application application;
+    private AppRole role;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appPermissionRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+
+        application = Application.builder().name(APP).code("PERM0001").description("d").active(true).build();
+        application.setCreatedAt(LocalDateTime.now());
+        application.setCreatedBy("test");
+        application = applicationRepository.save(application);
+
+        role = AppRole.builder().roleName("EDITOR").application(application).build();
+        role.setCreatedAt(LocalDateTime.now());
+        role.setCreatedBy("test");
+        role = appRoleRepository.save(role);
+        appPermissionService.loadAll();
+    }
+
+    @Test
+    void addPermission_concurrentAdditionsGetDistinctBits() throws Exception {
+        int additions = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(additions);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppPermission>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < additions; i++) {
+                AppPermissionCreateRequest request = new AppPermissionCreateRequest();
+                request.setName("permission-" + i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return applicationService.addPermission(application.getId(), request);
+                }));
+            }
+            start.countDown();
+            for (Future<AppPermission> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(appPermissionRepository.findByApplicationIdOrderByBitIndex(application.getId()))
+                .extracting(AppPermission::getBitIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    void reloadAll_picksUpPermissionsCommittedWithoutALocalEvent() {
+        // written straight through the repositories, as another node would: no ChangedEvent reaches this one
+        transactionTemplate.executeWithoutResult(status -> {
+            AppPermission permission = AppPermission.builder()
+                    .application(application)
+                    .bitIndex(0)
+                    .name("publish")
+                    .build();
+            permission.setCreatedAt(LocalDateTime.now());
+            permission.setCreatedBy("test");
+            AppRole editor = appRoleRepository.findById(role.getId()).orElseThrow();
+            editor.grant(appPermissionRepository.save(permission));
+        });
+        assertThat(appPermissionService.encodePermissions(APP, List.of("EDITOR"))).isNull();
+
+        appPermissionService.reloadAll();
+
+        assertThat(appPermissionService.encodePermissions(APP, List.of("EDITOR"))).isNotNull();
+    }
+}
@@ -0,0 +1,139 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+class AppRoleUserBulkDeleteIT extends AbstractIntegrationTest {
+
+    private static final int MEMBERS = 200;
+
+    @Autowired
+    private ApplicationService applicationService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Statistics statistics;
+    private Application application;
+    private AppRole role;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+
+        application = Application.builder().name("bulk-delete-app").code("BULKDEL01").description("d").active(true).build();
+        application.setCreatedAt(LocalDateTime.now());
+        application.setCreatedBy("test");
+        application = applicationRepository.save(application);
+
+        role = AppRole.builder().roleName("USER").application(application).build();
+        role.setCreatedAt(LocalDateTime.now());
+        role.setCreatedBy("test");
+        role = appRoleRepository.save(role);
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            persons.add(TestEntityFactory.createPerson("BULK-" + i, true));
+        }
+        persons = personRepository.saveAll(persons);
+
+        users = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            User user = User.builder()
+                    .username("member" + i + "@example.com")
+                    .passwordHash("not-a-real-hash")
+                    .person(persons.get(i))
+                    .userStatus(UserStatus.ACTIVE)
+                    .build();
+            user.setCreatedAt(LocalDateTime.now());
+            user.setCreatedBy("test");
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        List<AppRoleUser> mappings = new ArrayList<>();
+        for (User user : users) {
+            AppRoleUser mapping = AppRoleUser.of(user, role);
+            mapping.setCreatedAt(LocalDateTime.now());
+            mapping.setCreatedBy("test");
+            mappings.add(mapping);
+        }
+        appRoleUserRepository.saveAll(mappings);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void deleteRole_statementCountDoesNotGrowWithMembers() {
+        applicationService.deleteRole(application.getId(), role.getId());
+
+        // application + role lookups, one bulk DELETE, role reload + delete; a derived delete needed 2 * MEMBERS more
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(statistics.getEntityLoadCount()).isLessThan(10);
+        assertThat(appRoleUserRepository.count()).isZero();
+        assertThat(appRoleRepository.findById(role.getId())).isEmpty();
+    }
+
+    @Test
+    void removeUser_deletesOnlyThatUsersMappings_inOneStatement() {
+        applicationService.removeUser(application.getId(), "MEMBER0@example.com");
+
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(users.getFirst().getId(), application.getId())).isEmpty();
+        assertThat(appRoleUserRepository.count()).isEqualTo(MEMBERS - 1);
+    }
+
+    @Test
+    void bulkDelete_flushesMappingsSavedEarlierInTheTransaction() {
+        Integer deleted = transactionTemplate.execute(status -> {
+            appRoleUserRepository.deleteByUserUsernameIgnoreCase("member1@example.com");
+            // not flushed yet when the DELETE runs unless the query flushes first
+            AppRoleUser again = AppRoleUser.of(users.get(1), role);
+            again.setCreatedAt(LocalDateTime.now());
+            again.setCreatedBy("test");
+            appRoleUserRepository.save(again);
+            return appRoleUserRepository.deleteByUserUsernameIgnoreCase("member1@example.com");
+        });
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(appRoleUserRepository.count()).isEqualTo(MEMBERS - 1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.dto.AppRoleUserCreateRequest;
+import com.quetoquenana.userservice.dto.PersonCreateRequest;
+import com.quetoquenana.userservice.dto.UserCreateRequest;
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import com.quetoquenana.userservice.util.UuidV7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class AppRoleUserInsertIT extends AbstractIntegrationTest {
+
+    private static final int ROLES = 4;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Application application;
+    private List<AppRole> roles;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+
+        application = Application.builder().name("insert-app").code("INSERT001").description("d").active(true).build();
+        application.setCreatedAt(LocalDateTime.now());
+        application.setCreatedBy("test");
+        application = applicationRepository.save(application);
+
+        roles = new ArrayList<>();
+        for (int i = 0; i < ROLES; i++) {
+            AppRole role = AppRole.builder().roleName("ROLE" + i).application(application).build();
+            role.setCreatedAt(LocalDateTime.now());
+            role.setCreatedBy("test");
+            roles.add(appRoleRepository.save(role));
+        }
+
+        Person person = personRepository.save(TestEntityFactory.createPerson("INSERT-001", true));
+        user = User.builder()
+                .username("insert@example.com")
+                .passwordHash("not-a-real-hash")
+                .person(person)
+                .userStatus(UserStatus.ACTIVE)
+                .build();
+        user.setCreatedAt(LocalDateTime.now());
+        user.setCreatedBy("test");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void insertIfNoRoleInApplication_concurrentDifferentRoles_keepsOneRolePerApplication() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ROLES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<AppRoleUser>>> results = new ArrayList<>();
+        try {
+            for (AppRole role : roles) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return appRoleUserRepository.insertIfNoRoleInApplication(mapping(role));
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<Optional<AppRoleUser>> result : results) {
+                if (result.get(30, TimeUnit.SECONDS).isPresent()) {
+                    inserted++;
+                }
+            }
+            assertThat(inserted).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(user.getId(), application.getId())).hasSize(1);
+    }
+
+    @Test
+    void insertIfNoRoleInApplication_fillsTheApplicationFromTheRole() {
+        AppRoleUser inserted = appRoleUserRepository.insertIfNoRoleInApplication(mapping(roles.getFirst())).orElseThrow();
+
+        assertThat(inserted.getApplicationId()).isEqualTo(application.getId());
+        assertThat(appRoleUserRepository.insertIfNoRoleInApplication(mapping(roles.getLast()))).isEmpty();
+    }
+
+    @Test
+    void addUser_concurrentRegistrationsOfOneUsername_shareTheUser() throws Exception {
+        List<Application> applications = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Application other = Application.builder().name("race-app-" + i).code("RACE0000" + i).description("d").active(true).build();
+            other.setCreatedAt(LocalDateTime.now());
+            other.setCreatedBy("test");
+            other = applicationRepository.save(other);
+            AppRole role = AppRole.builder().roleName("USER").application(other).build();
+            role.setCreatedAt(LocalDateTime.now());
+            role.setCreatedBy("test");
+            appRoleRepository.save(role);
+            applications.add(other);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(applications.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppRoleUser>> results = new ArrayList<>();
+        try {
+            for (Application target : applications) {
+                AppRoleUserCreateRequest request = new AppRoleUserCreateRequest();
+                request.setUser(new UserCreateRequest("racer@example.com", new PersonCreateRequest("RACE-001", "Race", "User"), "racer"));
+                request.setRoleName("USER");
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return applicationService.addUser(target.getId(), request);
+                }));
+            }
+            start.countDown();
+            List<AppRoleUser> mappings = new ArrayList<>();
+            for (Future<AppRoleUser> result : results) {
+                mappings.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(mappings).extracting(mapping -> mapping.getUser().getId()).containsOnly(mappings.getFirst().getUser().getId());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        User racer = userRepository.findByUsernameIgnoreCase("racer@example.com").orElseThrow();
+        for (Application target : applications) {
+            assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(racer.getId(), target.getId())).hasSize(1);
+        }
+        assertThat(userRepository.findAll()).filteredOn(u -> u.getUsername().equalsIgnoreCase("racer@example.com")).hasSize(1);
+    }
+
+    private AppRoleUser mapping(AppRole role) {
+        AppRoleUser mapping = AppRoleUser.of(user, role);
+        mapping.setId(UuidV7.next());
+        mapping.setCreatedAt(LocalDateTime.now());
+        mapping.setCreatedBy("test");
+        return mapping;
+    }
+}
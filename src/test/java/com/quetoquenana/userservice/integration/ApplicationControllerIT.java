@@ -296,4 +296,141 @@ class ApplicationControllerIT extends AbstractIntegrationTest {
 
         assertThat(appRoleRepository.findById(role.getId())).isEmpty();
     }
+
+    @Test
+    @WithMockUser(username = "system", roles = {"SYSTEM"})
+    void addUser_createsUserOnce_andRejectsSecondRoleInApplication() throws Exception {
+        Application app = Application.builder().name("app-add-user").code("ADDUSER01").description("d").active(true).build();
+        app.setCreatedAt(LocalDateTime.now());
+        app.setCreatedBy("test");
+        app = applicationRepository.save(app);
+        for (String roleName : new String[]{"USER", "ADMIN"}) {
+            AppRole role = AppRole.builder().roleName(roleName).application(app).build();
+            role.setCreatedAt(LocalDateTime.now());
+            role.setCreatedBy("test");
+            appRoleRepository.save(role);
+        }
+        // an inactive person with the same ID number is reactivated rather than duplicated
+        personRepository.save(TestEntityFactory.createPerson("ADD-001", false));
+
+        AppRoleUserCreateRequest request = new AppRoleUserCreateRequest();
+        request.setUser(new UserCreateRequest("added@example.com", new PersonCreateRequest("ADD-001", "Added", "User"), "added"));
+        request.setRoleName("USER");
+
+        mockMvc.perform(post("/api/applications/" + app.getId() + "/user")
+                        .header("X-Application-Name", "user-service")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        request.setRoleName("ADMIN");
+        request.getUser().setUsername("ADDED@example.com");
+        mockMvc.perform(post("/api/applications/" + app.getId() + "/user")
+                        .header("X-Application-Name", "user-service")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+
+        User user = userRepository.findByUsernameIgnoreCase("added@example.com").orElseThrow();
+        assertThat(personRepository.findByIdNumber("ADD-001").orElseThrow().getIsActive()).isTrue();
+        assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(user.getId(), app.getId())).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(username = "system", roles = {"SYSTEM"})
+    void addUser_leavesAnAlreadyActivePersonUntouched() throws Exception {
+        Application app = Application.builder().name("app-active-person").code("ACTIVE001").description("d").active(true).build();
+        app.setCreatedAt(LocalDateTime.now());
+        app.setCreatedBy("test");
+        app = applicationRepository.save(app);
+        AppRole role = AppRole.builder().roleName("USER").application(app).build();
+        role.setCreatedAt(LocalDateTime.now());
+        role.setCreatedBy("test");
+        appRoleRepository.save(role);
+        var person = personRepository.save(TestEntityFactory.createPerson("ACTIVE-001", true));
+
+        AppRoleUserCreateRequest request = new AppRoleUserCreateRequest();
+        request.setUser(new UserCreateRequest("active@example.com", new PersonCreateRequest("ACTIVE-001", "Active", "User"), "active"));
+        request.setRoleName("USER");
+
+        mockMvc.perform(post("/api/applications/" + app.getId() + "/user")
+                        .header("X-Application-Name", "user-service")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        var reloaded = personRepository.findByIdNumber("ACTIVE-001").orElseThrow();
+        assertThat(reloaded.getId()).isEqualTo(person.getId());
+        assertThat(reloaded.getVersion()).isEqualTo(person.getVersion());
+        assertThat(reloaded.getUpdatedAt()).isNull();
+        assertThat(userRepository.findByUsernameIgnoreCase("active@example.com").orElseThrow().getPerson().getId())
+                .isEqualTo(person.getId());
+    }
+
+    @Test
+    @WithMockUser(username = "system", roles = {"SYSTEM"})
+    void importUsers_csv_reportsEveryRow() throws Exception {
+        Application app = Application.builder().name("app-import").code("IMPORT01").description("d").active(true).build();
+        app.setCreatedAt(LocalDateTime.now());
+        app.setCreatedBy("test");
+        app = applicationRepository.save(app);
+
+        AppRole role = AppRole.builder().roleName("USER").application(app).build();
+        role.setCreatedAt(LocalDateTime.now());
+        role.setCreatedBy("test");
+        appRoleRepository.save(role);
+
+        Person person = personRepository.save(TestEntityFactory.createPerson("IMP-EXISTING", true));
+        User existing = User.builder()
+                .username("existing@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .person(person)
+                .userStatus(UserStatus.ACTIVE)
+                .build();
+        existing.setCreatedAt(LocalDateTime.now());
+        existing.setCreatedBy("test");
+        existing = userRepository.save(existing);
+
+        String csv = "username,idNumber,name,lastname,nickname\r\n" +
+                "new.one@example.com,IMP001,New,One,n1\r\n" +
+                "Existing@Example.com,IMP002,Existing,User,\r\n" +
+                "NEW.ONE@example.com,IMP003,Same,Username,\r\n" +
+                "not-an-email,IMP004,Bad,Row,\r\n" +
+                "\"new.two@example.com\",IMP001,\"Shares, Person\",Two,\r\n";
+
+        mockMvc.perform(post("/api/applications/" + app.getId() + "/user/import")
+                        .header("X-Application-Name", "user-service")
+                        .param("roleName", "USER")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totals.CREATED").value(2))
+                .andExpect(jsonPath("$.data.totals.LINKED").value(1))
+                .andExpect(jsonPath("$.data.totals.SKIPPED").value(1))
+                .andExpect(jsonPath("$.data.totals.FAILED").value(1))
+                .andExpect(jsonPath("$.data.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data.results[1].status").value("LINKED"))
+                .andExpect(jsonPath("$.data.results[2].status").value("SKIPPED"))
+                .andExpect(jsonPath("$.data.results[3].status").value("FAILED"))
+                .andExpect(jsonPath("$.data.results[4].status").value("CREATED"));
+
+        // rows 1 and 5 share ID number IMP001, so only one person was created for them
+        User first = userRepository.findByUsernameIgnoreCase("new.one@example.com").orElseThrow();
+        User second = userRepository.findByUsernameIgnoreCase("new.two@example.com").orElseThrow();
+        assertThat(first.getUserStatus()).isEqualTo(UserStatus.RESET);
+        UUID personId = personRepository.findByIdNumber("IMP001").orElseThrow().getId();
+        assertThat(first.getPerson().getId()).isEqualTo(personId);
+        assertThat(second.getPerson().getId()).isEqualTo(personId);
+        assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(first.getId(), app.getId())).hasSize(1);
+        assertThat(appRoleUserRepository.findByUserIdAndRoleApplicationId(existing.getId(), app.getId())).hasSize(1);
+
+        // re-running the import is idempotent: the imported users now already hold the role
+        mockMvc.perform(post("/api/applications/" + app.getId() + "/user/import")
+                        .header("X-Application-Name", "user-service")
+                        .param("roleName", "USER")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"new.one@example.com\",\"idNumber\":\"IMP001\",\"name\":\"New\",\"lastname\":\"One\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results[0].status").value("SKIPPED"));
+    }
 }
@@ -0,0 +1,140 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.dto.ApplicationCreateRequest;
+import com.quetoquenana.userservice.dto.DefaultDataCreateRequest;
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.ApplicationService;
+import com.quetoquenana.userservice.service.DefaultDataService;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+class ApplicationRoleProvisioningIT extends AbstractIntegrationTest {
+
+    private static final int TEMPLATES = 30;
+    private static final String USERNAME = "provisioner@example.com";
+
+    @Autowired
+    private ApplicationService applicationService;
+    @Autowired
+    private DefaultDataService defaultDataService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private DefaultDataRepository defaultDataRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Statistics statistics;
+    private final List<UUID> templateIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+
+        Person person = personRepository.save(TestEntityFactory.createPerson("PROV-1", true));
+        User user = User.builder()
+                .username(USERNAME)
+                .passwordHash("not-a-real-hash")
+                .person(person)
+                .userStatus(UserStatus.ACTIVE)
+                .build();
+        user.setCreatedAt(LocalDateTime.now());
+        user.setCreatedBy("test");
+        userRepository.save(user);
+
+        for (int i = 0; i < TEMPLATES; i++) {
+            templateIds.add(defaultDataService.create(roleTemplate("PROVISIONED_ROLE_" + i)).getId());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        defaultDataRepository.deleteAllById(templateIds);
+        templateIds.clear();
+        // deleted around the service, so the catalog does not know yet
+        defaultDataService.reloadCatalog();
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME)
+    void save_insertsDefaultRolesAsOneBatch() {
+        int roles = defaultDataService.getRoleTemplates().size();
+        assertThat(roles).isGreaterThanOrEqualTo(TEMPLATES);
+        statistics.clear();
+
+        Application application = applicationService.save(createRequest("provisioned-app", "PROV0001"));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + roles);
+        // name check, user check, the application INSERT and one batched app_roles INSERT;
+        // without batching every role is a statement of its own
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        assertThat(statistics.getEntityStatistics(DefaultData.class.getName()).getLoadCount()).isZero();
+        assertThat(appRoleRepository.findByApplicationId(application.getId())).hasSize(roles);
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME)
+    void roleTemplateChange_isUsedByTheNextApplication() {
+        int before = defaultDataService.getRoleTemplates().size();
+
+        templateIds.add(defaultDataService.create(roleTemplate("PROVISIONED_LATE_ROLE")).getId());
+        Application application = applicationService.save(createRequest("late-app", "PROV0002"));
+
+        assertThat(defaultDataService.getRoleTemplates()).hasSize(before + 1);
+        assertThat(appRoleRepository.findByApplicationIdAndRoleName(application.getId(), "PROVISIONED_LATE_ROLE"))
+                .isPresent();
+    }
+
+    private static DefaultDataCreateRequest roleTemplate(String name) {
+        DefaultDataCreateRequest request = new DefaultDataCreateRequest();
+        request.setName(name);
+        request.setDescription("Provisioned role " + name);
+        request.setIsActive(true);
+        request.setDataCategory(DataCategory.ROLE.name());
+        return request;
+    }
+
+    private static ApplicationCreateRequest createRequest(String name, String code) {
+        ApplicationCreateRequest request = new ApplicationCreateRequest();
+        request.setName(name);
+        request.setCode(code);
+        request.setDescription("d");
+        request.setIsActive(true);
+        return request;
+    }
+}
@@ -0,0 +1,274 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.dto.BulkPersonStatusRequest;
+import com.quetoquenana.userservice.dto.BulkStatusJob;
+import com.quetoquenana.userservice.dto.BulkUserStatusRequest;
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.SecurityService;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.bulk-status.chunk-size=7")
+@ExtendWith(SpringExtension.class)
+class BulkStatusIT extends AbstractIntegrationTest {
+
+    private static final int OFFBOARDED = 20;
+    private static final int KEPT = 5;
+
+    @Autowired
+    private BulkStatusService bulkStatusService;
+    @Autowired
+    private SecurityService securityService;
+
+    @Autowired
+    private BulkStatusJobJdbcRepository bulkStatusJobRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private List<User> offboarded;
+    private List<User> kept;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+
+        offboarded = createUsers("leaver", "@Contractor.example.com", OFFBOARDED);
+        kept = createUsers("staff", "@example.com", KEPT);
+    }
+
+    // the container is shared: other ITs delete users without knowing about refresh tokens
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changeUserStatus_byFilter_blocksMatchingUsersInChunks_andRevokesTheirTokens() throws InterruptedException {
+        BulkUserStatusRequest request = new BulkUserStatusRequest();
+        request.setStatus(UserStatus.BLOCKED);
+        request.setCurrentStatus(UserStatus.ACTIVE);
+        request.setUsernameSuffix("@contractor.example.com");
+
+        BulkStatusJob job = awaitFinished(bulkStatusService.changeUserStatus(request));
+
+        assertThat(job.getState()).isEqualTo(BulkStatusJob.State.COMPLETED);
+        assertThat(job.getTotal()).isEqualTo(OFFBOARDED);
+        assertThat(job.getProcessed()).isEqualTo(OFFBOARDED);
+        assertThat(job.getUpdated()).isEqualTo(OFFBOARDED);
+        assertThat(job.getTokensRevoked()).isEqualTo(OFFBOARDED);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(bulkStatusService.findJob(job.getId())).containsSame(job);
+
+        for (User user : offboarded) {
+            User reloaded = userRepository.findById(user.getId()).orElseThrow();
+            assertThat(reloaded.getUserStatus()).isEqualTo(UserStatus.BLOCKED);
+            assertThat(reloaded.getUpdatedBy()).isEqualTo("offboarding-admin");
+            assertThat(reloaded.getVersion()).isEqualTo(user.getVersion() + 1);
+        }
+        for (User user : kept) {
+            assertThat(userRepository.findById(user.getId()).orElseThrow().getUserStatus()).isEqualTo(UserStatus.ACTIVE);
+        }
+        Set<UUID> offboardedIds = offboarded.stream().map(User::getId).collect(Collectors.toSet());
+        assertThat(refreshTokenRepository.findAll())
+                .allSatisfy(token -> assertThat(token.isRevoked()).isEqualTo(offboardedIds.contains(token.getUser().getId())));
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changeUserStatus_byIds_skipsUsersAlreadyInTheStatus() throws InterruptedException {
+        BulkUserStatusRequest first = new BulkUserStatusRequest();
+        first.setStatus(UserStatus.INACTIVE);
+        first.setUserIds(List.of(kept.get(0).getId()));
+        awaitFinished(bulkStatusService.changeUserStatus(first));
+
+        BulkUserStatusRequest request = new BulkUserStatusRequest();
+        request.setStatus(UserStatus.INACTIVE);
+        request.setUserIds(kept.stream().map(User::getId).toList());
+
+        BulkStatusJob job = awaitFinished(bulkStatusService.changeUserStatus(request));
+
+        assertThat(job.getState()).isEqualTo(BulkStatusJob.State.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(KEPT);
+        assertThat(job.getUpdated()).isEqualTo(KEPT - 1);
+        assertThat(userRepository.findAll())
+                .filteredOn(user -> user.getUsername().startsWith("staff"))
+                .allSatisfy(user -> assertThat(user.getUserStatus()).isEqualTo(UserStatus.INACTIVE));
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changeUserStatus_toReset_stillLetsTheUserThroughForgotPassword() throws InterruptedException {
+        User user = offboarded.getFirst();
+        BulkUserStatusRequest request = new BulkUserStatusRequest();
+        request.setStatus(UserStatus.RESET);
+        request.setUserIds(List.of(user.getId()));
+        awaitFinished(bulkStatusService.changeUserStatus(request));
+
+        User flagged = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(flagged.getUserStatus()).isEqualTo(UserStatus.RESET);
+        // the bulk job stamps updated_at but does not open the forgot-password window
+        assertThat(flagged.getResetRequestedAt()).isNull();
+
+        securityService.forgotPassword(user.getUsername());
+
+        User reset = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reset.getResetRequestedAt()).isNotNull();
+        assertThat(reset.getPasswordHash()).isNotEqualTo(flagged.getPasswordHash());
+        assertThat(reset.getVersion()).isEqualTo(flagged.getVersion() + 1);
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changePersonStatus_deactivatesPersons_andRevokesTheirUsersTokens() throws InterruptedException {
+        BulkPersonStatusRequest request = new BulkPersonStatusRequest();
+        request.setActive(false);
+        request.setPersonIds(offboarded.stream().map(user -> user.getPerson().getId()).toList());
+
+        BulkStatusJob job = awaitFinished(bulkStatusService.changePersonStatus(request));
+
+        assertThat(job.getState()).isEqualTo(BulkStatusJob.State.COMPLETED);
+        assertThat(job.getUpdated()).isEqualTo(OFFBOARDED);
+        assertThat(job.getTokensRevoked()).isEqualTo(OFFBOARDED);
+        assertThat(personRepository.findByIsActive(false)).hasSize(OFFBOARDED);
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changePersonStatus_byFilter_deactivatesMatchingPersonsInChunks() throws InterruptedException {
+        BulkPersonStatusRequest request = new BulkPersonStatusRequest();
+        request.setActive(false);
+        request.setCurrentActive(true);
+        request.setIdNumberPrefix("LEAVER-");
+
+        BulkStatusJob job = awaitFinished(bulkStatusService.changePersonStatus(request));
+
+        assertThat(job.getState()).isEqualTo(BulkStatusJob.State.COMPLETED);
+        assertThat(job.getTotal()).isEqualTo(OFFBOARDED);
+        assertThat(job.getUpdated()).isEqualTo(OFFBOARDED);
+        assertThat(job.getTokensRevoked()).isEqualTo(OFFBOARDED);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(personRepository.findByIsActive(false))
+                .hasSize(OFFBOARDED)
+                .allSatisfy(person -> assertThat(person.getIdNumber()).startsWith("LEAVER-"));
+    }
+
+    @Test
+    @WithMockUser(username = "offboarding-admin", roles = {"ADMIN"})
+    void changeUserStatus_storesProgress_forPollsOnOtherNodes() throws InterruptedException {
+        BulkUserStatusRequest request = new BulkUserStatusRequest();
+        request.setStatus(UserStatus.INACTIVE);
+        request.setUsernameSuffix("@contractor.example.com");
+
+        BulkStatusJob job = awaitFinished(bulkStatusService.changeUserStatus(request));
+
+        BulkStatusJob stored = awaitStored(job.getId());
+        assertThat(stored.getState()).isEqualTo(BulkStatusJob.State.COMPLETED);
+        assertThat(stored.getTarget()).isEqualTo(BulkStatusJob.Target.USERS);
+        assertThat(stored.getRequestedBy()).isEqualTo("offboarding-admin");
+        assertThat(stored.getTotal()).isEqualTo(OFFBOARDED);
+        assertThat(stored.getProcessed()).isEqualTo(job.getProcessed());
+        assertThat(stored.getUpdated()).isEqualTo(job.getUpdated());
+        assertThat(stored.getTokensRevoked()).isEqualTo(job.getTokensRevoked());
+        assertThat(stored.getChunks()).isEqualTo(job.getChunks());
+        assertThat(stored.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void findJob_findsAJobStartedOnAnotherNode() {
+        // inserted straight into the table, as the node running it would: this node has it nowhere in memory
+        BulkStatusJob remote = new BulkStatusJob(UUID.randomUUID(), BulkStatusJob.Target.PERSONS, "other-node-admin", 42);
+        bulkStatusJobRepository.insert(remote);
+        bulkStatusJobRepository.addChunk(remote.getId(), 7, 5, 3);
+
+        BulkStatusJob found = bulkStatusService.findJob(remote.getId()).orElseThrow();
+
+        assertThat(found.getState()).isEqualTo(BulkStatusJob.State.RUNNING);
+        assertThat(found.getTarget()).isEqualTo(BulkStatusJob.Target.PERSONS);
+        assertThat(found.getTotal()).isEqualTo(42);
+        assertThat(found.getProcessed()).isEqualTo(7);
+        assertThat(found.getUpdated()).isEqualTo(5);
+        assertThat(found.getTokensRevoked()).isEqualTo(3);
+        assertThat(found.getChunks()).isEqualTo(1);
+    }
+
+    private List<User> createUsers(String prefix, String domain, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Person person = personRepository.save(TestEntityFactory.createPerson(prefix.toUpperCase() + "-" + i, true));
+            User user = User.builder()
+                    .username(prefix + i + domain)
+                    .passwordHash("not-a-real-hash")
+                    .person(person)
+                    .userStatus(UserStatus.ACTIVE)
+                    .build();
+            user.setCreatedAt(LocalDateTime.now());
+            user.setCreatedBy("test");
+            user = userRepository.save(user);
+            users.add(user);
+
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .token("refresh-" + prefix + i)
+                    .user(user)
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .revoked(false)
+                    .build());
+        }
+        return users;
+    }
+
+    // the outcome is stored right after the in-memory job finishes
+    private BulkStatusJob awaitStored(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        BulkStatusJob stored = bulkStatusJobRepository.findById(jobId).orElseThrow();
+        while (!stored.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            stored = bulkStatusJobRepository.findById(jobId).orElseThrow();
+        }
+        return stored;
+    }
+
+    private static BulkStatusJob awaitFinished(BulkStatusJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job.isFinished()).as("job %s finished", job.getId()).isTrue();
+        return job;
+    }
+}
@@ -7,6 +7,7 @@ import com.quetoquenana.userservice.model.DefaultData;
 import com.quetoquenana.userservice.model.DataCategory;
 import com.quetoquenana.userservice.model.UserStatus;
 import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.DefaultDataService;
 import com.quetoquenana.userservice.util.TestEntityFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,7 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +40,8 @@ class DefaultDataControllerIT extends AbstractIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DefaultDataService defaultDataService;
     @Autowired
     private DefaultDataRepository defaultDataRepository;
     @Autowired
@@ -52,6 +56,7 @@ class DefaultDataControllerIT extends AbstractIntegrationTest {
     @BeforeEach
     void setUp() {
         defaultDataRepository.deleteAll();
+        defaultDataService.reloadCatalog();
         applicationRepository.deleteAll();
         userRepository.deleteAll();
         personRepository.deleteAll();
@@ -71,7 +76,8 @@ class DefaultDataControllerIT extends AbstractIntegrationTest {
         userRepository.save(systemUser);
     }
 
-    // helper to create and persist DefaultData with required id and audit fields
+    // helper to create and persist DefaultData with required id and audit fields; written around the service,
+    // so the in-memory catalog is reloaded by hand
     private DefaultData saveDefaultData(DataCategory category, String name, String description) {
         DefaultData d = DefaultData.builder()
                 .dataCategory(category)
@@ -82,7 +88,9 @@ class DefaultDataControllerIT extends AbstractIntegrationTest {
         d.setId(UUID.randomUUID());
         d.setCreatedAt(LocalDateTime.now());
         d.setCreatedBy("system");
-        return defaultDataRepository.save(d);
+        d = defaultDataRepository.save(d);
+        defaultDataService.reloadCatalog();
+        return d;
     }
 
     @Test
@@ -157,4 +165,35 @@ class DefaultDataControllerIT extends AbstractIntegrationTest {
                 .andExpect(status().isNoContent());
 
     }
+
+    @Test
+    @WithMockUser(username = "system", roles = {"SYSTEM"})
+    void getDefaultDataByCategory_withCurrentETag_returnsNotModifiedUntilDataChanges() throws Exception {
+        saveDefaultData(DataCategory.ROLE, "ADMIN", "admin");
+
+        String eTag = mockMvc.perform(get("/api/default-data/page/category/ROLE").header("X-Application-Name","user-service"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/default-data/page/category/ROLE").header("X-Application-Name","user-service")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        DefaultDataCreateRequest createReq = new DefaultDataCreateRequest();
+        createReq.setDataCategory("ROLE");
+        createReq.setName("AUDITOR");
+        createReq.setDescription("auditor");
+        mockMvc.perform(post("/api/default-data")
+                        .header("X-Application-Name","user-service")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createReq)))
+                .andExpect(status().isCreated());
+
+        // the create reloads the catalog after commit: new version, new ETag
+        mockMvc.perform(get("/api/default-data/page/category/ROLE").header("X-Application-Name","user-service")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2));
+    }
 }
@@ -0,0 +1,207 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.util.TestDataSeeder;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Open-session-in-view is off, so a 200 here also means the JsonView found everything it serializes already
+ * loaded. The statement counts stay the same however many phones, addresses, roles or rows there are.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+@WithMockUser(username = FetchPlanQueryCountIT.USERNAME, roles = {"ADMIN", "SYSTEM"})
+class FetchPlanQueryCountIT extends AbstractIntegrationTest {
+
+    static final String USERNAME = "fetch-plan@example.com";
+    private static final int EXTRA_USERS = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProfileRepository profileRepository;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Statistics statistics;
+    private Person person;
+    private User user;
+    private Application application;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        profileRepository.deleteAll();
+        phoneRepository.deleteAll();
+        addressRepository.deleteAll();
+        personRepository.deleteAll();
+
+        person = TestEntityFactory.createPerson();
+        person.addPhone(TestEntityFactory.createPhone(person, "111111111"));
+        person.addPhone(TestEntityFactory.createPhone(person, "222222222"));
+        person.addPhone(TestEntityFactory.createPhone(person, "333333333"));
+        person.addAddress(TestEntityFactory.createAddress(person));
+        person.addAddress(TestEntityFactory.createAddress(person, "Other"));
+        person.setProfile(TestEntityFactory.createProfile(person));
+        person = personRepository.save(person);
+
+        user = TestDataSeeder.seedUserWithRole(
+                applicationRepository,
+                appRoleRepository,
+                userRepository,
+                appRoleUserRepository,
+                passwordEncoder,
+                person,
+                "fetch-plan-app",
+                "USER",
+                USERNAME,
+                "password"
+        );
+        application = applicationRepository.findByName("fetch-plan-app").orElseThrow();
+        for (String roleName : new String[] {"AUDITOR", "EDITOR", "VIEWER"}) {
+            AppRole role = AppRole.builder().roleName(roleName).description(roleName).application(application).build();
+            role.setCreatedAt(LocalDateTime.now());
+            role.setCreatedBy("test");
+            AppRole saved = appRoleRepository.save(role);
+            AppRoleUser mapping = AppRoleUser.of(user, saved);
+            mapping.setCreatedAt(LocalDateTime.now());
+            mapping.setCreatedBy("test");
+            appRoleUserRepository.save(mapping);
+        }
+
+        for (int i = 0; i < EXTRA_USERS; i++) {
+            Person other = personRepository.save(TestEntityFactory.createPerson("FETCH-" + i, true));
+            User otherUser = TestEntityFactory.createUser(LocalDateTime.now(), "test");
+            otherUser.setUsername("fetch-plan-" + i + "@example.com");
+            otherUser.setPerson(other);
+            userRepository.save(otherUser);
+        }
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void personDetail_isOneQuery() throws Exception {
+        // the first statement of every @OwnedResource endpoint is the ownership check
+        mockMvc.perform(get("/api/persons/{id}", person.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.phones.length()").value(3))
+                .andExpect(jsonPath("$.data.addresses.length()").value(2))
+                .andExpect(jsonPath("$.data.profile.occupation").value("Engineer"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/persons/idNumber/{idNumber}", person.getIdNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.phones.length()").value(3));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void personOverview_isBuiltByOneJdbcStatement() throws Exception {
+        mockMvc.perform(get("/api/persons/{id}/overview", person.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Success"))
+                .andExpect(jsonPath("$.data.idNumber").value(person.getIdNumber()))
+                // same shape as /api/persons/{id}: one profile object, not the entity's set
+                .andExpect(jsonPath("$.data.profile.occupation").value("Engineer"))
+                .andExpect(jsonPath("$.data.phones.length()").value(3))
+                .andExpect(jsonPath("$.data.addresses.length()").value(2))
+                .andExpect(jsonPath("$.data.users[0].username").value(USERNAME))
+                .andExpect(jsonPath("$.data.users[0].passwordHash").doesNotExist())
+                .andExpect(jsonPath("$.data.users[0].roles.length()").value(4))
+                .andExpect(jsonPath("$.data.users[0].roles[0].applicationName").value("fetch-plan-app"));
+        // Hibernate only sees the ownership check; the overview goes through JdbcTemplate
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void userDetail_fetchesThePersonWithTheUser() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.person.idNumber").value(person.getIdNumber()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/users/username/{username}", USERNAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.person.name").value(person.getName()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userApplicationRoles_isOneQueryForAllRoles() throws Exception {
+        mockMvc.perform(get("/api/users/{idUser}/{idApplication}", user.getId(), application.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(4));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void applicationDetail_fetchesTheRolesWithTheApplication() throws Exception {
+        mockMvc.perform(get("/api/applications/{id}", application.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.roles.length()").value(4));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listPages_doNotTouchAssociations() throws Exception {
+        mockMvc.perform(get("/api/users/page").param("size", "50").param("exactTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1 + EXTRA_USERS));
+        // the page and its count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/persons/page").param("size", "50").param("exactTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1 + EXTRA_USERS));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
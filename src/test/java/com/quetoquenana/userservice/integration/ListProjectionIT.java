@@ -0,0 +1,156 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.dto.PersonSummary;
+import com.quetoquenana.userservice.dto.UserSummary;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.repository.UserImportJdbcRepository.PersonInsert;
+import com.quetoquenana.userservice.repository.UserImportJdbcRepository.UserInsert;
+import com.quetoquenana.userservice.service.PersonService;
+import com.quetoquenana.userservice.service.UserService;
+import com.quetoquenana.userservice.util.JsonViewCursorPage;
+import com.quetoquenana.userservice.util.PageCursor;
+import com.quetoquenana.userservice.util.UuidV7;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * List reads return {@link UserSummary}/{@link PersonSummary} rows straight from the constructor expression.
+ * The last test is a coarse benchmark against loading the same page as managed entities; it logs
+ * the per-page allocation and latency of both.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+class ListProjectionIT extends AbstractIntegrationTest {
+
+    private static final int ROWS = 250;
+    private static final int PAGE_SIZE = 100;
+    private static final int ROUNDS = 30;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserImportJdbcRepository userImportJdbcRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+
+        List<PersonInsert> persons = new ArrayList<>();
+        List<UserInsert> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            UUID personId = UuidV7.next();
+            persons.add(new PersonInsert(personId, "LIST-" + i, "Name" + i, "Lastname" + i));
+            users.add(new UserInsert(UuidV7.next(), personId, "list-" + i + "@example.com", "not-a-real-hash", "nick" + i));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        userImportJdbcRepository.insertPersons(persons, now, "test");
+        userImportJdbcRepository.insertUsers(users, now, "test");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pages_loadNoEntities() {
+        Page<UserSummary> users = userService.findAll(PageRequest.of(0, PAGE_SIZE), true);
+        Page<PersonSummary> persons = personService.findAll(PageRequest.of(1, PAGE_SIZE), true);
+
+        assertThat(users.getContent()).hasSize(PAGE_SIZE);
+        assertThat(users.getTotalElements()).isEqualTo(ROWS);
+        assertThat(persons.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // page + count, twice
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void cursorPages_walkEveryRowOnce() {
+        List<UUID> seen = new ArrayList<>();
+        JsonViewCursorPage<UserSummary> page = userService.findAfter(null, PAGE_SIZE);
+        page.getContent().forEach(user -> seen.add(user.id()));
+        while (page.isHasNext()) {
+            page = userService.findAfter(PageCursor.decode(page.getNextCursor()), PAGE_SIZE);
+            page.getContent().forEach(user -> seen.add(user.id()));
+        }
+
+        assertThat(seen).hasSize(ROWS).doesNotHaveDuplicates();
+        assertThat(personService.findByIsActive(true)).hasSize(ROWS);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void summaryPage_allocatesLessThanAnEntityPage() {
+        PageRequest pageable = PageRequest.of(1, PAGE_SIZE);
+        Supplier<Integer> entities = () -> transactionTemplate.execute(status ->
+                userRepository.findAll(pageable).getNumberOfElements());
+        Supplier<Integer> summaries = () -> userService.findAll(pageable, true).getNumberOfElements();
+
+        // warm-up: query plans, class loading and the JIT
+        measure(entities);
+        measure(summaries);
+        Cost entityCost = measure(entities);
+        Cost summaryCost = measure(summaries);
+
+        log.info("Per {}-row page: entities {} bytes / {} us, summaries {} bytes / {} us", PAGE_SIZE,
+                entityCost.bytes(), entityCost.nanos() / 1_000, summaryCost.bytes(), summaryCost.nanos() / 1_000);
+        assertThat(summaryCost.bytes()).isLessThan(entityCost.bytes());
+    }
+
+    private record Cost(long bytes, long nanos) {}
+
+    private static Cost measure(Supplier<Integer> page) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            assertThat(page.get()).isEqualTo(PAGE_SIZE);
+        }
+        long nanos = System.nanoTime() - start;
+        return new Cost((threads.getThreadAllocatedBytes(thread) - bytes) / ROUNDS, nanos / ROUNDS);
+    }
+}
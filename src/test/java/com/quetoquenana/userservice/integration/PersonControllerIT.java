@@ -18,10 +18,13 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -113,6 +116,38 @@ class PersonControllerIT extends AbstractIntegrationTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void deletePerson_withCurrentVersion_deactivatesAndBumpsVersion() throws Exception {
+        long version = personRepository.findById(person.getId()).orElseThrow().getVersion();
+
+        mockMvc.perform(delete("/api/persons/" + person.getId()).param("version", String.valueOf(version)))
+                .andExpect(status().isNoContent());
+
+        Person deleted = personRepository.findById(person.getId()).orElseThrow();
+        assertThat(deleted.getIsActive()).isFalse();
+        assertThat(deleted.getVersion()).isEqualTo(version + 1);
+        assertThat(deleted.getUpdatedBy()).isNotNull();
+
+        // already inactive at the expected version: nothing to do
+        mockMvc.perform(delete("/api/persons/" + person.getId()).param("version", String.valueOf(version + 1)))
+                .andExpect(status().isNoContent());
+        assertThat(personRepository.findById(person.getId()).orElseThrow().getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void deletePerson_withStaleVersion_returnsConflict() throws Exception {
+        long version = personRepository.findById(person.getId()).orElseThrow().getVersion();
+
+        mockMvc.perform(delete("/api/persons/" + person.getId()).param("version", String.valueOf(version + 5)))
+                .andExpect(status().isConflict());
+
+        Person unchanged = personRepository.findById(person.getId()).orElseThrow();
+        assertThat(unchanged.getIsActive()).isTrue();
+        assertThat(unchanged.getVersion()).isEqualTo(version);
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void getPerson_notFound_returnsForbidden() throws Exception {
@@ -120,4 +155,56 @@ class PersonControllerIT extends AbstractIntegrationTest {
         mockMvc.perform(get("/api/persons/" + notFound))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void getPersonsCursor_walksAllPersonsInCreationOrder() throws Exception {
+        LocalDateTime base = person.getCreatedAt();
+        Person second = personRepository.save(TestEntityFactory.createPerson(base.plusSeconds(1), "test", "ID000002", true));
+        Person third = personRepository.save(TestEntityFactory.createPerson(base.plusSeconds(2), "test", "ID000003", true));
+
+        String body = mockMvc.perform(get("/api/persons/cursor").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andExpect(jsonPath("$.data.content[0].id").value(person.getId().toString()))
+                .andExpect(jsonPath("$.data.content[1].id").value(second.getId().toString()))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).at("/data/nextCursor").asText();
+
+        mockMvc.perform(get("/api/persons/cursor").param("cursor", cursor).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(third.getId().toString()))
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void getPersonsCursor_invalidCursor_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/persons/cursor").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void exportPersons_streamsOneLinePerPerson() throws Exception {
+        Person quoted = TestEntityFactory.createPerson("ID000004", false);
+        quoted.setLastname("O\"Neil, Jr");
+        personRepository.save(quoted);
+
+        String ndjson = mockMvc.perform(get("/api/persons/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines().toList()).hasSize(2).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+
+        String csv = mockMvc.perform(get("/api/persons/export").param("status", "false").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines().toList()).containsExactly(
+                "id,idNumber,name,lastname,isActive",
+                quoted.getId() + ",ID000004,John,\"O\"\"Neil, Jr\",false"
+        );
+    }
 }
@@ -0,0 +1,147 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+class SecondLevelCacheIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PersonRepository personRepository;
+
+    private Statistics statistics;
+    private Application application;
+    private AppRole role;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        personRepository.deleteAll();
+
+        application = Application.builder().name("cached-app").code("CACHED01").description("d").active(true).build();
+        application.setCreatedAt(LocalDateTime.now());
+        application.setCreatedBy("test");
+        application = applicationRepository.save(application);
+
+        role = AppRole.builder().roleName("USER").application(application).build();
+        role.setCreatedAt(LocalDateTime.now());
+        role.setCreatedBy("test");
+        role = appRoleRepository.save(role);
+
+        Person person = personRepository.save(TestEntityFactory.createPerson("CACHE-1", true));
+        user = User.builder()
+                .username("cached@example.com")
+                .passwordHash("not-a-real-hash")
+                .person(person)
+                .userStatus(UserStatus.ACTIVE)
+                .build();
+        user.setCreatedAt(LocalDateTime.now());
+        user.setCreatedBy("test");
+        user = userRepository.save(user);
+
+        AppRoleUser mapping = AppRoleUser.of(user, role);
+        mapping.setCreatedAt(LocalDateTime.now());
+        mapping.setCreatedBy("test");
+        appRoleUserRepository.save(mapping);
+
+        // every test starts cold
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByCode_secondLookupIsServedFromTheNaturalIdCache() {
+        assertThat(applicationRepository.findByCode("CACHED01")).isPresent();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(applicationRepository.findByCode("CACHED01")).get()
+                .extracting(Application::getId).isEqualTo(application.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getCacheRegionStatistics("application-by-code").getHitCount()).isPositive();
+        assertThat(statistics.getCacheRegionStatistics("application").getHitCount()).isPositive();
+    }
+
+    @Test
+    void findByApplicationIdAndRoleName_secondLookupIsServedFromTheNaturalIdCache() {
+        assertThat(appRoleRepository.findByApplicationIdAndRoleName(application.getId(), "USER")).isPresent();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(appRoleRepository.findByApplicationIdAndRoleName(application.getId(), "USER")).get()
+                .extracting(AppRole::getId).isEqualTo(role.getId());
+        assertThat(appRoleRepository.findByApplicationIdAndRoleName(application.getId(), "MISSING")).isEmpty();
+
+        // only the unknown name reached the database
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 1);
+        assertThat(statistics.getCacheRegionStatistics("app-role-by-application-and-name").getHitCount()).isPositive();
+        assertThat(statistics.getCacheRegionStatistics("app-role").getHitCount()).isPositive();
+    }
+
+    @Test
+    void appRoleUserLoad_takesRoleAndApplicationFromTheCache() {
+        String warm = loadApplicationNameThroughMapping();
+        long coldStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        assertThat(loadApplicationNameThroughMapping()).isEqualTo(warm).isEqualTo("cached-app");
+
+        assertThat(statistics.getCacheRegionStatistics("app-role").getHitCount()).isPositive();
+        assertThat(statistics.getCacheRegionStatistics("application").getHitCount()).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(coldStatements);
+    }
+
+    @Test
+    void findByName_usesTheQueryCache_untilTheTableChanges() {
+        assertThat(applicationRepository.findByName("cached-app")).isPresent();
+        assertThat(applicationRepository.findByName("cached-app")).isPresent();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        Application renamed = applicationRepository.findById(application.getId()).orElseThrow();
+        renamed.setName("renamed-app");
+        applicationRepository.save(renamed);
+
+        assertThat(applicationRepository.findByName("cached-app")).isEmpty();
+        assertThat(applicationRepository.findByName("renamed-app")).isPresent();
+    }
+
+    private String loadApplicationNameThroughMapping() {
+        return transactionTemplate.execute(status -> appRoleUserRepository
+                .findByUserIdAndRoleApplicationId(user.getId(), application.getId())
+                .getFirst().getRole().getApplication().getName());
+    }
+}
@@ -0,0 +1,174 @@
+package com.quetoquenana.userservice.integration;
+
+import com.quetoquenana.userservice.model.*;
+import com.quetoquenana.userservice.repository.*;
+import com.quetoquenana.userservice.service.SecurityService;
+import com.quetoquenana.userservice.util.TestDataSeeder;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+class SecurityServiceIT extends AbstractIntegrationTest {
+
+    private static final String USERNAME = "owner";
+
+    @Autowired
+    private SecurityService securityService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PersonRepository personRepository;
+    @Autowired
+    private ProfileRepository profileRepository;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+
+    // security seeding
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private AppRoleRepository appRoleRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AppRoleUserRepository appRoleUserRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Authentication authentication;
+    private Statistics statistics;
+    private Person person;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        appRoleUserRepository.deleteAll();
+        appRoleRepository.deleteAll();
+        applicationRepository.deleteAll();
+        userRepository.deleteAll();
+        profileRepository.deleteAll();
+        phoneRepository.deleteAll();
+        addressRepository.deleteAll();
+        personRepository.deleteAll();
+
+        person = TestEntityFactory.createPerson();
+        person.addPhone(TestEntityFactory.createPhone(person, "123456789"));
+        person.addPhone(TestEntityFactory.createPhone(person, "987654321"));
+        person.addAddress(TestEntityFactory.createAddress(person));
+        person.addAddress(TestEntityFactory.createAddress(person, "Other"));
+        person.setProfile(TestEntityFactory.createProfile(person));
+        person = personRepository.save(person);
+
+        user = TestDataSeeder.seedUserWithRole(
+                applicationRepository,
+                appRoleRepository,
+                userRepository,
+                appRoleUserRepository,
+                passwordEncoder,
+                person,
+                "user-service",
+                "USER",
+                USERNAME,
+                "password"
+        );
+
+        authentication = new UsernamePasswordAuthenticationToken(USERNAME.toUpperCase(), null, List.of());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void ownershipChecks_grantOwnResources_withOneStatementEach() {
+        UUID phoneId = phoneRepository.findByPersonId(person.getId()).getLast().getId();
+        UUID addressId = addressRepository.findByPersonId(person.getId()).getLast().getId();
+
+        assertSingleStatement(() -> securityService.canAccessIdNumber(authentication, person.getIdNumber()), true);
+        assertSingleStatement(() -> securityService.canAccessIdPerson(authentication, person.getId()), true);
+        assertSingleStatement(() -> securityService.canAccessIdProfile(authentication, person.getId()), true);
+        assertSingleStatement(() -> securityService.canAccessIdPhone(authentication, phoneId), true);
+        assertSingleStatement(() -> securityService.canAccessIdAddress(authentication, addressId), true);
+        assertSingleStatement(() -> securityService.canAccessIdUser(authentication, user.getId()), true);
+    }
+
+    @Test
+    void ownershipChecks_denyOtherResources_withOneStatementEach() {
+        Person other = TestEntityFactory.createPerson("ID999999", true);
+        other.addPhone(TestEntityFactory.createPhone(other, "555555555"));
+        other.addAddress(TestEntityFactory.createAddress(other));
+        other.setProfile(TestEntityFactory.createProfile(other));
+        other = personRepository.save(other);
+        UUID otherPhoneId = phoneRepository.findByPersonId(other.getId()).getFirst().getId();
+        UUID otherAddressId = addressRepository.findByPersonId(other.getId()).getFirst().getId();
+        UUID otherId = other.getId();
+
+        assertSingleStatement(() -> securityService.canAccessIdNumber(authentication, "ID999999"), false);
+        assertSingleStatement(() -> securityService.canAccessIdPerson(authentication, otherId), false);
+        assertSingleStatement(() -> securityService.canAccessIdProfile(authentication, otherId), false);
+        assertSingleStatement(() -> securityService.canAccessIdPhone(authentication, otherPhoneId), false);
+        assertSingleStatement(() -> securityService.canAccessIdAddress(authentication, otherAddressId), false);
+        assertSingleStatement(() -> securityService.canAccessIdUser(authentication, UUID.randomUUID()), false);
+    }
+
+    @Test
+    void forgotPasswordReset_letsExactlyOneConcurrentRequestThrough() throws Exception {
+        int requests = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    LocalDateTime now = LocalDateTime.now();
+                    return userRepository.resetPasswordUnlessRecentlyRequested(
+                            USERNAME, "hash", UserStatus.RESET, now.minusSeconds(300), now);
+                }));
+            }
+            start.countDown();
+            int reset = 0;
+            for (Future<Integer> result : results) {
+                reset += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(reset).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        User stored = userRepository.findByUsernameIgnoreCase(USERNAME).orElseThrow();
+        assertThat(stored.getUserStatus()).isEqualTo(UserStatus.RESET);
+        assertThat(stored.getResetRequestedAt()).isNotNull();
+    }
+
+    private void assertSingleStatement(BooleanSupplier check, boolean expected) {
+        statistics.clear();
+        assertThat(check.getAsBoolean()).isEqualTo(expected);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -6,12 +6,14 @@ import com.quetoquenana.userservice.config.SecurityConfig;
 import com.quetoquenana.userservice.controller.ApplicationController;
 import com.quetoquenana.userservice.dto.AppRoleCreateRequest;
 import com.quetoquenana.userservice.dto.ApplicationCreateRequest;
+import com.quetoquenana.userservice.dto.UserImportResponse;
 import com.quetoquenana.userservice.model.Application;
 import com.quetoquenana.userservice.repository.AppRoleUserRepository;
 import com.quetoquenana.userservice.repository.ApplicationRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
 import com.quetoquenana.userservice.service.ApplicationService;
 import com.quetoquenana.userservice.service.SecurityService;
+import com.quetoquenana.userservice.service.UserImportService;
 import com.quetoquenana.userservice.util.JsonPayloadToObjectBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -30,11 +32,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,6 +53,9 @@ class ApplicationControllerSecurityTest {
     @MockitoBean
     private ApplicationService applicationService;
 
+    @MockitoBean
+    private UserImportService userImportService;
+
     // Mock beans required by SecurityConfig
     @MockitoBean
     private CorsConfigProperties corsConfigProperties;
@@ -195,7 +203,7 @@ class ApplicationControllerSecurityTest {
     @DisplayName("GET /api/applications/page returns 200")
     @WithMockUser(username = "system", roles = {"SYSTEM"})
     void getApplicationsPage_Returns200() throws Exception {
-        when(applicationService.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(applicationService.findAll(any(Pageable.class), anyBoolean())).thenReturn(Page.empty());
         mockMvc.perform(get("/api/applications/page"))
                 .andExpect(status().isOk());
     }
@@ -320,4 +328,39 @@ class ApplicationControllerSecurityTest {
         mockMvc.perform(delete("/api/applications/{id}/user/{username}", UUID.randomUUID(), "someuser"))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("POST /api/applications/{id}/user/import returns 200 for ADMIN")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void ImportUsers_Returns200() throws Exception {
+        when(userImportService.importUsers(any(UUID.class), eq("USER"), any(), any()))
+                .thenReturn(new UserImportResponse(List.of()));
+
+        mockMvc.perform(post("/api/applications/{id}/user/import", UUID.randomUUID())
+                .param("roleName", "USER")
+                .contentType("text/csv")
+                .content("username,idNumber,name,lastname\r\n"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("POST /api/applications/{id}/user/import returns 403 for forbidden")
+    @WithMockUser(username = "user")
+    void ImportUsers_Returns403() throws Exception {
+        mockMvc.perform(post("/api/applications/{id}/user/import", UUID.randomUUID())
+                .param("roleName", "USER")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("POST /api/applications/{id}/user/import returns 401 when unauthenticated")
+    void ImportUsers_Returns401() throws Exception {
+        mockMvc.perform(post("/api/applications/{id}/user/import", UUID.randomUUID())
+                .param("roleName", "USER")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,67 @@
+package com.quetoquenana.userservice.security;
+
+import com.quetoquenana.userservice.config.RoleHierarchyConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledRoleHierarchyTest {
+
+    private final RoleHierarchyConfig hierarchy = new RoleHierarchyConfig();
+
+    @Test
+    void reachable_followsTransitiveClosure() {
+        assertEquals(Set.of("ROLE_SYSTEM", "ROLE_ADMIN", "ROLE_USER"), names(hierarchy.getReachableGrantedAuthorities(roles("ROLE_SYSTEM"))));
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), names(hierarchy.getReachableGrantedAuthorities(roles("ROLE_ADMIN"))));
+        assertEquals(Set.of("ROLE_USER"), names(hierarchy.getReachableGrantedAuthorities(roles("ROLE_USER"))));
+    }
+
+    @Test
+    void reachable_repeatedDecisions_returnSameImmutableInstance() {
+        Collection<? extends GrantedAuthority> first = hierarchy.getReachableGrantedAuthorities(roles("ROLE_ADMIN"));
+        Collection<? extends GrantedAuthority> second = hierarchy.getReachableGrantedAuthorities(roles("ROLE_ADMIN", "ROLE_USER"));
+
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> first.clear());
+    }
+
+    @Test
+    void reachable_keepsUnknownAuthorities() {
+        Collection<? extends GrantedAuthority> reachable = hierarchy.getReachableGrantedAuthorities(
+                roles("ROLE_ADMIN", "SCOPE_read", "SCOPE_read"));
+
+        assertEquals(3, reachable.size());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER", "SCOPE_read"), names(reachable));
+        assertTrue(hierarchy.getReachableGrantedAuthorities(List.of()).isEmpty());
+    }
+
+    @Test
+    void compile_handlesCyclesAndRejectsOversizedHierarchies() {
+        CompiledRoleHierarchy cyclic = new CompiledRoleHierarchy(Map.of(
+                "A", Set.of("B"),
+                "B", Set.of("C"),
+                "C", Set.of("A")
+        ));
+        assertEquals(Set.of("A", "B", "C"), names(cyclic.getReachableGrantedAuthorities(roles("B"))));
+
+        Map<String, Set<String>> tooMany = new HashMap<>();
+        for (int i = 0; i < CompiledRoleHierarchy.MAX_ROLES; i++) {
+            tooMany.put("ROLE_" + i, Set.of("ROLE_" + (i + 1)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CompiledRoleHierarchy(tooMany));
+    }
+
+    private static List<GrantedAuthority> roles(String... roles) {
+        return AuthorityUtils.createAuthorityList(roles);
+    }
+
+    private static Set<String> names(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> names = new HashSet<>();
+        authorities.forEach(a -> names.add(a.getAuthority()));
+        return names;
+    }
+}
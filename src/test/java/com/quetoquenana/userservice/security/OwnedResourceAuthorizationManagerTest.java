@@ -0,0 +1,104 @@
+package com.quetoquenana.userservice.security;
+
+import com.quetoquenana.userservice.service.SecurityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OwnedResourceAuthorizationManagerTest {
+
+    private static final Authentication USER =
+            new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private SecurityService securityService;
+    private OwnedResourceAuthorizationManager manager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        securityService = mock(SecurityService.class);
+        ObjectProvider<SecurityService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(securityService);
+        manager = new OwnedResourceAuthorizationManager(provider);
+    }
+
+    @Test
+    void check_bindsAnnotatedParameter() throws Exception {
+        UUID idPhone = UUID.randomUUID();
+        when(securityService.canAccessIdPhone(USER, idPhone)).thenReturn(true);
+
+        assertTrue(manager.check(() -> USER, invocation("updatePhone", "payload", idPhone)).isGranted());
+        assertFalse(manager.check(() -> USER, invocation("updatePhone", "payload", UUID.randomUUID())).isGranted());
+        verify(securityService, times(2)).canAccessIdPhone(eq(USER), any());
+    }
+
+    @Test
+    void check_routesToCheckOfResourceType() throws Exception {
+        when(securityService.canAccessIdNumber(USER, "ID123")).thenReturn(true);
+
+        assertTrue(manager.check(() -> USER, invocation("getByIdNumber", "ID123")).isGranted());
+        verify(securityService).canAccessIdNumber(USER, "ID123");
+        verifyNoMoreInteractions(securityService);
+    }
+
+    @Test
+    void check_anonymousOrNullId_isDeniedWithoutLookup() throws Exception {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertFalse(manager.check(() -> anonymous, invocation("updatePhone", "payload", UUID.randomUUID())).isGranted());
+        assertFalse(manager.check(() -> USER, invocation("updatePhone", "payload", null)).isGranted());
+        verifyNoInteractions(securityService);
+    }
+
+    @Test
+    void compile_rejectsMisconfiguredAnnotations() throws Exception {
+        assertThrows(IllegalStateException.class, () -> manager.compile(method("unknownParam")));
+        assertThrows(IllegalStateException.class, () -> manager.compile(method("wrongIdType")));
+    }
+
+    private static SimpleMethodInvocation invocation(String name, Object... args) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(new Endpoints(), method(name), args);
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return List.of(Endpoints.class.getDeclaredMethods()).stream()
+                .filter(m -> m.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchMethodException(name));
+    }
+
+    @SuppressWarnings("unused")
+    static class Endpoints {
+
+        @OwnedResource(type = OwnedResourceType.PHONE, param = "idPhone")
+        void updatePhone(String payload, UUID idPhone) {
+        }
+
+        @OwnedResource(type = OwnedResourceType.ID_NUMBER, param = "idNumber")
+        void getByIdNumber(String idNumber) {
+        }
+
+        @OwnedResource(type = OwnedResourceType.PERSON, param = "idPerson")
+        void unknownParam(UUID id) {
+        }
+
+        @OwnedResource(type = OwnedResourceType.PERSON, param = "idPerson")
+        void wrongIdType(String idPerson) {
+        }
+    }
+}
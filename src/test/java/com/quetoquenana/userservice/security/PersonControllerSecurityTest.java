@@ -1,6 +1,7 @@
 package com.quetoquenana.userservice.security;
 
 import com.quetoquenana.userservice.config.CorsConfigProperties;
+import com.quetoquenana.userservice.config.MethodSecurityConfig;
 import com.quetoquenana.userservice.config.RsaKeyProperties;
 import com.quetoquenana.userservice.config.SecurityConfig;
 import com.quetoquenana.userservice.controller.PersonController;
@@ -8,6 +9,8 @@ import com.quetoquenana.userservice.dto.PersonCreateRequest;
 import com.quetoquenana.userservice.repository.AppRoleUserRepository;
 import com.quetoquenana.userservice.repository.ApplicationRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.ExportService;
 import com.quetoquenana.userservice.service.PersonService;
 import com.quetoquenana.userservice.service.SecurityService;
 import com.quetoquenana.userservice.util.JsonPayloadToObjectBuilder;
@@ -21,6 +24,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
@@ -32,7 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PersonController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, MethodSecurityConfig.class})
 class PersonControllerSecurityTest {
     @Autowired
     private MockMvc mockMvc;
@@ -40,6 +44,12 @@ class PersonControllerSecurityTest {
     @MockBean
     private PersonService personService;
 
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private BulkStatusService bulkStatusService;
+
     // Mock beans required by SecurityConfig
     @MockBean
     private CorsConfigProperties corsConfigProperties;
@@ -63,7 +73,7 @@ class PersonControllerSecurityTest {
     @MockBean
     private JwtEncoder jwtEncoder;
 
-    // Mock SecurityService bean name for method-security SpEL if needed
+    // Mock SecurityService bean used by the @OwnedResource checks
     @MockBean(name = "securityService")
     private SecurityService securityService;
 
@@ -120,4 +130,21 @@ class PersonControllerSecurityTest {
                         .content(payload))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    @DisplayName("GET /api/persons/export returns 401 when unauthenticated")
+    void exportPersons_Unauthenticated_Returns401() throws Exception {
+        mockMvc.perform(get("/api/persons/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("POST /api/persons/bulk-status returns 403 for USER role")
+    @WithMockUser(username = "user", roles = {"USER"})
+    void changePersonsStatus_UserRole_Returns403() throws Exception {
+        mockMvc.perform(post("/api/persons/bulk-status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"active\":false,\"personIds\":[\"00000000-0000-0000-0000-000000000000\"]}"))
+                .andExpect(status().isForbidden());
+    }
 }
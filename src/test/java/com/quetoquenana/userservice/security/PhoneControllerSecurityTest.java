@@ -1,6 +1,7 @@
 package com.quetoquenana.userservice.security;
 
 import com.quetoquenana.userservice.config.CorsConfigProperties;
+import com.quetoquenana.userservice.config.MethodSecurityConfig;
 import com.quetoquenana.userservice.config.RsaKeyProperties;
 import com.quetoquenana.userservice.config.SecurityConfig;
 import com.quetoquenana.userservice.controller.PhoneController;
@@ -33,7 +34,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PhoneController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, MethodSecurityConfig.class})
 class PhoneControllerSecurityTest {
     @Autowired
     private MockMvc mockMvc;
@@ -64,7 +65,7 @@ class PhoneControllerSecurityTest {
     @MockBean
     private JwtEncoder jwtEncoder;
 
-    // Mock SecurityService bean name for method-security SpEL if needed
+    // Mock SecurityService bean used by the @OwnedResource checks
     @MockBean(name = "securityService")
     private SecurityService securityService;
 
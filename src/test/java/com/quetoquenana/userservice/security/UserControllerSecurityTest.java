@@ -1,13 +1,17 @@
 package com.quetoquenana.userservice.security;
 
 import com.quetoquenana.userservice.config.CorsConfigProperties;
+import com.quetoquenana.userservice.config.MethodSecurityConfig;
 import com.quetoquenana.userservice.config.RsaKeyProperties;
 import com.quetoquenana.userservice.config.SecurityConfig;
 import com.quetoquenana.userservice.controller.UserController;
+import com.quetoquenana.userservice.dto.BulkStatusJob;
 import com.quetoquenana.userservice.dto.UserCreateRequest;
 import com.quetoquenana.userservice.repository.AppRoleUserRepository;
 import com.quetoquenana.userservice.repository.ApplicationRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.BulkStatusService;
+import com.quetoquenana.userservice.service.ExportService;
 import com.quetoquenana.userservice.service.UserService;
 import com.quetoquenana.userservice.service.SecurityService;
 import com.quetoquenana.userservice.util.JsonPayloadToObjectBuilder;
@@ -26,14 +30,16 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.UUID;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, MethodSecurityConfig.class})
 class UserControllerSecurityTest {
     @Autowired
     private MockMvc mockMvc;
@@ -41,6 +47,12 @@ class UserControllerSecurityTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private BulkStatusService bulkStatusService;
+
     // Mock beans required by SecurityConfig
     @MockitoBean
     private CorsConfigProperties corsConfigProperties;
@@ -64,7 +76,7 @@ class UserControllerSecurityTest {
     @MockitoBean
     private JwtEncoder jwtEncoder;
 
-    // Mock SecurityService bean name for method-security SpEL if needed
+    // Mock SecurityService bean used by the @OwnedResource checks
     @MockitoBean(name = "securityService")
     private SecurityService securityService;
 
@@ -123,4 +135,53 @@ class UserControllerSecurityTest {
         mockMvc.perform(delete("/api/users/{id}", "00000000-0000-0000-0000-000000000000"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("GET /api/users/export returns 401 when unauthenticated")
+    void exportUsers_Unauthenticated_Returns401() throws Exception {
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("POST /api/users/bulk-status returns 202 with the job for ADMIN role")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void changeUsersStatus_AdminRole_Returns202() throws Exception {
+        BulkStatusJob job = new BulkStatusJob(UUID.randomUUID(), BulkStatusJob.Target.USERS, "admin", 2);
+        when(bulkStatusService.changeUserStatus(any())).thenReturn(job);
+
+        mockMvc.perform(post("/api/users/bulk-status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"BLOCKED\",\"userIds\":[\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/users/bulk-status/" + job.getId())))
+                .andExpect(jsonPath("$.data.state").value("RUNNING"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/bulk-status returns 400 when both ids and a filter are given")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void changeUsersStatus_IdsAndFilter_Returns400() throws Exception {
+        mockMvc.perform(post("/api/users/bulk-status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"BLOCKED\",\"currentStatus\":\"ACTIVE\",\"userIds\":[\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/users/bulk-status returns 403 for USER role")
+    @WithMockUser(username = "user", roles = {"USER"})
+    void changeUsersStatus_UserRole_Returns403() throws Exception {
+        mockMvc.perform(post("/api/users/bulk-status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"BLOCKED\",\"currentStatus\":\"ACTIVE\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/bulk-status/{jobId} returns 401 when unauthenticated")
+    void getUsersStatusJob_Unauthenticated_Returns401() throws Exception {
+        mockMvc.perform(get("/api/users/bulk-status/{jobId}", UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,91 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.model.AppRole;
+import com.quetoquenana.userservice.model.AppRoleImplication;
+import com.quetoquenana.userservice.model.Application;
+import com.quetoquenana.userservice.repository.AppRoleImplicationRepository;
+import com.quetoquenana.userservice.repository.ApplicationRepository;
+import com.quetoquenana.userservice.service.impl.AppRoleHierarchyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Another node's commit publishes no event here: the scheduled reload is what picks it up.
+ */
+class AppRoleHierarchyServiceImplTest {
+
+    private static final String APP = "hierarchy-app";
+
+    private AppRoleImplicationRepository appRoleImplicationRepository;
+    private AppRoleHierarchyServiceImpl hierarchyService;
+    private Application application;
+
+    @BeforeEach
+    void setUp() {
+        appRoleImplicationRepository = mock(AppRoleImplicationRepository.class);
+        hierarchyService = new AppRoleHierarchyServiceImpl(appRoleImplicationRepository, mock(ApplicationRepository.class));
+        application = Application.builder().id(UUID.randomUUID()).name(APP).build();
+    }
+
+    @Test
+    void reloadAll_picksUpImplicationsAddedAfterStartup() {
+        when(appRoleImplicationRepository.findAllBy()).thenReturn(List.of(implication("ADMIN", "EDITOR")));
+        hierarchyService.loadAll();
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_EDITOR"), reachable("ROLE_ADMIN"));
+
+        when(appRoleImplicationRepository.findAllBy()).thenReturn(List.of(
+                implication("ADMIN", "EDITOR"),
+                implication("EDITOR", "VIEWER")));
+        hierarchyService.reloadAll();
+
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_EDITOR", "ROLE_VIEWER"), reachable("ROLE_ADMIN"));
+    }
+
+    @Test
+    void reloadAll_dropsImplicationsRemovedAfterStartup() {
+        when(appRoleImplicationRepository.findAllBy()).thenReturn(List.of(implication("ADMIN", "EDITOR")));
+        hierarchyService.loadAll();
+
+        when(appRoleImplicationRepository.findAllBy()).thenReturn(List.of());
+        hierarchyService.reloadAll();
+
+        assertEquals(Set.of("ROLE_ADMIN"), reachable("ROLE_ADMIN"));
+    }
+
+    @Test
+    void reloadAll_keepsTheCurrentHierarchies_whenTheDatabaseFails() {
+        when(appRoleImplicationRepository.findAllBy()).thenReturn(List.of(implication("ADMIN", "EDITOR")));
+        hierarchyService.loadAll();
+
+        when(appRoleImplicationRepository.findAllBy()).thenThrow(new IllegalStateException("connection refused"));
+        hierarchyService.reloadAll();
+
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_EDITOR"), reachable("ROLE_ADMIN"));
+    }
+
+    private AppRoleImplication implication(String role, String impliedRole) {
+        return AppRoleImplication.of(role(role), role(impliedRole));
+    }
+
+    private AppRole role(String name) {
+        return AppRole.builder().id(UUID.randomUUID()).roleName(name).application(application).build();
+    }
+
+    private Set<String> reachable(String role) {
+        return hierarchyService.getRoleHierarchy(APP)
+                .getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList(role)).stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
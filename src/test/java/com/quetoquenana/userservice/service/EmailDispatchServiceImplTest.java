@@ -0,0 +1,155 @@
+package com.quetoquenana.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quetoquenana.userservice.config.EmailSpillProperties;
+import com.quetoquenana.userservice.dto.EmailTask;
+import com.quetoquenana.userservice.dto.UserEmailInfo;
+import com.quetoquenana.userservice.model.UserStatus;
+import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.impl.EmailDispatchServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailDispatchServiceImplTest {
+
+    private static final String PASSWORD = "Temp-Password-1!";
+    private static final Locale LOCALE = Locale.ENGLISH;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicBoolean saturated = new AtomicBoolean();
+    private EmailService emailService;
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private EmailSpillProperties properties;
+    private EmailDispatchServiceImpl dispatchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        emailService = mock(EmailService.class);
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
+
+        properties = new EmailSpillProperties();
+        properties.setPath(tempDir.resolve("email-spill.journal").toString());
+        properties.setCapacityBytes(4096);
+
+        Executor executor = task -> {
+            if (saturated.get()) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        };
+        dispatchService = new EmailDispatchServiceImpl(
+                emailService, executor, properties, new ObjectMapper(), userRepository, passwordEncoder);
+        dispatchService.openJournal();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatchService.closeJournal();
+    }
+
+    @Test
+    void dispatch_sendsTheGivenPassword_whenTheExecutorAccepts() {
+        UserEmailInfo user = user();
+
+        dispatchService.dispatch(new EmailTask(EmailTask.Type.PASSWORD_RESET, user, PASSWORD, LOCALE));
+
+        verify(emailService).sendPasswordEmail(user, PASSWORD, LOCALE);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void spilledTask_isJournaledWithoutThePassword_andGetsANewOneWhenDrained() throws IOException {
+        UserEmailInfo user = user();
+        saturated.set(true);
+
+        dispatchService.dispatch(new EmailTask(EmailTask.Type.NEW_USER, user, PASSWORD, LOCALE));
+
+        String journal = new String(Files.readAllBytes(Path.of(properties.getPath())), StandardCharsets.UTF_8);
+        assertTrue(journal.contains(user.getUsername()));
+        assertFalse(journal.contains(PASSWORD));
+        verifyNoInteractions(emailService);
+
+        when(userRepository.updatePasswordHashByUsernameAndStatus(
+                eq(user.getUsername()), eq(UserStatus.RESET), eq("encoded"), any(LocalDateTime.class), anyString()))
+                .thenReturn(1);
+        saturated.set(false);
+        dispatchService.drain();
+
+        ArgumentCaptor<String> password = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendNewUserEmail(eq(user), password.capture(), eq(LOCALE));
+        assertNotNull(password.getValue());
+        assertNotEquals(PASSWORD, password.getValue());
+        verify(passwordEncoder).encode(password.getValue());
+    }
+
+    @Test
+    void spilledTask_isSkipped_whenTheUserNoLongerWaitsForATemporaryPassword() {
+        saturated.set(true);
+        dispatchService.dispatch(new EmailTask(EmailTask.Type.PASSWORD_RESET, user(), PASSWORD, LOCALE));
+
+        when(userRepository.updatePasswordHashByUsernameAndStatus(
+                anyString(), any(UserStatus.class), anyString(), any(LocalDateTime.class), anyString()))
+                .thenReturn(0);
+        saturated.set(false);
+        dispatchService.drain();
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void rejectedTask_isDroppedRatherThanSentOnTheCallingThread_whenNoJournalIsConfigured() throws IOException {
+        dispatchService.closeJournal();
+        properties.setPath(null);
+        dispatchService.openJournal();
+        saturated.set(true);
+
+        dispatchService.dispatch(new EmailTask(EmailTask.Type.PASSWORD_RESET, user(), PASSWORD, LOCALE));
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void rejectedTask_isDroppedRatherThanSentOnTheCallingThread_whenTheJournalIsFull() {
+        saturated.set(true);
+
+        // 4 KiB journal: a burst of tasks fills it
+        for (int i = 0; i < 100; i++) {
+            dispatchService.dispatch(new EmailTask(EmailTask.Type.NEW_USER, user(), PASSWORD, LOCALE));
+        }
+
+        verifyNoInteractions(emailService);
+    }
+
+    private static UserEmailInfo user() {
+        return UserEmailInfo.builder()
+                .username("spill@example.com")
+                .personName("Spill")
+                .personLastname("Test")
+                .build();
+    }
+}
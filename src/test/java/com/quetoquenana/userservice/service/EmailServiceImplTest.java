@@ -1,19 +1,27 @@
 package com.quetoquenana.userservice.service;
 
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+import com.google.api.client.http.AbstractInputStreamContent;
 import com.google.api.services.gmail.Gmail;
 import com.google.api.services.gmail.model.Message;
 import com.quetoquenana.userservice.dto.UserEmailInfo;
 import com.quetoquenana.userservice.service.impl.EmailServiceImpl;
+import com.quetoquenana.userservice.service.impl.EmailTemplateRendererImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.context.MessageSource;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class EmailServiceImplTest {
@@ -36,7 +44,8 @@ class EmailServiceImplTest {
 
         when(gmail.users()).thenReturn(gmailUsers);
         when(gmailUsers.messages()).thenReturn(gmailUsersMessages);
-        when(gmailUsersMessages.send(eq("me"), any(Message.class))).thenReturn(gmailSend);
+        when(gmailUsersMessages.send(eq("me"), isNull(), any(AbstractInputStreamContent.class))).thenReturn(gmailSend);
+        when(gmailSend.getMediaHttpUploader()).thenReturn(mock(MediaHttpUploader.class));
         when(gmailSend.execute()).thenReturn(new Message());
 
         messageSource = mock(MessageSource.class);
@@ -51,7 +60,7 @@ class EmailServiceImplTest {
         templateEngine = new SpringTemplateEngine();
         templateEngine.setTemplateResolver(resolver);
 
-        emailService = new EmailServiceImpl(gmail, templateEngine, messageSource);
+        emailService = new EmailServiceImpl(gmail, new EmailTemplateRendererImpl(templateEngine, messageSource, true), messageSource);
 
         // ensure there's a support email fallback (since @Value is not processed outside Spring)
         Field supportField = EmailServiceImpl.class.getDeclaredField("supportEmail");
@@ -81,7 +90,7 @@ class EmailServiceImplTest {
         emailService.sendPasswordEmail(user, plainPassword, Locale.ENGLISH);
 
         // Assert - verify Gmail messages.send was called
-        verify(gmailUsersMessages, times(1)).send(eq("me"), any(Message.class));
+        verify(gmailUsersMessages, times(1)).send(eq("me"), isNull(), any(AbstractInputStreamContent.class));
     }
 
     @Test
@@ -100,6 +109,31 @@ class EmailServiceImplTest {
         emailService.sendPasswordEmail(dto, plainPassword, Locale.ENGLISH);
 
         // Assert
-        verify(gmailUsersMessages, times(1)).send(eq("me"), any(Message.class));
+        verify(gmailUsersMessages, times(1)).send(eq("me"), isNull(), any(AbstractInputStreamContent.class));
+    }
+
+    @Test
+    void sendNewUserEmail_uploadsRawMimeMessage() throws IOException {
+        UserEmailInfo user = UserEmailInfo.builder()
+                .personLastname("Doe")
+                .personName("John")
+                .username("john@example.com")
+                .build();
+
+        emailService.sendNewUserEmail(user, "Temp1234!", Locale.ENGLISH);
+
+        ArgumentCaptor<AbstractInputStreamContent> contentCaptor = ArgumentCaptor.forClass(AbstractInputStreamContent.class);
+        verify(gmailUsersMessages).send(eq("me"), isNull(), contentCaptor.capture());
+        verify(gmailSend).execute();
+
+        AbstractInputStreamContent content = contentCaptor.getValue();
+        assertEquals("message/rfc822", content.getType());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+        String mime = out.toString(StandardCharsets.UTF_8);
+        assertTrue(mime.contains("To: john@example.com"));
+        assertTrue(mime.contains("Subject: Subject"));
+        assertTrue(mime.contains("multipart/"));
     }
 }
@@ -0,0 +1,79 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.service.impl.EmailTemplateRendererImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailTemplateRendererImplTest {
+
+    private static final String[] VALUES = {"John <b>", "O'Doe", "john@example.com", "Pa&ss\"1<2>", "support@example.com"};
+
+    private SpringTemplateEngine templateEngine;
+    private ReloadableResourceBundleMessageSource messageSource;
+
+    @BeforeEach
+    void setUp() {
+        messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode("HTML");
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(false);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+    }
+
+    @Test
+    void renderHtml_matchesPlainThymeleafOutput() {
+        EmailTemplateRenderer renderer = new EmailTemplateRendererImpl(templateEngine, messageSource, true);
+
+        for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.forLanguageTag("es")}) {
+            for (String template : new String[]{"new-user", "password-reset"}) {
+                String expected = templateEngine.process(template, plainContext(locale));
+                // second call is served from the compiled template
+                assertEquals(expected, renderer.renderHtml(template, locale, VALUES));
+                assertEquals(expected, renderer.renderHtml(template, locale, VALUES));
+            }
+        }
+    }
+
+    @Test
+    void renderText_matchesMessageSourceOutput() {
+        EmailTemplateRenderer renderer = new EmailTemplateRendererImpl(templateEngine, messageSource, true);
+
+        String expected = messageSource.getMessage("email.new.user.text", VALUES, "", Locale.ENGLISH);
+        assertEquals(expected, renderer.renderText("email.new.user.text", Locale.ENGLISH, VALUES));
+        assertEquals(expected, renderer.renderText("email.new.user.text", Locale.ENGLISH, VALUES));
+    }
+
+    @Test
+    void renderHtml_withCacheDisabled_delegatesToTemplateEngine() {
+        EmailTemplateRenderer renderer = new EmailTemplateRendererImpl(templateEngine, messageSource, false);
+
+        String expected = templateEngine.process("new-user", plainContext(Locale.ENGLISH));
+        assertEquals(expected, renderer.renderHtml("new-user", Locale.ENGLISH, VALUES));
+    }
+
+    private Context plainContext(Locale locale) {
+        Context ctx = new Context(locale);
+        ctx.setVariable("name", VALUES[0]);
+        ctx.setVariable("lastname", VALUES[1]);
+        ctx.setVariable("username", VALUES[2]);
+        ctx.setVariable("password", VALUES[3]);
+        ctx.setVariable("supportEmail", VALUES[4]);
+        return ctx;
+    }
+}
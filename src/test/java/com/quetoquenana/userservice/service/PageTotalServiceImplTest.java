@@ -0,0 +1,108 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.service.impl.PageTotalServiceImpl;
+import com.quetoquenana.userservice.util.JsonViewPageUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PageTotalServiceImplTest {
+
+    private EntityManager entityManager;
+    private Query query;
+    private LongSupplier exactCount;
+    private PageTotalServiceImpl pageTotalService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        exactCount = mock(LongSupplier.class);
+
+        pageTotalService = new PageTotalServiceImpl();
+        ReflectionTestUtils.setField(pageTotalService, "entityManager", entityManager);
+    }
+
+    @Test
+    void lastPage_totalIsExactWithoutAnyQuery() {
+        Page<String> page = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 10), false), "users", exactCount);
+
+        assertEquals(32, page.getTotalElements());
+        assertFalse(isApproximate(page));
+        verifyNoInteractions(entityManager, exactCount);
+    }
+
+    @Test
+    void smallTable_fallsBackToExactCount() {
+        when(query.getResultList()).thenReturn(List.of(-1L));
+        when(exactCount.getAsLong()).thenReturn(42L);
+
+        Page<String> page = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), "users", exactCount);
+
+        assertEquals(42, page.getTotalElements());
+        assertFalse(isApproximate(page));
+    }
+
+    @Test
+    void largeTable_usesPlannerEstimate_neverBelowRowsSeen() {
+        when(query.getResultList()).thenReturn(List.of(2_000_000L), List.of(15_000L));
+        Page<String> estimated = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), "users", exactCount);
+
+        assertEquals(2_000_000L, estimated.getTotalElements());
+        assertTrue(isApproximate(estimated));
+        assertTrue(estimated.hasNext());
+
+        // stale statistics: the estimate is below what has already been read
+        Page<String> stale = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(10_000, 2), true), "users", exactCount);
+        assertEquals(20_003L, stale.getTotalElements());
+        assertTrue(stale.hasNext());
+        verifyNoInteractions(exactCount);
+    }
+
+    @Test
+    void pagePastTheEnd_doesNotShrinkTheTotalToTheOffset() {
+        when(query.getResultList()).thenReturn(List.of(-1L), List.of(2_000_000L));
+        when(exactCount.getAsLong()).thenReturn(42L);
+
+        Page<String> small = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of(), PageRequest.of(50, 10), false), "users", exactCount);
+        assertEquals(42, small.getTotalElements());
+        assertFalse(isApproximate(small));
+
+        Page<String> large = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of(), PageRequest.of(500_000, 10), false), "users", exactCount);
+        assertEquals(2_000_000L, large.getTotalElements());
+        assertTrue(isApproximate(large));
+    }
+
+    @Test
+    void emptyFirstPage_isAnExactZero() {
+        Page<String> page = pageTotalService.withEstimatedTotal(
+                new SliceImpl<>(List.of(), PageRequest.of(0, 10), false), "users", exactCount);
+
+        assertEquals(0, page.getTotalElements());
+        verifyNoInteractions(entityManager, exactCount);
+    }
+
+    private static boolean isApproximate(Page<?> page) {
+        return new JsonViewPageUtil<>(page, page.getPageable()).isApproximateTotal();
+    }
+}
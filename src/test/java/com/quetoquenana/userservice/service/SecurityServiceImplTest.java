@@ -0,0 +1,192 @@
+package com.quetoquenana.userservice.service;
+
+import com.quetoquenana.userservice.dto.EmailTask;
+import com.quetoquenana.userservice.exception.AuthenticationException;
+import com.quetoquenana.userservice.model.User;
+import com.quetoquenana.userservice.model.UserStatus;
+import com.quetoquenana.userservice.repository.AddressRepository;
+import com.quetoquenana.userservice.repository.PhoneRepository;
+import com.quetoquenana.userservice.repository.ProfileRepository;
+import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.impl.SecurityServiceImpl;
+import com.quetoquenana.userservice.util.TestEntityFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.quetoquenana.userservice.util.Constants.JWTClaims.KEY_PERSON_ID;
+import static com.quetoquenana.userservice.util.Constants.JWTClaims.KEY_USER_ID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SecurityServiceImplTest {
+
+    private static final String USERNAME = TestEntityFactory.DEFAULT_USERNAME;
+
+    private UserRepository userRepository;
+    private ProfileRepository profileRepository;
+    private PasswordEncoder passwordEncoder;
+    private EmailDispatchService emailDispatchService;
+    private SecurityServiceImpl securityService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        profileRepository = mock(ProfileRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        emailDispatchService = mock(EmailDispatchService.class);
+
+        securityService = new SecurityServiceImpl(
+                mock(AddressRepository.class),
+                mock(PhoneRepository.class),
+                userRepository,
+                profileRepository,
+                passwordEncoder,
+                emailDispatchService
+        );
+        ReflectionTestUtils.setField(securityService, "forgotPasswordWindowSeconds", 300L);
+
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.resetPasswordUnlessRecentlyRequested(
+                anyString(), anyString(), eq(UserStatus.RESET), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+    }
+
+    @Test
+    void forgotPassword_repeatedWithinWindow_isCoalesced() {
+        User user = activeUser();
+        when(userRepository.findByUsernameIgnoreCase(anyString())).thenReturn(Optional.of(user));
+
+        securityService.forgotPassword(USERNAME);
+        securityService.forgotPassword(USERNAME.toUpperCase());
+        securityService.forgotPassword(USERNAME);
+
+        verify(userRepository, times(1)).findByUsernameIgnoreCase(anyString());
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(userRepository, times(1)).resetPasswordUnlessRecentlyRequested(
+                eq(user.getUsername()), eq("encoded"), eq(UserStatus.RESET), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(User.class));
+        verify(emailDispatchService, times(1)).dispatch(any(EmailTask.class));
+    }
+
+    @Test
+    void forgotPassword_recentRequestRecordedInDb_isNoOp() {
+        User user = activeUser();
+        user.setUserStatus(UserStatus.RESET);
+        user.setResetRequestedAt(LocalDateTime.now().minusSeconds(30));
+        when(userRepository.findByUsernameIgnoreCase(USERNAME)).thenReturn(Optional.of(user));
+
+        securityService.forgotPassword(USERNAME);
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).resetPasswordUnlessRecentlyRequested(
+                anyString(), anyString(), any(UserStatus.class), any(LocalDateTime.class), any(LocalDateTime.class));
+        verifyNoInteractions(emailDispatchService);
+    }
+
+    @Test
+    void forgotPassword_lostToAConcurrentRequest_sendsNoEmail() {
+        User user = activeUser();
+        when(userRepository.findByUsernameIgnoreCase(USERNAME)).thenReturn(Optional.of(user));
+        when(userRepository.resetPasswordUnlessRecentlyRequested(
+                anyString(), anyString(), eq(UserStatus.RESET), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        securityService.forgotPassword(USERNAME);
+
+        verifyNoInteractions(emailDispatchService);
+    }
+
+    @Test
+    void forgotPassword_rightAfterAnAdminReset_sendsANewPassword() {
+        // an admin reset moves the user to RESET without opening the forgot-password window
+        User user = activeUser();
+        user.setUserStatus(UserStatus.RESET);
+        user.setUpdatedAt(LocalDateTime.now().minusSeconds(5));
+        when(userRepository.findByUsernameIgnoreCase(USERNAME)).thenReturn(Optional.of(user));
+
+        securityService.forgotPassword(USERNAME);
+
+        verify(emailDispatchService, times(1)).dispatch(any(EmailTask.class));
+    }
+
+    @Test
+    void forgotPassword_unknownUser_throwsEveryTime() {
+        when(userRepository.findByUsernameIgnoreCase(USERNAME)).thenReturn(Optional.empty());
+
+        assertThrows(AuthenticationException.class, () -> securityService.forgotPassword(USERNAME));
+        assertThrows(AuthenticationException.class, () -> securityService.forgotPassword(USERNAME));
+        verifyNoInteractions(emailDispatchService);
+    }
+
+    @Test
+    void forgotPassword_afterWindowExpires_resetsAgain() {
+        ReflectionTestUtils.setField(securityService, "forgotPasswordWindowSeconds", 0L);
+        User user = activeUser();
+        when(userRepository.findByUsernameIgnoreCase(USERNAME)).thenReturn(Optional.of(user));
+
+        securityService.forgotPassword(USERNAME);
+        securityService.purgeForgotPasswordWindows();
+        securityService.forgotPassword(USERNAME);
+
+        verify(emailDispatchService, times(2)).dispatch(any(EmailTask.class));
+    }
+
+    @Test
+    void canAccessOwnIds_withJwtClaims_doesNotQueryDb() {
+        UUID userId = UUID.randomUUID();
+        UUID personId = UUID.randomUUID();
+        Authentication authentication = jwtAuthentication(Map.of(KEY_USER_ID, userId.toString(), KEY_PERSON_ID, personId.toString()));
+
+        assertTrue(securityService.canAccessIdUser(authentication, userId));
+        assertTrue(securityService.canAccessIdPerson(authentication, personId));
+        assertTrue(securityService.canAccessIdProfile(authentication, personId));
+        assertFalse(securityService.canAccessIdUser(authentication, UUID.randomUUID()));
+        assertFalse(securityService.canAccessIdPerson(authentication, UUID.randomUUID()));
+        assertFalse(securityService.canAccessIdProfile(authentication, UUID.randomUUID()));
+
+        verifyNoInteractions(userRepository, profileRepository);
+    }
+
+    @Test
+    void canAccessOwnIds_withoutClaims_fallsBackToDb() {
+        UUID userId = UUID.randomUUID();
+        UUID personId = UUID.randomUUID();
+        Authentication authentication = jwtAuthentication(Map.of());
+        when(userRepository.existsByIdAndUsername(userId, USERNAME)).thenReturn(true);
+        when(userRepository.existsByPersonIdAndUsername(personId, USERNAME)).thenReturn(true);
+        when(profileRepository.existsByIdAndOwnerUsername(personId, USERNAME)).thenReturn(false);
+
+        assertTrue(securityService.canAccessIdUser(authentication, userId));
+        assertTrue(securityService.canAccessIdPerson(authentication, personId));
+        assertFalse(securityService.canAccessIdProfile(authentication, personId));
+    }
+
+    private static Authentication jwtAuthentication(Map<String, Object> claims) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(USERNAME);
+        claims.forEach(builder::claim);
+        return new JwtAuthenticationToken(builder.build(), List.of(), USERNAME);
+    }
+
+    private static User activeUser() {
+        User user = TestEntityFactory.createUser(LocalDateTime.now(), TestEntityFactory.DEFAULT_USER);
+        user.setPerson(TestEntityFactory.createPerson());
+        return user;
+    }
+}
@@ -2,16 +2,19 @@ package com.quetoquenana.userservice.service;
 
 import com.quetoquenana.userservice.dto.TokenResponse;
 import com.quetoquenana.userservice.exception.AuthenticationException;
+import com.quetoquenana.userservice.model.Person;
 import com.quetoquenana.userservice.model.RefreshToken;
 import com.quetoquenana.userservice.model.User;
 import com.quetoquenana.userservice.model.UserStatus;
 import com.quetoquenana.userservice.repository.RefreshTokenRepository;
+import com.quetoquenana.userservice.security.CompiledRoleHierarchy;
 import com.quetoquenana.userservice.service.impl.TokenServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.springframework.security.access.hierarchicalroles.NullRoleHierarchy;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -40,6 +43,8 @@ class TokenServiceImplTest {
     UserService userService;
     UserDetailsService userDetailsService;
     RefreshTokenRepository refreshTokenRepository;
+    AppRoleHierarchyService appRoleHierarchyService;
+    AppPermissionService appPermissionService;
     TokenServiceImpl tokenService;
 
     @BeforeEach
@@ -49,6 +54,9 @@ class TokenServiceImplTest {
         userService = Mockito.mock(UserService.class);
         userDetailsService = Mockito.mock(UserDetailsService.class);
         refreshTokenRepository = Mockito.mock(com.quetoquenana.userservice.repository.RefreshTokenRepository.class);
+        appRoleHierarchyService = Mockito.mock(AppRoleHierarchyService.class);
+        when(appRoleHierarchyService.getRoleHierarchy(ArgumentMatchers.any())).thenReturn(new NullRoleHierarchy());
+        appPermissionService = Mockito.mock(AppPermissionService.class);
 
         tokenService = new TokenServiceImpl(
                 userService, 
@@ -56,6 +64,8 @@ class TokenServiceImplTest {
                 jwtEncoder, 
                 jwtDecoder, 
                 refreshTokenRepository, 
+                appRoleHierarchyService,
+                appPermissionService,
                 3600L, 
                 86400L, 
                 "https://auth.example"
@@ -216,4 +226,73 @@ class TokenServiceImplTest {
         assertTrue(roles.contains("ADMIN"));
         assertTrue(roles.contains("USER"));
     }
+
+    @Test
+    void createTokens_shouldIncludeUserAndPersonIdClaims() {
+        Authentication auth = Mockito.mock(Authentication.class);
+        when(auth.getName()).thenReturn("user");
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_USER"))).when(auth).getAuthorities();
+
+        Person person = new Person();
+        person.setId(UUID.randomUUID());
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user");
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setPerson(person);
+        when(userService.findByUsername("user")).thenReturn(Optional.of(user));
+
+        ArgumentCaptor<JwtEncoderParameters> captor = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        when(jwtEncoder.encode(captor.capture())).thenReturn(Jwt.withTokenValue("t").header("alg","none").header("typ","JWT").claim("x","y").build());
+
+        tokenService.createTokens(auth, APP_CODE);
+
+        JwtClaimsSet claims = captor.getAllValues().getFirst().getClaims();
+        assertEquals(user.getId().toString(), claims.getClaim("userId"));
+        assertEquals(person.getId().toString(), claims.getClaim("personId"));
+    }
+
+    @Test
+    void createTokens_shouldExpandApplicationRoleHierarchy() {
+        Authentication auth = Mockito.mock(Authentication.class);
+        when(auth.getName()).thenReturn("user");
+        doReturn(List.of(new SimpleGrantedAuthority("EDITOR"))).when(auth).getAuthorities();
+        when(appRoleHierarchyService.getRoleHierarchy(APP_CODE))
+                .thenReturn(new CompiledRoleHierarchy(Map.of("ROLE_EDITOR", Set.of("ROLE_VIEWER"))));
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user");
+        user.setUserStatus(UserStatus.ACTIVE);
+        when(userService.findByUsername("user")).thenReturn(Optional.of(user));
+
+        ArgumentCaptor<JwtEncoderParameters> captor = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        when(jwtEncoder.encode(captor.capture())).thenReturn(Jwt.withTokenValue("t").header("alg","none").header("typ","JWT").claim("x","y").build());
+
+        tokenService.createTokens(auth, APP_CODE);
+
+        List<?> roles = (List<?>) captor.getAllValues().getFirst().getClaims().getClaim("roles");
+        assertEquals(Set.of("EDITOR", "VIEWER"), new HashSet<>(roles));
+    }
+
+    @Test
+    void createTokens_shouldCarryPermissionMaskPerAudience() {
+        Authentication auth = Mockito.mock(Authentication.class);
+        when(auth.getName()).thenReturn("user");
+        doReturn(List.of(new SimpleGrantedAuthority("USER"))).when(auth).getAuthorities();
+        when(appPermissionService.encodePermissions(APP_CODE, List.of("USER"))).thenReturn("BQ");
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user");
+        user.setUserStatus(UserStatus.ACTIVE);
+        when(userService.findByUsername("user")).thenReturn(Optional.of(user));
+
+        ArgumentCaptor<JwtEncoderParameters> captor = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        when(jwtEncoder.encode(captor.capture())).thenReturn(Jwt.withTokenValue("t").header("alg","none").header("typ","JWT").claim("x","y").build());
+
+        tokenService.createTokens(auth, APP_CODE);
+
+        assertEquals(Map.of(APP_CODE, "BQ"), captor.getAllValues().getFirst().getClaims().getClaim("perms"));
+    }
 }
@@ -1,13 +1,17 @@
 package com.quetoquenana.userservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quetoquenana.userservice.command.CreateUserCommand;
+import com.quetoquenana.userservice.config.EmailSpillProperties;
 import com.quetoquenana.userservice.command.PersonCreateCommand;
 import com.quetoquenana.userservice.dto.UserCreateRequest;
 import com.quetoquenana.userservice.dto.UserEmailInfo;
+import com.quetoquenana.userservice.dto.UserSummary;
 import com.quetoquenana.userservice.dto.UserUpdateRequest;
 import com.quetoquenana.userservice.exception.AuthenticationException;
 import com.quetoquenana.userservice.exception.DuplicateRecordException;
 import com.quetoquenana.userservice.exception.RecordNotFoundException;
+import com.quetoquenana.userservice.exception.StaleRecordException;
 import com.quetoquenana.userservice.model.AppRoleUser;
 import com.quetoquenana.userservice.model.Person;
 import com.quetoquenana.userservice.model.User;
@@ -15,6 +19,7 @@ import com.quetoquenana.userservice.model.UserProvider;
 import com.quetoquenana.userservice.model.UserStatus;
 import com.quetoquenana.userservice.repository.AppRoleUserRepository;
 import com.quetoquenana.userservice.repository.UserRepository;
+import com.quetoquenana.userservice.service.impl.EmailDispatchServiceImpl;
 import com.quetoquenana.userservice.service.impl.UserServiceImpl;
 import com.quetoquenana.userservice.util.TestEntityFactory;
 import org.junit.jupiter.api.AfterEach;
@@ -25,11 +30,14 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -43,6 +51,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -57,6 +66,7 @@ class UserServiceImplTest {
     private CurrentUserService currentUserService;
     private PasswordEncoder passwordEncoder;
     private EmailService emailService;
+    private PageTotalService pageTotalService;
     private UserServiceImpl userService;
 
     @BeforeEach
@@ -67,6 +77,7 @@ class UserServiceImplTest {
         currentUserService = mock(CurrentUserService.class);
         passwordEncoder = mock(PasswordEncoder.class);
         emailService = mock(EmailService.class);
+        pageTotalService = mock(PageTotalService.class);
 
         Executor directExecutor = Runnable::run;
         userService = new UserServiceImpl(
@@ -75,11 +86,13 @@ class UserServiceImplTest {
                 personService,
                 currentUserService,
                 passwordEncoder,
-                emailService,
-                directExecutor
+                new EmailDispatchServiceImpl(emailService, directExecutor, new EmailSpillProperties(), new ObjectMapper(),
+                        userRepository, passwordEncoder),
+                pageTotalService
         );
 
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.insertIfUsernameFree(any(User.class))).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
         when(passwordEncoder.encode(isNull())).thenReturn("encoded-null");
         when(passwordEncoder.encode(any(CharSequence.class)))
                 .thenAnswer(invocation -> "encoded-" + invocation.getArgument(0, CharSequence.class));
@@ -96,7 +109,8 @@ class UserServiceImplTest {
     @Test
     void save_shouldThrowWhenUsernameAlreadyExists() {
         UserCreateRequest request = TestEntityFactory.getUserCreateRequest();
-        when(userRepository.existsByUsernameIgnoreCase(request.getUsername())).thenReturn(true);
+        when(personService.save(request.getPerson())).thenReturn(personWithId(request.getPerson().getIdNumber(), true));
+        when(userRepository.insertIfUsernameFree(any(User.class))).thenReturn(Optional.empty());
 
         assertThrows(DuplicateRecordException.class, () -> userService.save(request));
 
@@ -105,15 +119,38 @@ class UserServiceImplTest {
     }
 
     @Test
-    void save_shouldReuseInactivePersonReactivatePersistUserAndSendEmailAfterCommit() {
+    void findOrCreate_shouldReturnTheExistingUserWhenUsernameIsTaken() {
         UserCreateRequest request = TestEntityFactory.getUserCreateRequest();
-        Person existingPerson = personWithId(request.getPerson().getIdNumber(), false);
+        User existing = User.builder().id(UUID.randomUUID()).username(request.getUsername()).build();
+        when(personService.save(request.getPerson())).thenReturn(personWithId(request.getPerson().getIdNumber(), true));
+        when(userRepository.insertIfUsernameFree(any(User.class))).thenReturn(Optional.empty());
+        when(userRepository.findByUsernameIgnoreCase(request.getUsername())).thenReturn(Optional.of(existing));
+
+        assertEquals(existing, userService.findOrCreate(request));
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void findOrCreateCommand_shouldInsertWithoutLookingUpFirst() {
+        CreateUserCommand command = createCommand(UserProvider.GOOGLE);
+        when(personService.save(any(PersonCreateCommand.class))).thenReturn(personWithId(command.getIdNumber(), true));
+
+        User created = userService.findOrCreate(command);
+
+        assertEquals(command.getEmail(), created.getUsername());
+        verify(userRepository, never()).findByUsernameIgnoreCase(anyString());
+    }
+
+    @Test
+    void save_shouldUpsertPersonPersistUserAndSendEmailAfterCommit() {
+        UserCreateRequest request = TestEntityFactory.getUserCreateRequest();
+        // the upsert returns the existing person, reactivated
+        Person existingPerson = personWithId(request.getPerson().getIdNumber(), true);
         Locale locale = Locale.forLanguageTag("es-CR");
         AtomicReference<User> savedRef = new AtomicReference<>();
 
-        when(userRepository.existsByUsernameIgnoreCase(request.getUsername())).thenReturn(false);
-        when(personService.findByIdNumber(request.getPerson().getIdNumber())).thenReturn(Optional.of(existingPerson));
-        when(personService.getById(existingPerson.getId())).thenReturn(existingPerson);
+        when(personService.save(request.getPerson())).thenReturn(existingPerson);
         when(currentUserService.getCurrentUsername()).thenReturn("admin.user");
 
         LocaleContextHolder.setLocale(locale);
@@ -129,7 +166,8 @@ class UserServiceImplTest {
         assertEquals("admin.user", saved.getCreatedBy());
         assertNotNull(saved.getCreatedAt());
 
-        verify(personService).updateStatus(existingPerson.getId(), true);
+        verify(personService).save(request.getPerson());
+        verify(userRepository).insertIfUsernameFree(saved);
 
         ArgumentCaptor<UserEmailInfo> emailCaptor = ArgumentCaptor.forClass(UserEmailInfo.class);
         ArgumentCaptor<String> plainPasswordCaptor = ArgumentCaptor.forClass(String.class);
@@ -145,15 +183,12 @@ class UserServiceImplTest {
     }
 
     @Test
-    void save_shouldCreatePersonWhenItDoesNotExist() {
+    void save_shouldNotCheckBeforeInserting() {
         UserCreateRequest request = TestEntityFactory.getUserCreateRequest();
         Person createdPerson = personWithId(request.getPerson().getIdNumber(), true);
         AtomicReference<User> savedRef = new AtomicReference<>();
 
-        when(userRepository.existsByUsernameIgnoreCase(request.getUsername())).thenReturn(false);
-        when(personService.findByIdNumber(request.getPerson().getIdNumber())).thenReturn(Optional.empty());
         when(personService.save(request.getPerson())).thenReturn(createdPerson);
-        when(personService.getById(createdPerson.getId())).thenReturn(createdPerson);
         when(currentUserService.getCurrentUsername()).thenReturn("creator");
 
         runAndTriggerAfterCommit(() -> savedRef.set(userService.save(request)));
@@ -165,14 +200,17 @@ class UserServiceImplTest {
         assertEquals("creator", saved.getCreatedBy());
 
         verify(personService).save(request.getPerson());
-        verify(personService, never()).updateStatus(any(UUID.class), anyBoolean());
+        verify(personService, never()).findByIdNumber(anyString());
+        verify(personService, never()).updateStatus(any(UUID.class), anyBoolean(), any());
+        verify(userRepository, never()).existsByUsernameIgnoreCase(anyString());
         verify(emailService).sendNewUserEmail(any(UserEmailInfo.class), anyString(), any(Locale.class));
     }
 
     @Test
     void saveCommand_shouldThrowWhenUsernameAlreadyExists() {
         CreateUserCommand command = createCommand(UserProvider.LOCAL_EMAIL);
-        when(userRepository.existsByUsernameIgnoreCase(command.getEmail())).thenReturn(true);
+        when(personService.save(any(PersonCreateCommand.class))).thenReturn(personWithId(command.getIdNumber(), true));
+        when(userRepository.insertIfUsernameFree(any(User.class))).thenReturn(Optional.empty());
 
         assertThrows(DuplicateRecordException.class, () -> userService.save(command));
 
@@ -186,10 +224,7 @@ class UserServiceImplTest {
         Person createdPerson = personWithId(command.getIdNumber(), true);
         AtomicReference<User> savedRef = new AtomicReference<>();
 
-        when(userRepository.existsByUsernameIgnoreCase(command.getEmail())).thenReturn(false);
-        when(personService.findByIdNumber(command.getIdNumber())).thenReturn(Optional.empty());
         when(personService.save(any(PersonCreateCommand.class))).thenReturn(createdPerson);
-        when(personService.getById(createdPerson.getId())).thenReturn(createdPerson);
         when(currentUserService.getCurrentUsername()).thenReturn("system");
 
         runAndTriggerAfterCommit(() -> savedRef.set(userService.save(command)));
@@ -218,9 +253,7 @@ class UserServiceImplTest {
         Person existingPerson = personWithId(command.getIdNumber(), true);
         AtomicReference<User> savedRef = new AtomicReference<>();
 
-        when(userRepository.existsByUsernameIgnoreCase(command.getEmail())).thenReturn(false);
-        when(personService.findByIdNumber(command.getIdNumber())).thenReturn(Optional.of(existingPerson));
-        when(personService.getById(existingPerson.getId())).thenReturn(existingPerson);
+        when(personService.save(any(PersonCreateCommand.class))).thenReturn(existingPerson);
         when(currentUserService.getCurrentUsername()).thenReturn("system");
 
         savedRef.set(userService.save(command));
@@ -265,7 +298,7 @@ class UserServiceImplTest {
     @Test
     void update_shouldThrowWhenUserDoesNotExist() {
         UUID id = UUID.randomUUID();
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.findDetailById(id)).thenReturn(Optional.empty());
 
         assertThrows(RecordNotFoundException.class, () -> userService.update(id, new UserUpdateRequest()));
     }
@@ -279,7 +312,7 @@ class UserServiceImplTest {
         user.setUserStatus(UserStatus.INACTIVE);
         UserUpdateRequest request = TestEntityFactory.getUserUpdateRequest();
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userRepository.findDetailById(id)).thenReturn(Optional.of(user));
         when(currentUserService.getCurrentUsername()).thenReturn("editor");
 
         User updated = userService.update(id, request);
@@ -293,21 +326,28 @@ class UserServiceImplTest {
     }
 
     @Test
-    void delete_shouldMarkUserInactive() {
+    void delete_shouldMarkUserInactiveWithOneVersionedUpdate() {
         UUID id = UUID.randomUUID();
-        User user = userWithPerson("delete@example.com");
-        user.setId(id);
-        user.setUserStatus(UserStatus.ACTIVE);
-
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
         when(currentUserService.getCurrentUsername()).thenReturn("deleter");
+        when(userRepository.updateStatus(eq(id), eq(UserStatus.INACTIVE), eq(3L), any(LocalDateTime.class), eq("deleter")))
+                .thenReturn(1);
 
-        userService.delete(id);
+        userService.delete(id, 3L);
 
-        assertEquals(UserStatus.INACTIVE, user.getUserStatus());
-        assertEquals("deleter", user.getUpdatedBy());
-        assertNotNull(user.getUpdatedAt());
-        verify(userRepository).save(user);
+        verify(userRepository, never()).findById(any(UUID.class));
+        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).checkUnmatchedUpdate(any(UUID.class), any());
+    }
+
+    @Test
+    void delete_whenNoRowMatches_reportsStaleVersion() {
+        UUID id = UUID.randomUUID();
+        when(currentUserService.getCurrentUsername()).thenReturn("deleter");
+        when(userRepository.updateStatus(eq(id), eq(UserStatus.INACTIVE), eq(3L), any(LocalDateTime.class), eq("deleter")))
+                .thenReturn(0);
+        doThrow(new StaleRecordException()).when(userRepository).checkUnmatchedUpdate(id, 3L);
+
+        assertThrows(StaleRecordException.class, () -> userService.delete(id, 3L));
     }
 
     @Test
@@ -336,23 +376,41 @@ class UserServiceImplTest {
         User user = userWithPerson("query@example.com");
         AppRoleUser appRoleUser = AppRoleUser.builder().id(UUID.randomUUID()).user(user).build();
         PageRequest pageable = PageRequest.of(0, 10);
-        Page<User> page = new PageImpl<>(List.of(user), pageable, 1);
+        UserSummary summary = new UserSummary(userId, user.getUsername(), null, null, user.getNickname(),
+                user.getUserStatus(), LocalDateTime.now());
+        Page<UserSummary> page = new PageImpl<>(List.of(summary), pageable, 1);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findDetailById(userId)).thenReturn(Optional.of(user));
         when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userRepository.findAll(pageable)).thenReturn(page);
+        when(userRepository.findSummaryPage(pageable)).thenReturn(page);
         when(userRepository.findByUsernameIgnoreCase(user.getUsername())).thenReturn(Optional.of(user));
         when(userRepository.findByProviderAndExternalId(UserProvider.GOOGLE, "firebase-uid")).thenReturn(Optional.of(user));
-        when(appRoleUserRepository.findByUserIdAndRoleApplicationId(userId, applicationId)).thenReturn(List.of(appRoleUser));
+        when(appRoleUserRepository.findDetailByUserIdAndRoleApplicationId(userId, applicationId)).thenReturn(List.of(appRoleUser));
 
         assertEquals(Optional.of(user), userService.findById(userId));
         assertEquals(List.of(user), userService.findAll());
-        assertEquals(page, userService.findAll(pageable));
+        assertEquals(page, userService.findAll(pageable, true));
         assertEquals(Optional.of(user), userService.findByUsername(user.getUsername()));
         assertEquals(Optional.of(user), userService.findByProviderAndExternalId(UserProvider.GOOGLE, "firebase-uid"));
         assertEquals(List.of(appRoleUser), userService.findAllAppRoleByApplicationId(userId, applicationId));
     }
 
+    @Test
+    void findAll_withoutExactTotal_shouldTakeTheTotalFromPageTotalService() {
+        PageRequest pageable = PageRequest.of(2, 10);
+        UserSummary summary = new UserSummary(UUID.randomUUID(), "estimated@example.com", null, null, "nick",
+                UserStatus.ACTIVE, LocalDateTime.now());
+        Slice<UserSummary> slice = new SliceImpl<>(List.of(summary), pageable, true);
+        Page<UserSummary> estimated = new PageImpl<>(List.of(summary), pageable, 50_000);
+
+        when(userRepository.findSummarySlice(pageable)).thenReturn(slice);
+        when(pageTotalService.<UserSummary>withEstimatedTotal(eq(slice), eq("users"), any())).thenReturn(estimated);
+
+        assertEquals(estimated, userService.findAll(pageable, false));
+        verify(userRepository, never()).findSummaryPage(pageable);
+        verify(userRepository, never()).count();
+    }
+
     private void runAndTriggerAfterCommit(Runnable action) {
         TransactionSynchronizationManager.initSynchronization();
         try {
@@ -0,0 +1,54 @@
+package com.quetoquenana.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTest {
+
+    @Test
+    void escape_quotesOnlyWhenNeeded() {
+        assertEquals("", Csv.escape(null));
+        assertEquals("plain", Csv.escape("plain"));
+        assertEquals("\"a,b\"", Csv.escape("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", Csv.escape("say \"hi\""));
+        assertEquals("\"two\nlines\"", Csv.escape("two\nlines"));
+    }
+
+    @Test
+    void escapeCell_neutralizesSpreadsheetFormulas() {
+        assertEquals("\"'=HYPERLINK(\"\"http://evil\"\")\"", Csv.escapeCell("=HYPERLINK(\"http://evil\")"));
+        assertEquals("'+1+1", Csv.escapeCell("+1+1"));
+        assertEquals("'-2+3", Csv.escapeCell("-2+3"));
+        assertEquals("'@SUM(A1)", Csv.escapeCell("@SUM(A1)"));
+        assertEquals("'\tcmd", Csv.escapeCell("\tcmd"));
+        assertEquals("\"'=1,2\"", Csv.escapeCell("=1,2"));
+        assertEquals("plain", Csv.escapeCell("plain"));
+        assertEquals("a=b", Csv.escapeCell("a=b"));
+        assertEquals("", Csv.escapeCell(""));
+        assertEquals("", Csv.escapeCell(null));
+    }
+
+    @Test
+    void readRecord_roundTripsEscapedValues() throws IOException {
+        List<String> values = List.of("plain", "a,b", "say \"hi\"", "two\r\nlines", "");
+        String line = String.join(",", values.stream().map(Csv::escape).toList()) + "\r\n";
+        BufferedReader reader = new BufferedReader(new StringReader(line + "x,y"));
+
+        assertEquals(values, Csv.readRecord(reader));
+        assertEquals(List.of("x", "y"), Csv.readRecord(reader));
+        assertNull(Csv.readRecord(reader));
+    }
+
+    @Test
+    void readRecord_rejectsUnterminatedQuote() {
+        BufferedReader reader = new BufferedReader(new StringReader("\"open,field\r\n"));
+
+        assertThrows(IllegalArgumentException.class, () -> Csv.readRecord(reader));
+    }
+}
@@ -0,0 +1,110 @@
+package com.quetoquenana.userservice.util;
+
+import com.quetoquenana.userservice.model.DataCategory;
+import com.quetoquenana.userservice.model.DefaultData;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultDataCatalogTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Test
+    void pagesAreOrderedByCreatedAtThenId_andGroupedByCategory() {
+        DefaultData late = entry("LATE", DataCategory.ROLE, T0.plusMinutes(5), true);
+        DefaultData early = entry("EARLY", DataCategory.ROLE, T0, true);
+        DefaultData user = entry("NICKNAME", DataCategory.USER, T0.plusMinutes(1), true);
+        DefaultDataCatalog catalog = DefaultDataCatalog.of(List.of(late, early, user));
+
+        Page<DefaultData> all = catalog.page(PageRequest.of(0, 2));
+        assertEquals(List.of("EARLY", "NICKNAME"), names(all.getContent()));
+        assertEquals(3, all.getTotalElements());
+        assertEquals(List.of("LATE"), names(catalog.page(PageRequest.of(1, 2)).getContent()));
+
+        Page<DefaultData> roles = catalog.page(DataCategory.ROLE, PageRequest.of(0, 10));
+        assertEquals(List.of("EARLY", "LATE"), names(roles.getContent()));
+        assertEquals(2, roles.getTotalElements());
+        assertTrue(catalog.page(DataCategory.ROLE, PageRequest.of(5, 10)).getContent().isEmpty());
+    }
+
+    @Test
+    void findKeysetPage_continuesAfterTheCursor() {
+        List<DefaultData> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(entry("E" + i, DataCategory.ROLE, T0.plusSeconds(i), true));
+        }
+        DefaultDataCatalog catalog = DefaultDataCatalog.of(rows);
+
+        List<DefaultData> first = catalog.findKeysetPage(null, 2);
+        assertEquals(List.of("E0", "E1", "E2"), names(first));
+
+        DefaultData last = first.get(1);
+        List<DefaultData> next = catalog.findKeysetPage(new PageCursor(last.getCreatedAt(), last.getId()), 2);
+        assertEquals(List.of("E2", "E3", "E4"), names(next));
+
+        // a cursor whose row is gone still lands between its neighbours
+        PageCursor gone = new PageCursor(T0.plusSeconds(3).plusNanos(1000), UUID.randomUUID());
+        assertEquals(List.of("E4"), names(catalog.findKeysetPage(gone, 2)));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findKeysetPage(null, 0));
+    }
+
+    @Test
+    void findActive_skipsInactiveEntries() {
+        DefaultDataCatalog catalog = DefaultDataCatalog.of(List.of(
+                entry("ADMIN", DataCategory.ROLE, T0, true),
+                entry("RETIRED", DataCategory.ROLE, T0.plusSeconds(1), false)));
+
+        assertEquals(List.of("ADMIN"), names(catalog.findActive(DataCategory.ROLE)));
+        assertTrue(catalog.findActive(DataCategory.USER).isEmpty());
+    }
+
+    @Test
+    void version_dependsOnRowsAndTheirVersionsOnly() {
+        DefaultData admin = entry("ADMIN", DataCategory.ROLE, T0, true);
+        DefaultData user = entry("USER", DataCategory.ROLE, T0.plusSeconds(1), true);
+        long version = DefaultDataCatalog.of(List.of(admin, user)).version();
+
+        assertEquals(version, DefaultDataCatalog.of(List.of(user, admin)).version());
+        assertNotEquals(version, DefaultDataCatalog.of(List.of(admin)).version());
+
+        user.setVersion(user.getVersion() + 1);
+        assertNotEquals(version, DefaultDataCatalog.of(List.of(admin, user)).version());
+    }
+
+    @Test
+    void entriesAreCopies() {
+        DefaultData admin = entry("ADMIN", DataCategory.ROLE, T0, true);
+        DefaultDataCatalog catalog = DefaultDataCatalog.of(List.of(admin));
+
+        admin.setDataName("CHANGED");
+
+        DefaultData cached = catalog.findById(admin.getId()).orElseThrow();
+        assertNotSame(admin, cached);
+        assertEquals("ADMIN", cached.getDataName());
+    }
+
+    private static DefaultData entry(String name, DataCategory category, LocalDateTime createdAt, boolean active) {
+        DefaultData data = DefaultData.builder()
+                .id(UuidV7.next())
+                .dataName(name)
+                .dataCategory(category)
+                .isActive(active)
+                .build();
+        data.setVersion(0L);
+        data.setCreatedAt(createdAt);
+        data.setCreatedBy("test");
+        return data;
+    }
+
+    private static List<String> names(List<DefaultData> entries) {
+        return entries.stream().map(DefaultData::getDataName).toList();
+    }
+}
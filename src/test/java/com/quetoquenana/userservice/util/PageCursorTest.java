@@ -0,0 +1,53 @@
+package com.quetoquenana.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecode_roundTrips() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000), UUID.randomUUID());
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void decode_rejectsForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(base64("yesterday|" + UUID.randomUUID())));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(base64("2025-01-01T00:00|not-a-uuid")));
+    }
+
+    @Test
+    void cursorPage_usesExtraRowOnlyToSignalNextPage() {
+        List<PageCursor> rows = List.of(cursorAt(1), cursorAt(2), cursorAt(3));
+
+        JsonViewCursorPage<PageCursor> first = JsonViewCursorPage.of(rows, 2, row -> row);
+        assertEquals(rows.subList(0, 2), first.getContent());
+        assertTrue(first.isHasNext());
+        assertEquals(rows.get(1), PageCursor.decode(first.getNextCursor()));
+
+        JsonViewCursorPage<PageCursor> last = JsonViewCursorPage.of(rows, 3, row -> row);
+        assertEquals(rows, last.getContent());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PageCursor cursorAt(int second) {
+        return new PageCursor(LocalDateTime.of(2025, 1, 1, 0, 0, second), UUID.randomUUID());
+    }
+}
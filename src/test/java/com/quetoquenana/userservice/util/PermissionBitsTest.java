@@ -0,0 +1,44 @@
+package com.quetoquenana.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionBitsTest {
+
+    @Test
+    void setAndTest_growMaskAsNeeded() {
+        byte[] bits = PermissionBits.set(new byte[0], 0);
+        bits = PermissionBits.set(bits, 2);
+        bits = PermissionBits.set(bits, 17);
+
+        assertEquals(3, bits.length);
+        assertTrue(PermissionBits.test(bits, 0));
+        assertTrue(PermissionBits.test(bits, 2));
+        assertTrue(PermissionBits.test(bits, 17));
+        assertFalse(PermissionBits.test(bits, 1));
+        assertFalse(PermissionBits.test(bits, 64));
+        assertFalse(PermissionBits.test(bits, -1));
+        assertThrows(IllegalArgumentException.class, () -> PermissionBits.set(new byte[0], -1));
+    }
+
+    @Test
+    void or_combinesMasksOfDifferentLength() {
+        byte[] combined = PermissionBits.or(PermissionBits.set(new byte[0], 1), PermissionBits.set(new byte[0], 12));
+
+        assertTrue(PermissionBits.test(combined, 1));
+        assertTrue(PermissionBits.test(combined, 12));
+        assertFalse(PermissionBits.test(combined, 0));
+    }
+
+    @Test
+    void encodeDecode_roundTripsAndTrimsTrailingZeros() {
+        byte[] bits = PermissionBits.set(new byte[4], 9);
+        String encoded = PermissionBits.encode(bits);
+
+        assertEquals("AAI", encoded);
+        assertTrue(PermissionBits.test(PermissionBits.decode(encoded), 9));
+        assertEquals(0, PermissionBits.decode(null).length);
+        assertEquals(0, PermissionBits.decode("not base64!").length);
+    }
+}
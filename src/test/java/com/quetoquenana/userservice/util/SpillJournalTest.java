@@ -0,0 +1,120 @@
+package com.quetoquenana.userservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendPeekRemove_isFifo() throws IOException {
+        try (SpillJournal journal = new SpillJournal(tempDir.resolve("journal"), 1024)) {
+            assertTrue(journal.isEmpty());
+            assertNull(journal.peek());
+
+            assertTrue(journal.append(bytes("first")));
+            assertTrue(journal.append(bytes("second")));
+            assertEquals(2, journal.size());
+
+            assertEquals("first", text(journal.peek()));
+            journal.remove();
+            assertEquals("second", text(journal.peek()));
+            journal.remove();
+            assertTrue(journal.isEmpty());
+        }
+    }
+
+    @Test
+    void reopen_replaysPendingRecords() throws IOException {
+        Path path = tempDir.resolve("journal");
+        try (SpillJournal journal = new SpillJournal(path, 1024)) {
+            journal.append(bytes("consumed"));
+            journal.append(bytes("pending"));
+            journal.remove();
+        }
+
+        try (SpillJournal reopened = new SpillJournal(path, 1024)) {
+            assertEquals(1, reopened.size());
+            assertEquals("pending", text(reopened.peek()));
+        }
+    }
+
+    @Test
+    void append_returnsFalseWhenFull_andReusesSpaceOnceDrained() throws IOException {
+        try (SpillJournal journal = new SpillJournal(tempDir.resolve("journal"), 64)) {
+            byte[] record = new byte[20];
+            assertTrue(journal.append(record));
+            assertTrue(journal.append(record));
+            assertFalse(journal.append(record));
+
+            journal.remove();
+            journal.remove();
+            assertTrue(journal.isEmpty());
+            assertTrue(journal.append(record));
+        }
+    }
+
+    @Test
+    void append_compactsIntoANewFile_whenPendingRecordsOverlapTheFreedSpace() throws IOException {
+        Path path = tempDir.resolve("journal");
+        try (SpillJournal journal = new SpillJournal(path, 64)) {
+            assertTrue(journal.append(padded("A")));
+            assertTrue(journal.append(padded("B")));
+            journal.remove();
+
+            // the freed 24 bytes are too few to move "B" in place
+            assertTrue(journal.append(padded("C")));
+            assertEquals(2, journal.size());
+            assertFalse(Files.exists(tempDir.resolve("journal.compact")));
+        }
+
+        try (SpillJournal reopened = new SpillJournal(path, 64)) {
+            assertEquals("B", text(reopened.peek()).trim());
+            reopened.remove();
+            assertEquals("C", text(reopened.peek()).trim());
+        }
+    }
+
+    @Test
+    void remove_zeroesTheConsumedRecord() throws IOException {
+        Path path = tempDir.resolve("journal");
+        try (SpillJournal journal = new SpillJournal(path, 1024)) {
+            journal.append(bytes("consumed-record"));
+            journal.append(bytes("pending-record"));
+            journal.remove();
+
+            String content = text(Files.readAllBytes(path));
+            assertFalse(content.contains("consumed-record"));
+            assertTrue(content.contains("pending-record"));
+        }
+    }
+
+    @Test
+    void open_failsWhileTheFileIsInUse() throws IOException {
+        Path path = tempDir.resolve("journal");
+        try (SpillJournal ignored = new SpillJournal(path, 1024)) {
+            assertThrows(IOException.class, () -> new SpillJournal(path, 1024));
+        }
+    }
+
+    private static byte[] padded(String value) {
+        return bytes(String.format("%-20s", value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}